@@ -0,0 +1,30 @@
+package project.config;
+
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.cache.CacheManagerCustomizer;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.cache.jcache.JCacheCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+
+@Configuration
+public class CacheConfig {
+
+    // Nomi delle cache di Spring (limiti e durata in application.conf)
+    public static final String EMPLOYEES_BY_USERNAME = "employeesByUsername";
+    public static final String PROJECTS_BY_EMPLOYEE = "projectsByEmployee";
+
+    // Hibernate usa lo stesso CacheManager JCache della cache di Spring: un'unica configurazione e un'unica fonte di statistiche
+    @Bean
+    public HibernatePropertiesCustomizer jCacheHibernatePropertiesCustomizer(CacheManager cacheManager) {
+        return hibernateProperties -> hibernateProperties.put(ConfigSettings.CACHE_MANAGER, cacheManager);
+    }
+
+    // Le invalidazioni fatte dentro una transazione vengono applicate solo dopo il commit
+    @Bean
+    public CacheManagerCustomizer<JCacheCacheManager> transactionAwareCacheManagerCustomizer() {
+        return cacheManager -> cacheManager.setTransactionAware(true);
+    }
+}
@@ -0,0 +1,50 @@
+package project.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.flywaydb.core.Flyway;
+import org.springframework.boot.autoconfigure.AbstractDependsOnBeanFactoryPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import project.filter.RequestQueryStats;
+
+import javax.sql.DataSource;
+
+@Configuration
+public class DataSourceConfig {
+
+    // Flyway avvia il pool (già risolvendo il {vendor} delle location): il MeterRegistry va creato prima, così Spring Boot
+    // collega il tracker Micrometer di Hikari (metriche hikaricp.*) prima della prima getConnection e conta anche l'avvio
+    @Bean
+    @ConditionalOnClass(Flyway.class)
+    public static FlywayMeterRegistryDependsOnPostProcessor flywayMeterRegistryDependsOnPostProcessor() {
+        return new FlywayMeterRegistryDependsOnPostProcessor();
+    }
+
+    // Il DataSource dell'applicazione passa da un proxy JDBC che registra ogni statement nelle statistiche della richiesta
+    // HTTP in corso (vedi QueryBudgetFilter); fuori da una richiesta il costo è un controllo su un ThreadLocal
+    @Bean
+    public static BeanPostProcessor queryStatsDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource && "dataSource".equals(beanName)) {
+                    return ProxyDataSourceBuilder.create((DataSource) bean)
+                            .name(beanName)
+                            .afterQuery((execInfo, queryInfoList) -> RequestQueryStats.record(execInfo, queryInfoList))
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+
+    static class FlywayMeterRegistryDependsOnPostProcessor extends AbstractDependsOnBeanFactoryPostProcessor {
+
+        FlywayMeterRegistryDependsOnPostProcessor() {
+            super(Flyway.class, MeterRegistry.class);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package project.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+// Attiva solo con datasource.replicas.urls: sostituisce il DataSource di Spring Boot con primario + repliche in lettura
+@Configuration
+@ConditionalOnProperty("datasource.replicas.urls")
+public class ReadReplicaConfig {
+
+    // Stesso pool che creerebbe Spring Boot (proprietà spring.datasource.*), usato per le scritture
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    // Le repliche ereditano la configurazione Hikari del primario (proprietà del driver comprese) e sono in sola lettura
+    @Bean
+    public ReadReplicaRoutingDataSource readReplicaRoutingDataSource(
+            HikariDataSource primaryDataSource,
+            @Value("${datasource.replicas.urls}") String[] urls,
+            @Value("${datasource.replicas.username:${spring.datasource.username}}") String username,
+            @Value("${datasource.replicas.password:${spring.datasource.password}}") String password,
+            @Value("${datasource.replicas.maximum-pool-size:${spring.datasource.hikari.maximum-pool-size:10}}") int maximumPoolSize,
+            @Value("${datasource.replicas.connection-timeout:1000}") long connectionTimeout,
+            @Value("${datasource.replicas.health-check-interval:5s}") Duration healthCheckInterval,
+            @Value("${datasource.replicas.read-after-write-window:2s}") Duration readAfterWriteWindow) {
+        List<HikariDataSource> replicas = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < urls.length; i++) {
+            HikariConfig config = new HikariConfig();
+            primaryDataSource.copyStateTo(config);
+            config.setPoolName(primaryDataSource.getPoolName() + "-replica-" + (i + 1));
+            config.setJdbcUrl(urls[i].trim());
+            config.setUsername(username);
+            config.setPassword(password);
+            config.setMaximumPoolSize(maximumPoolSize);
+            if (config.getMinimumIdle() > maximumPoolSize) {
+                config.setMinimumIdle(maximumPoolSize);
+            }
+            // Attesa breve: se la replica non risponde si passa alla successiva o al primario
+            config.setConnectionTimeout(connectionTimeout);
+            config.setReadOnly(true);
+            // Una replica irraggiungibile non blocca l'avvio dell'applicazione
+            config.setInitializationFailTimeout(-1);
+            replicas.add(new HikariDataSource(config));
+            names.add(config.getPoolName());
+        }
+        return new ReadReplicaRoutingDataSource(primaryDataSource, replicas, names, healthCheckInterval, readAfterWriteWindow,
+                ReadReplicaConfig::currentClient);
+    }
+
+    // Quota delle letture servite dalle repliche: se quelle sul primario crescono, le finestre read-after-write
+    // (o repliche fuori servizio) stanno togliendo traffico alle repliche.
+    // I pool delle repliche non sono bean: le metriche hikaricp.* si collegano qui, come Spring Boot fa per il primario
+    @Bean
+    public MeterBinder readReplicaRoutingMetrics(ReadReplicaRoutingDataSource readReplicaRoutingDataSource) {
+        return registry -> {
+            for (DataSource replica : readReplicaRoutingDataSource.getReplicaDataSources()) {
+                if (replica instanceof HikariDataSource) {
+                    ((HikariDataSource) replica).setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+                }
+            }
+            FunctionCounter.builder("datasource.read.transactions", readReplicaRoutingDataSource, ReadReplicaRoutingDataSource::getReplicaReads)
+                    .description("Read-only transactions by the data source that served them")
+                    .tag("target", "replica")
+                    .register(registry);
+            FunctionCounter.builder("datasource.read.transactions", readReplicaRoutingDataSource, ReadReplicaRoutingDataSource::getPrimaryReads)
+                    .description("Read-only transactions by the data source that served them")
+                    .tag("target", "primary")
+                    .register(registry);
+        };
+    }
+
+    // Client della lettura delle proprie scritture: l'utente autenticato della richiesta, null per i job in background
+    private static String currentClient() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated() || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadReplicaRoutingDataSource readReplicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(readReplicaRoutingDataSource);
+    }
+
+    // La sessione JPA aperta per tutta la richiesta (open-in-view) non deve trattenere la connessione della prima transazione:
+    // ogni transazione ne chiede una nuova, e quindi viene instradata in base al proprio flag readOnly
+    @Bean
+    public HibernatePropertiesCustomizer connectionReleaseHibernatePropertiesCustomizer() {
+        return hibernateProperties -> hibernateProperties.put(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+}
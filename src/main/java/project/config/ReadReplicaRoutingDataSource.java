@@ -0,0 +1,283 @@
+package project.config;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.QueryType;
+import net.ttddyy.dsproxy.listener.QueryUtils;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// Le transazioni in sola lettura vanno a rotazione sulle repliche sane, tutto il resto (e le letture senza repliche disponibili)
+// sul primario. La decisione si prende alla richiesta della connessione: va usato dietro un LazyConnectionDataSourceProxy,
+// perché il flag readOnly della transazione viene impostato dopo l'apertura della sessione JPA.
+// Lettura delle proprie scritture: dopo ogni INSERT/UPDATE/DELETE sul primario, e di nuovo al commit, le letture dello stesso
+// client (clientKey, l'utente autenticato) vanno sul primario per readAfterWriteWindow. Gli altri client continuano a leggere
+// dalle repliche, e le scritture senza client (relay dell'outbox, riallineamento dei riepiloghi) non aprono finestre.
+// Si assume che il ritardo delle repliche resti sotto questa finestra, altrimenti chi ha scritto può rileggere i dati precedenti;
+// gli altri client possono vederli per la durata del ritardo (vedi ChangeStampService.isSettled e CacheEvictor)
+public class ReadReplicaRoutingDataSource extends AbstractDataSource implements Closeable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReadReplicaRoutingDataSource.class);
+
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    private final DataSource primary;
+    // Primario con il rilevamento delle scritture, usato per le connessioni
+    private final DataSource primaryConnections;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final ScheduledExecutorService healthChecker;
+
+    private final long readAfterWriteWindowNanos;
+    private final Supplier<String> clientKey;
+    // Per client: fino a questo istante (System.nanoTime) le sue letture vanno sul primario
+    private final Map<String, Long> primaryReadsUntil = new ConcurrentHashMap<>();
+    // Transazioni in sola lettura servite dalle repliche e dal primario (metrica datasource.read.transactions)
+    private final AtomicLong replicaReads = new AtomicLong();
+    private final AtomicLong primaryReads = new AtomicLong();
+    // Chiave della risorsa di transazione che segnala una scrittura già registrata per il commit
+    private final Object writeMarker = new Object();
+
+    public ReadReplicaRoutingDataSource(DataSource primary, List<? extends DataSource> replicas, List<String> replicaNames,
+                                        Duration healthCheckInterval, Duration readAfterWriteWindow, Supplier<String> clientKey) {
+        this.primary = primary;
+        this.readAfterWriteWindowNanos = readAfterWriteWindow.toNanos();
+        this.clientKey = clientKey;
+        this.primaryConnections = readAfterWriteWindowNanos > 0
+                ? ProxyDataSourceBuilder.create(primary).afterQuery(this::onPrimaryQuery).build()
+                : primary;
+        for (int i = 0; i < replicas.size(); i++) {
+            this.replicas.add(new Replica(replicaNames.get(i), replicas.get(i)));
+        }
+        if (readAfterWriteWindowNanos <= 0 && !replicas.isEmpty()) {
+            LOGGER.warn("Read-after-write window disabled: reads and ETags after a write may reflect stale replica data");
+        }
+        // Prima verifica sincrona: una replica irraggiungibile all'avvio non riceve traffico
+        checkReplicas();
+        this.healthChecker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-health-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = healthCheckInterval.toMillis();
+        this.healthChecker.scheduleWithFixedDelay(() -> {
+            checkReplicas();
+            removeExpiredWindows();
+        }, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return route(null, null);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return route(username, password);
+    }
+
+    private Connection route(String username, String password) throws SQLException {
+        boolean readOnly = TransactionSynchronizationManager.isCurrentTransactionReadOnly() && !replicas.isEmpty();
+        if (readOnly && !readingAfterWrite(clientKey.get())) {
+            int start = Math.floorMod(nextReplica.getAndIncrement(), replicas.size());
+            for (int i = 0; i < replicas.size(); i++) {
+                Replica replica = replicas.get((start + i) % replicas.size());
+                if (!replica.healthy) {
+                    continue;
+                }
+                try {
+                    Connection connection = open(replica.dataSource, username, password);
+                    replicaReads.incrementAndGet();
+                    return connection;
+                } catch (SQLException e) {
+                    // Failover sulla replica successiva; il controllo periodico la rimette in servizio
+                    replica.markDown(e);
+                }
+            }
+            LOGGER.debug("No healthy read replica available, reading from the primary");
+        }
+        if (readOnly) {
+            primaryReads.incrementAndGet();
+        }
+        return open(primaryConnections, username, password);
+    }
+
+    private boolean readingAfterWrite(String client) {
+        Long until = client != null ? primaryReadsUntil.get(client) : null;
+        return until != null && until - System.nanoTime() > 0;
+    }
+
+    private void onPrimaryQuery(ExecutionInfo executionInfo, List<QueryInfo> queries) {
+        for (QueryInfo query : queries) {
+            QueryType type = QueryUtils.getQueryType(query.getQuery());
+            if (type == QueryType.INSERT || type == QueryType.UPDATE || type == QueryType.DELETE) {
+                recordWrite();
+                return;
+            }
+        }
+    }
+
+    // La finestra parte dalla scrittura (copre il tempo fino al commit) e riparte dal commit, prima delle altre
+    // sincronizzazioni: quando il client vede un effetto del commit (ad esempio un ETag nuovo) legge già dal primario
+    private void recordWrite() {
+        String client = clientKey.get();
+        if (client == null) {
+            return;
+        }
+        extendPrimaryReads(client);
+        if (TransactionSynchronizationManager.isSynchronizationActive() && !TransactionSynchronizationManager.hasResource(writeMarker)) {
+            TransactionSynchronizationManager.bindResource(writeMarker, Boolean.TRUE);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public int getOrder() {
+                    return Ordered.HIGHEST_PRECEDENCE;
+                }
+
+                @Override
+                public void afterCommit() {
+                    extendPrimaryReads(client);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(writeMarker);
+                }
+            });
+        }
+    }
+
+    private void extendPrimaryReads(String client) {
+        long until = System.nanoTime() + readAfterWriteWindowNanos;
+        primaryReadsUntil.merge(client, until, (current, candidate) -> candidate - current > 0 ? candidate : current);
+    }
+
+    private void removeExpiredWindows() {
+        long now = System.nanoTime();
+        primaryReadsUntil.values().removeIf(until -> until - now <= 0);
+    }
+
+    // Per i test: chiude le finestre di lettura dal primario aperte dalle scritture precedenti
+    void resetReadAfterWrite() {
+        primaryReadsUntil.clear();
+    }
+
+    public long getReplicaReads() {
+        return replicaReads.get();
+    }
+
+    public long getPrimaryReads() {
+        return primaryReads.get();
+    }
+
+    private static Connection open(DataSource dataSource, String username, String password) throws SQLException {
+        return username == null ? dataSource.getConnection() : dataSource.getConnection(username, password);
+    }
+
+    void checkReplicas() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource.getConnection()) {
+                if (connection.isValid(VALIDATION_TIMEOUT_SECONDS)) {
+                    replica.markUp();
+                } else {
+                    replica.markDown(null);
+                }
+            } catch (Exception e) {
+                replica.markDown(e);
+            }
+        }
+    }
+
+    public List<DataSource> getReplicaDataSources() {
+        List<DataSource> dataSources = new ArrayList<>();
+        for (Replica replica : replicas) {
+            dataSources.add(replica.dataSource);
+        }
+        return dataSources;
+    }
+
+    public List<String> getHealthyReplicas() {
+        List<String> healthy = new ArrayList<>();
+        for (Replica replica : replicas) {
+            if (replica.healthy) {
+                healthy.add(replica.name);
+            }
+        }
+        return healthy;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) {
+            return (T) this;
+        }
+        return primary.unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isInstance(this) || primary.isWrapperFor(iface);
+    }
+
+    // Chiude il controllo periodico e i pool delle repliche (il pool del primario è un bean a sé)
+    @Override
+    public void close() {
+        healthChecker.shutdownNow();
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof Closeable) {
+                try {
+                    ((Closeable) replica.dataSource).close();
+                } catch (Exception e) {
+                    LOGGER.warn("Error closing read replica {}: {}", replica.name, e.getMessage());
+                }
+            }
+        }
+    }
+
+    private static final class Replica {
+
+        private final String name;
+        private final DataSource dataSource;
+        private volatile boolean healthy = true;
+
+        Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        void markUp() {
+            if (!healthy) {
+                healthy = true;
+                LOGGER.info("Read replica {} is back in service", name);
+            }
+        }
+
+        void markDown(Exception cause) {
+            if (healthy) {
+                healthy = false;
+                LOGGER.warn("Read replica {} taken out of service: {}", name, cause == null ? "connection not valid" : cause.getMessage());
+            }
+        }
+    }
+}
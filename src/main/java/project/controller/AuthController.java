@@ -3,17 +3,21 @@ package project.controller;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 import project.model.Employee;
 import project.repositories.EmployeeRepository;
+import project.security.CredentialVerifier;
 import project.security.JwtTokenProvider;
 import project.services.EmployeeService;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api/auth")
@@ -33,51 +37,58 @@ public class AuthController {
     @Autowired
     private EmployeeRepository employeeRepository;
 
-    // Autenticazione e generazione del token JWT
+    @Autowired
+    private CredentialVerifier credentialVerifier;
+
+    // Autenticazione e generazione del token JWT: la verifica BCrypt gira sul pool dedicato, non sul thread di Tomcat
     @PostMapping("/login")
-    public ResponseEntity<Map<String, String>> login(@RequestParam String username, @RequestParam String password) {
+    public CompletableFuture<ResponseEntity<Map<String, String>>> login(@RequestParam String username, @RequestParam String password) {
+        LOGGER.debug("Attempting login for username: {}", username);
         try {
-            LOGGER.info("Attempting login for username: {}", username);
-
-            // Cerca l'utente nel database
-            Employee employee = employeeRepository.findByUsername(username);
-
-            // Verifica che l'utente esista
-            if (employee == null) {
-                Map<String, String> errorResponse = new HashMap<>();
-                errorResponse.put("message", "Invalid credentials");
-                return new ResponseEntity<>(errorResponse, HttpStatus.UNAUTHORIZED);
-            }
-
-            // Verifica la password usando BCryptPasswordEncoder
-            if (!passwordEncoder.matches(password, employee.getPassword())) {
-                Map<String, String> errorResponse = new HashMap<>();
-                errorResponse.put("message", "Invalid credentials");
-                return new ResponseEntity<>(errorResponse, HttpStatus.UNAUTHORIZED);
-            }
-
-            // Genera il token JWT passando l'oggetto Employee
-            String token = jwtTokenProvider.generateToken(employee);
-            LOGGER.info("Login successful for username: {}", username);
-
-            // Crea una mappa con il token
-            Map<String, String> response = new HashMap<>();
-            response.put("token", token);
-
-            return ResponseEntity.ok(response);
+            return credentialVerifier.verify(username, password)
+                    .thenApply(employee -> employee
+                            .map(this::loginSucceeded)
+                            .orElseGet(() -> errorResponse("Invalid credentials", HttpStatus.UNAUTHORIZED)))
+                    .exceptionally(e -> {
+                        LOGGER.error("Error occurred during login for username: {}", username, e);
+                        return errorResponse("Invalid credentials", HttpStatus.UNAUTHORIZED);
+                    });
+        } catch (RejectedExecutionException e) {
+            // Pool di hashing saturo: risposta immediata, il client riprova
+            LOGGER.warn("Login rejected for username {}: password hashing pool is saturated", username);
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("message", "Too many login attempts, please retry");
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(errorResponse));
         } catch (Exception e) {
             LOGGER.error("Error occurred during login for username: {}", username, e);
-            Map<String, String> errorResponse = new HashMap<>();
-            errorResponse.put("message", "Invalid credentials");
-            return new ResponseEntity<>(errorResponse, HttpStatus.UNAUTHORIZED);
+            return CompletableFuture.completedFuture(errorResponse("Invalid credentials", HttpStatus.UNAUTHORIZED));
         }
     }
 
+    private ResponseEntity<Map<String, String>> loginSucceeded(Employee employee) {
+        // Genera il token JWT passando l'oggetto Employee
+        String token = jwtTokenProvider.generateToken(employee);
+        LOGGER.info("Login successful for username: {}", employee.getUsername());
+
+        // Crea una mappa con il token
+        Map<String, String> response = new HashMap<>();
+        response.put("token", token);
+        return ResponseEntity.ok(response);
+    }
+
+    private static ResponseEntity<Map<String, String>> errorResponse(String message, HttpStatus status) {
+        Map<String, String> errorResponse = new HashMap<>();
+        errorResponse.put("message", message);
+        return new ResponseEntity<>(errorResponse, status);
+    }
+
     // Registrazione di un nuovo dipendente
     @PostMapping("/register")
     public ResponseEntity<String> register(@RequestBody Employee employee) {
         try {
-            LOGGER.info("Attempting to register new employee: {}", employee.getUsername());
+            LOGGER.debug("Attempting to register new employee: {}", employee.getUsername());
 
             // Verifica che username non esista già
             if(employeeRepository.findByUsername(employee.getUsername()) != null){
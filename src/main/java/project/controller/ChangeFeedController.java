@@ -0,0 +1,36 @@
+package project.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import project.services.ChangeFeedService;
+
+@RestController
+@RequestMapping("/api")
+public class ChangeFeedController {
+
+    @Autowired
+    private ChangeFeedService changeFeedService;
+
+    // Feed delle modifiche (Server-Sent Events) al posto del polling: il PM segue tutto o un solo progetto,
+    // l'employee solo le modifiche che lo riguardano. Last-Event-ID riprende dall'ultimo evento ricevuto
+    @PreAuthorize("hasRole('PM') or (hasRole('EMPLOYEE') and #employeeId == authentication.principal.id)")
+    @GetMapping(value = "/subscribeChanges", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> subscribeChanges(
+            @RequestParam(required = false) Long projectId,
+            @RequestParam(required = false) Long employeeId,
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        SseEmitter emitter = changeFeedService.subscribe(projectId, employeeId, lastEventId);
+        // Niente buffering degli eventi nei reverse proxy (nginx)
+        return ResponseEntity.ok()
+                .header("X-Accel-Buffering", "no")
+                .body(emitter);
+    }
+}
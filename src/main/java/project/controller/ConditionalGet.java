@@ -0,0 +1,52 @@
+package project.controller;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.ServletWebRequest;
+import project.enums.ResourceCollectionEnum;
+import project.services.ChangeStampService;
+
+import javax.servlet.http.HttpServletRequest;
+
+// GET condizionali sugli endpoint di lettura: ETag debole (e Last-Modified per le liste) calcolato prima della query,
+// 304 senza corpo se il client ha già la rappresentazione corrente. Va chiamato dentro il metodo del controller,
+// quindi dopo il controllo di @PreAuthorize
+final class ConditionalGet {
+
+    private ConditionalGet() {
+    }
+
+    // Liste: dipendono dai contatori di modifica delle collezioni indicate
+    static boolean notModified(ServletWebRequest webRequest, ChangeStampService changeStampService,
+                               ResourceCollectionEnum... collections) {
+        // Modifica recente non ancora arrivata alle repliche: risposta senza validatori, altrimenti il client
+        // potrebbe conservare le righe precedenti sotto l'ETag nuovo
+        if (!changeStampService.isSettled(collections)) {
+            return false;
+        }
+        String etag = changeStampService.collectionEtag(resource(webRequest), collections);
+        // Last-Modified solo quando è iniziato il secondo che indica: prima, un'altra scrittura nello stesso secondo
+        // avrebbe lo stesso valore e If-Modified-Since darebbe 304 sui dati vecchi. Nel frattempo vale solo l'ETag
+        long lastModified = changeStampService.lastModified(collections);
+        return notModified(webRequest, etag, lastModified <= System.currentTimeMillis() ? lastModified : -1);
+    }
+
+    // Singole risorse: dipendono dalle versioni (@Version, vedi V5) delle entità restituite. La versione cresce a ogni
+    // modifica ed è in sola lettura nel JSON, quindi un client non può riportarla indietro per ottenere un 304
+    static boolean notModified(ServletWebRequest webRequest, ChangeStampService changeStampService, Long... versions) {
+        return notModified(webRequest, changeStampService.entityEtag(resource(webRequest), versions), -1);
+    }
+
+    private static boolean notModified(ServletWebRequest webRequest, String etag, long lastModified) {
+        // Il browser conserva la risposta ma la rivalida a ogni uso; senza questo header Spring Security imposta no-store
+        webRequest.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().cachePrivate().getHeaderValue());
+        // La risposta dipende dall'utente e dal formato richiesto (JSON, Smile, CBOR)
+        webRequest.getResponse().setHeader(HttpHeaders.VARY, HttpHeaders.AUTHORIZATION + ", " + HttpHeaders.ACCEPT);
+        return webRequest.checkNotModified(etag, lastModified);
+    }
+
+    private static String resource(ServletWebRequest webRequest) {
+        HttpServletRequest request = webRequest.getRequest();
+        return request.getQueryString() != null ? request.getRequestURI() + "?" + request.getQueryString() : request.getRequestURI();
+    }
+}
@@ -7,12 +7,18 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import project.dto.KeysetPage;
+import project.enums.RoleEnum;
 import project.model.Employee;
+import project.services.ChangeStampService;
 import project.services.EmployeeService;
 
 import java.util.List;
 import java.util.Optional;
 
+import static project.enums.ResourceCollectionEnum.EMPLOYEES;
+
 @RestController
 @RequestMapping("/api")
 public class EmployeeController {
@@ -22,13 +28,16 @@ public class EmployeeController {
     @Autowired
     private EmployeeService employeeService;
 
+    @Autowired
+    private ChangeStampService changeStampService;
+
     @PreAuthorize("hasRole('PM')")
     @PostMapping("/createEmployee")
     public ResponseEntity<Employee> createEmployee(@RequestBody Employee employee) {
         try {
-            LOGGER.info("Creating new employee: {}", employee);
+            LOGGER.debug("Creating new employee: {}", employee);
             Employee newUser = employeeService.createEmployee(employee);
-            LOGGER.info("Employee created successfully with ID: {}", newUser.getId());
+            LOGGER.debug("Employee created successfully with ID: {}", newUser.getId());
             return new ResponseEntity<>(newUser, HttpStatus.CREATED);
         } catch (Exception e) {
             LOGGER.error("Error occurred while creating employee: {}", e.getMessage());
@@ -38,11 +47,14 @@ public class EmployeeController {
 
     @PreAuthorize("hasRole('PM')")
     @GetMapping("/getAllEmployees")
-    public ResponseEntity<List<Employee>> getAllEmployees() {
+    public ResponseEntity<List<Employee>> getAllEmployees(ServletWebRequest webRequest) {
         try {
-            LOGGER.info("Retrieving all employees");
+            if (ConditionalGet.notModified(webRequest, changeStampService, EMPLOYEES)) {
+                return new ResponseEntity<>(HttpStatus.NOT_MODIFIED);
+            }
+            LOGGER.debug("Retrieving all employees");
             List<Employee> users = employeeService.getAllEmployees();
-            LOGGER.info("Found {} employees", users.size());
+            LOGGER.debug("Found {} employees", users.size());
             return new ResponseEntity<>(users, HttpStatus.OK);
         } catch (Exception e) {
             LOGGER.error("Error occurred while retrieving all employees: {}", e.getMessage());
@@ -50,15 +62,38 @@ public class EmployeeController {
         }
     }
 
+    // Recupero paginato dei dipendenti (cursore sull'id) con filtro opzionale sul ruolo
+    @PreAuthorize("hasRole('PM')")
+    @GetMapping("/getEmployeesPage")
+    public ResponseEntity<KeysetPage<Employee>> getEmployeesPage(@RequestParam(required = false) Long afterId,
+                                                                 @RequestParam(required = false) Integer size,
+                                                                 @RequestParam(required = false) RoleEnum role,
+                                                                 ServletWebRequest webRequest) {
+        try {
+            if (ConditionalGet.notModified(webRequest, changeStampService, EMPLOYEES)) {
+                return new ResponseEntity<>(HttpStatus.NOT_MODIFIED);
+            }
+            KeysetPage<Employee> page = employeeService.getEmployeesPage(afterId, size, role);
+            LOGGER.debug("Found {} employees after ID {}", page.getItems().size(), afterId);
+            return new ResponseEntity<>(page, HttpStatus.OK);
+        } catch (Exception e) {
+            LOGGER.error("Error occurred while retrieving employees page: {}", e.getMessage());
+            return new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
     // Un dipendente può vedere i suoi dettagli, ma PM può vedere tutti i dipendenti
     @PreAuthorize("hasRole('PM') or (hasRole('EMPLOYEE') and #id == authentication.principal.id)")
     @GetMapping("/getEmployeeById")
-    public ResponseEntity<Employee> getEmployeeById(@RequestParam Long id) {
+    public ResponseEntity<Employee> getEmployeeById(@RequestParam Long id, ServletWebRequest webRequest) {
         try {
-            LOGGER.info("Retrieving employee with ID: {}", id);
+            LOGGER.debug("Retrieving employee with ID: {}", id);
             Optional<Employee> user = employeeService.getEmployeeById(id);
             if (user.isPresent()) {
-                LOGGER.info("Employee found: {}", user.get());
+                LOGGER.debug("Employee found: {}", user.get());
+                if (ConditionalGet.notModified(webRequest, changeStampService, user.get().getVersion())) {
+                    return new ResponseEntity<>(HttpStatus.NOT_MODIFIED);
+                }
                 return new ResponseEntity<>(user.get(), HttpStatus.OK);
             } else {
                 LOGGER.warn("Employee with ID {} not found", id);
@@ -76,10 +111,10 @@ public class EmployeeController {
     public ResponseEntity<Employee> updateEmployee(@RequestBody Employee employee) {
         try {
             if (employee.getId() != null) {
-                LOGGER.info("Updating employee with ID: {}", employee.getId());
+                LOGGER.debug("Updating employee with ID: {}", employee.getId());
                 Employee updatedEmployee = employeeService.updateEmployee(employee.getId(), employee);
                 if (updatedEmployee != null) {
-                    LOGGER.info("Employee updated successfully with ID: {}", updatedEmployee.getId());
+                    LOGGER.debug("Employee updated successfully with ID: {}", updatedEmployee.getId());
                     return new ResponseEntity<>(updatedEmployee, HttpStatus.OK);
                 } else {
                     LOGGER.warn("Employee with ID {} not found for update", employee.getId());
@@ -99,7 +134,7 @@ public class EmployeeController {
     @DeleteMapping("/deleteEmployee")
     public ResponseEntity<String> deleteEmployee(@RequestParam("id") Long id) {
         try {
-            LOGGER.info("Delete request for employee ID: {}", id);
+            LOGGER.debug("Delete request for employee ID: {}", id);
 
             if (id == null || id <= 0) {
                 LOGGER.warn("Invalid employee ID: {}", id);
@@ -109,7 +144,7 @@ public class EmployeeController {
             boolean isDeleted = employeeService.deleteEmployee(id);
 
             if (isDeleted) {
-                LOGGER.info("Employee with ID {} deleted OK", id);
+                LOGGER.debug("Employee with ID {} deleted OK", id);
                 return ResponseEntity.ok("Employee ID " + id + " successfully deleted!");
             } else {
                 LOGGER.warn("Employee with ID {} not found", id);
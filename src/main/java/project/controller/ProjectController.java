@@ -7,12 +7,26 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import project.dto.KeysetPage;
+import project.dto.ProjectSummaryView;
+import project.dto.ProjectView;
+import project.enums.ProjectStatusEnum;
 import project.model.Project;
+import project.services.ChangeStampService;
 import project.services.ProjectService;
+import project.services.ProjectSummaryService;
 
+import javax.persistence.EntityNotFoundException;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
+import static project.enums.ResourceCollectionEnum.PROJECTS;
+import static project.enums.ResourceCollectionEnum.PROJECT_SUMMARIES;
+import static project.enums.ResourceCollectionEnum.TASKS;
+
 @RestController
 @RequestMapping("/api")
 public class ProjectController {
@@ -22,12 +36,18 @@ public class ProjectController {
     @Autowired
     private ProjectService projectService;
 
+    @Autowired
+    private ProjectSummaryService projectSummaryService;
+
+    @Autowired
+    private ChangeStampService changeStampService;
+
     // Creazione di un nuovo progetto
     @PreAuthorize("hasRole('PM')")
     @PostMapping ("/createProject")
     public ResponseEntity<Project> createProject(@RequestBody Project project) {
         try {
-            LOGGER.info("Creating new project: {}", project);
+            LOGGER.debug("Creating new project: {}", project);
             Project newProject = projectService.createProject(project);
             LOGGER.info("Project created successfully with ID: {}", newProject.getId());
             return new ResponseEntity<>(newProject, HttpStatus.CREATED);
@@ -40,11 +60,14 @@ public class ProjectController {
     // Recupero di tutti i progetti
     @PreAuthorize("hasRole('PM')")
     @GetMapping("/getAllProjects")
-    public ResponseEntity<List<Project>> getAllProjects() {
+    public ResponseEntity<List<Project>> getAllProjects(ServletWebRequest webRequest) {
         try {
-            LOGGER.info("Retrieving all projects");
+            if (ConditionalGet.notModified(webRequest, changeStampService, PROJECTS)) {
+                return new ResponseEntity<>(HttpStatus.NOT_MODIFIED);
+            }
+            LOGGER.debug("Retrieving all projects");
             List<Project> projects = projectService.getAllProjects();
-            LOGGER.info("Found {} projects", projects.size());
+            LOGGER.debug("Found {} projects", projects.size());
             return new ResponseEntity<>(projects, HttpStatus.OK);
         } catch (Exception e) {
             LOGGER.error("Error occurred while retrieving all projects: {}", e.getMessage());
@@ -52,16 +75,39 @@ public class ProjectController {
         }
     }
 
+    // Recupero paginato dei progetti (cursore sull'id) con filtro opzionale sullo stato
+    @PreAuthorize("hasRole('PM')")
+    @GetMapping("/getProjectsPage")
+    public ResponseEntity<KeysetPage<Project>> getProjectsPage(@RequestParam(required = false) Long afterId,
+                                                               @RequestParam(required = false) Integer size,
+                                                               @RequestParam(required = false) ProjectStatusEnum status,
+                                                               ServletWebRequest webRequest) {
+        try {
+            if (ConditionalGet.notModified(webRequest, changeStampService, PROJECTS)) {
+                return new ResponseEntity<>(HttpStatus.NOT_MODIFIED);
+            }
+            KeysetPage<Project> page = projectService.getProjectsPage(afterId, size, status);
+            LOGGER.debug("Found {} projects after ID {}", page.getItems().size(), afterId);
+            return new ResponseEntity<>(page, HttpStatus.OK);
+        } catch (Exception e) {
+            LOGGER.error("Error occurred while retrieving projects page: {}", e.getMessage());
+            return new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
     // Recupero di un progetto per ID
     // Solo PM o Employee che è assegnato a un progetto può vederlo
     @PreAuthorize("hasRole('PM')")
     @GetMapping("/getProjectById")
-    public ResponseEntity<Project> getProjectById(@RequestParam Long id) {
+    public ResponseEntity<Project> getProjectById(@RequestParam Long id, ServletWebRequest webRequest) {
         try {
-            LOGGER.info("Retrieving project with ID: {}", id);
+            LOGGER.debug("Retrieving project with ID: {}", id);
             Optional<Project> project = projectService.getProjectById(id);
             if (project.isPresent()) {
-                LOGGER.info("Project found: {}", project.get());
+                LOGGER.debug("Project found: {}", project.get());
+                if (ConditionalGet.notModified(webRequest, changeStampService, project.get().getVersion())) {
+                    return new ResponseEntity<>(HttpStatus.NOT_MODIFIED);
+                }
                 return new ResponseEntity<>(project.get(), HttpStatus.OK);
             } else {
                 LOGGER.warn("Project with ID {} not found", id);
@@ -73,11 +119,16 @@ public class ProjectController {
         }
     }
 
-    @PreAuthorize("hasRole('PM') or hasRole('EMPLOYEE')")
+    // Il PM vede i progetti di chiunque, l'employee solo quelli in cui ha dei task
+    @PreAuthorize("hasRole('PM') or (hasRole('EMPLOYEE') and #employeeId == authentication.principal.id)")
     @GetMapping("/getProjectsForEmployee")
-    public ResponseEntity<List<Project>> getProjectsForEmployee(@RequestParam Long employeeId) {
+    public ResponseEntity<List<ProjectView>> getProjectsForEmployee(@RequestParam Long employeeId, ServletWebRequest webRequest) {
         try {
-            List<Project> projects = projectService.getProjectsForEmployee(employeeId);
+            // I progetti di un dipendente dipendono anche dai task che gli sono assegnati
+            if (ConditionalGet.notModified(webRequest, changeStampService, PROJECTS, TASKS)) {
+                return new ResponseEntity<>(HttpStatus.NOT_MODIFIED);
+            }
+            List<ProjectView> projects = projectService.getProjectsForEmployee(employeeId);
             return new ResponseEntity<>(projects, HttpStatus.OK);
         } catch (Exception e) {
             LOGGER.error("Error fetching projects for employee {}: {}", employeeId, e.getMessage());
@@ -92,10 +143,10 @@ public class ProjectController {
     public ResponseEntity<Project> updateProject(@RequestBody Project project) {
         try {
             if (project.getId() != null) {
-                LOGGER.info("Updating project with ID: {}", project.getId());
+                LOGGER.debug("Updating project with ID: {}", project.getId());
                 Project updatedProject = projectService.updateProject(project.getId(), project);
                 if (updatedProject != null) {
-                    LOGGER.info("Project updated successfully with ID: {}", updatedProject.getId());
+                    LOGGER.debug("Project updated successfully with ID: {}", updatedProject.getId());
                     return new ResponseEntity<>(updatedProject, HttpStatus.OK);
                 } else {
                     LOGGER.warn("Project with ID {} not found for update", project.getId());
@@ -111,12 +162,48 @@ public class ProjectController {
         }
     }
 
+    // Riepilogo dei progetti per la dashboard (tutti, o solo quelli indicati)
+    @PreAuthorize("hasRole('PM')")
+    @GetMapping("/getProjectSummaries")
+    public ResponseEntity<List<ProjectSummaryView>> getProjectSummaries(@RequestParam(required = false) List<Long> projectIds,
+                                                                        ServletWebRequest webRequest) {
+        try {
+            // I contatori cambiano con le scritture sui task e con il riallineamento periodico
+            if (ConditionalGet.notModified(webRequest, changeStampService, PROJECTS, TASKS, PROJECT_SUMMARIES)) {
+                return new ResponseEntity<>(HttpStatus.NOT_MODIFIED);
+            }
+            List<ProjectSummaryView> summaries = projectSummaryService.getProjectSummaries(projectIds);
+            LOGGER.debug("Found {} project summaries", summaries.size());
+            return new ResponseEntity<>(summaries, HttpStatus.OK);
+        } catch (Exception e) {
+            LOGGER.error("Error fetching project summaries: {}", e.getMessage());
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    // Chiusura di un progetto: progetto e tutti i suoi task passano a COMPLETED
+    @PreAuthorize("hasRole('PM')")
+    @PutMapping("/completeProject")
+    public ResponseEntity<Map<String, Integer>> completeProject(@RequestParam("id") Long id) {
+        try {
+            LOGGER.debug("Complete request for project ID: {}", id);
+            int completedTasks = projectService.completeProject(id);
+            return ResponseEntity.ok(Collections.singletonMap("completedTasks", completedTasks));
+        } catch (EntityNotFoundException e) {
+            LOGGER.warn("Project with ID {} not found", id);
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        } catch (Exception e) {
+            LOGGER.error("Error occurred while completing project with ID {}: {}", id, e.getMessage());
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
     // Eliminazione di un progetto (ID passato nel body)
     @PreAuthorize("hasRole('PM')")
     @DeleteMapping("/deleteProject")
     public ResponseEntity<String> deleteProject(@RequestParam("id") Long id) {
         try {
-            LOGGER.info("Delete request for project ID: {}", id);
+            LOGGER.debug("Delete request for project ID: {}", id);
 
             if (id == null || id <= 0) {
                 LOGGER.warn("Invalid project ID: {}", id);
@@ -126,7 +213,7 @@ public class ProjectController {
             boolean isDeleted = projectService.deleteProject(id);
 
             if (isDeleted) {
-                LOGGER.info("Project with ID {} successfully deleted", id);
+                LOGGER.debug("Project with ID {} successfully deleted", id);
                 return ResponseEntity.ok("Project with ID " + id + " successfully deleted");
             } else {
                 LOGGER.warn("Project with ID {} not found", id);
@@ -0,0 +1,50 @@
+package project.controller;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import project.dto.CacheStatistics;
+import project.dto.ConnectionPoolStatistics;
+import project.services.StatisticsService;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api")
+public class StatisticsController {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(StatisticsController.class);
+
+    @Autowired
+    private StatisticsService statisticsService;
+
+    // Hit/miss delle cache (regioni di Hibernate e cache dei finder)
+    @PreAuthorize("hasRole('PM')")
+    @GetMapping("/getCacheStatistics")
+    public ResponseEntity<List<CacheStatistics>> getCacheStatistics() {
+        try {
+            return new ResponseEntity<>(statisticsService.getCacheStatistics(), HttpStatus.OK);
+        } catch (Exception e) {
+            LOGGER.error("Error occurred while retrieving cache statistics: {}", e.getMessage());
+            return new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    // Stato dei pool di connessioni e tempi di attesa per ottenere una connessione (dimensionamento del pool)
+    @PreAuthorize("hasRole('PM')")
+    @GetMapping("/getConnectionPoolStatistics")
+    public ResponseEntity<List<ConnectionPoolStatistics>> getConnectionPoolStatistics() {
+        try {
+            return new ResponseEntity<>(statisticsService.getConnectionPoolStatistics(), HttpStatus.OK);
+        } catch (Exception e) {
+            LOGGER.error("Error occurred while retrieving connection pool statistics: {}", e.getMessage());
+            return new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+}
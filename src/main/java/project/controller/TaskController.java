@@ -3,31 +3,61 @@ package project.controller;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import project.dto.KeysetPage;
+import project.dto.TaskBulkRequest;
+import project.dto.TaskBulkResult;
+import project.dto.TaskFilter;
+import project.dto.TaskSearchPage;
+import project.dto.TaskView;
+import project.enums.TaskStatusEnum;
 import project.model.Task;
+import project.services.ChangeStampService;
+import project.services.TaskSearchService;
 import project.services.TaskService;
 
+import javax.persistence.EntityNotFoundException;
+import java.time.LocalDate;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
+import static project.enums.ResourceCollectionEnum.EMPLOYEES;
+import static project.enums.ResourceCollectionEnum.PROJECTS;
+import static project.enums.ResourceCollectionEnum.TASKS;
+
 @RestController
 @RequestMapping("/api")
 public class TaskController {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(TaskController.class);
 
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
     @Autowired
     private TaskService taskService;
 
+    @Autowired
+    private TaskSearchService taskSearchService;
+
+    @Autowired
+    private ChangeStampService changeStampService;
+
     // Creazione di un nuovo task
     @PreAuthorize("hasRole('PM')")
     @PostMapping("/createTask")
     public ResponseEntity<Task> createTask(@RequestBody Task task) {
         try {
-            LOGGER.info("Creating new task: {}", task);
+            LOGGER.debug("Creating new task: {}", task);
             Task newTask = taskService.createTask(task);
             LOGGER.info("Task created successfully with ID: {}", newTask.getId());
             return new ResponseEntity<>(newTask, HttpStatus.CREATED);
@@ -37,25 +67,118 @@ public class TaskController {
         }
     }
 
+    // Creazione, aggiornamento ed eliminazione di più task in un'unica transazione, con esito per singola operazione
+    @PreAuthorize("hasRole('PM')")
+    @PostMapping("/bulkTasks")
+    public ResponseEntity<TaskBulkResult> bulkTasks(@RequestBody TaskBulkRequest request) {
+        try {
+            LOGGER.debug("Bulk task request with {} operations", request.size());
+            TaskBulkResult result = taskService.bulkTasks(request);
+            return new ResponseEntity<>(result, HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            LOGGER.warn("Invalid bulk task request: {}", e.getMessage());
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        } catch (Exception e) {
+            LOGGER.error("Error occurred during bulk task request: {}", e.getMessage());
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
     // Recupero di tutti i task
     @PreAuthorize("hasRole('PM')")
     @GetMapping("/getAllTasks")
-    public ResponseEntity<List<Task>> getAllTasks() {
+    public ResponseEntity<List<Task>> getAllTasks(ServletWebRequest webRequest) {
         try {
-            LOGGER.info("Retrieving all tasks");
+            if (ConditionalGet.notModified(webRequest, changeStampService, TASKS, PROJECTS, EMPLOYEES)) {
+                return new ResponseEntity<>(HttpStatus.NOT_MODIFIED);
+            }
+            LOGGER.debug("Retrieving all tasks");
             List<Task> tasks = taskService.getAllTasks();
-            LOGGER.info("Found {} tasks", tasks.size());
+            LOGGER.debug("Found {} tasks", tasks.size());
             return new ResponseEntity<>(tasks, HttpStatus.OK);
         } catch (Exception e) {
             LOGGER.error("Error occurred while retrieving all tasks: {}", e.getMessage());
             return new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
-    @PreAuthorize("hasRole('EMPLOYEE')")
+
+    // Recupero paginato dei task (cursore sull'id) con filtri opzionali
+    @PreAuthorize("hasRole('PM')")
+    @GetMapping("/getTasksPage")
+    public ResponseEntity<KeysetPage<Task>> getTasksPage(
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) TaskStatusEnum status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueTo,
+            @RequestParam(required = false) Long projectId,
+            @RequestParam(required = false) Long employeeId,
+            ServletWebRequest webRequest) {
+        try {
+            if (ConditionalGet.notModified(webRequest, changeStampService, TASKS, PROJECTS, EMPLOYEES)) {
+                return new ResponseEntity<>(HttpStatus.NOT_MODIFIED);
+            }
+            TaskFilter filter = new TaskFilter(status, dueFrom, dueTo, projectId, employeeId);
+            KeysetPage<Task> page = taskService.getTasksPage(afterId, size, filter);
+            LOGGER.debug("Found {} tasks after ID {}", page.getItems().size(), afterId);
+            return new ResponseEntity<>(page, HttpStatus.OK);
+        } catch (Exception e) {
+            LOGGER.error("Error occurred while retrieving tasks page: {}", e.getMessage());
+            return new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    // Ricerca full-text su titolo e descrizione dei task e dei loro progetti: risultati per rilevanza, a pagine numerate.
+    // L'employee cerca solo tra i propri task
+    @PreAuthorize("hasRole('PM') or (hasRole('EMPLOYEE') and #employeeId == authentication.principal.id)")
+    @GetMapping("/searchTasks")
+    public ResponseEntity<TaskSearchPage> searchTasks(
+            @RequestParam String q,
+            @RequestParam(required = false) TaskStatusEnum status,
+            @RequestParam(required = false) Long projectId,
+            @RequestParam(required = false) Long employeeId,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size) {
+        try {
+            TaskSearchPage result = taskSearchService.searchTasks(q, status, projectId, employeeId, page, size);
+            LOGGER.debug("Found {} tasks matching '{}'", result.getTotal(), q);
+            return new ResponseEntity<>(result, HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            LOGGER.warn("Invalid task search '{}': {}", q, e.getMessage());
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        } catch (IllegalStateException e) {
+            // Indice ancora in costruzione dopo l'avvio: il client riprova
+            LOGGER.warn("Task search unavailable: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "5")
+                    .build();
+        } catch (Exception e) {
+            LOGGER.error("Error occurred while searching tasks: {}", e.getMessage());
+            return new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    // Export di tutti i task in NDJSON: le righe vengono scritte man mano che arrivano dal database
+    @PreAuthorize("hasRole('PM')")
+    @GetMapping("/exportTasks")
+    public ResponseEntity<StreamingResponseBody> exportTasks() {
+        LOGGER.debug("Starting NDJSON export of all tasks");
+        StreamingResponseBody body = outputStream -> taskService.exportTasks(outputStream);
+        return ResponseEntity.ok()
+                .contentType(NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"tasks.ndjson\"")
+                .body(body);
+    }
+
+    // Il PM vede i task di chiunque, l'employee solo i propri
+    @PreAuthorize("hasRole('PM') or (hasRole('EMPLOYEE') and #employeeId == authentication.principal.id)")
     @GetMapping("/getTasksByEmployee")
-    public ResponseEntity<List<Task>> getTasksByEmployee(@RequestParam Long employeeId) {
+    public ResponseEntity<List<Task>> getTasksByEmployee(@RequestParam Long employeeId, ServletWebRequest webRequest) {
         try {
-            LOGGER.info("Retrieving tasks for employee ID: {}", employeeId);
+            if (ConditionalGet.notModified(webRequest, changeStampService, TASKS, PROJECTS, EMPLOYEES)) {
+                return new ResponseEntity<>(HttpStatus.NOT_MODIFIED);
+            }
+            LOGGER.debug("Retrieving tasks for employee ID: {}", employeeId);
             List<Task> tasks = taskService.getTasksByEmployeeId(employeeId);
             return new ResponseEntity<>(tasks, HttpStatus.OK);
         } catch (Exception e) {
@@ -63,15 +186,56 @@ public class TaskController {
             return new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
+
+    // Vista piatta di tutti i task (id e nome di progetto e dipendente, senza entità annidate)
+    @PreAuthorize("hasRole('PM')")
+    @GetMapping("/getTaskViews")
+    public ResponseEntity<List<TaskView>> getTaskViews(ServletWebRequest webRequest) {
+        try {
+            if (ConditionalGet.notModified(webRequest, changeStampService, TASKS, PROJECTS, EMPLOYEES)) {
+                return new ResponseEntity<>(HttpStatus.NOT_MODIFIED);
+            }
+            List<TaskView> tasks = taskService.getAllTaskViews();
+            LOGGER.debug("Found {} task views", tasks.size());
+            return new ResponseEntity<>(tasks, HttpStatus.OK);
+        } catch (Exception e) {
+            LOGGER.error("Error occurred while retrieving task views: {}", e.getMessage());
+            return new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    @PreAuthorize("hasRole('PM') or (hasRole('EMPLOYEE') and #employeeId == authentication.principal.id)")
+    @GetMapping("/getTaskViewsByEmployee")
+    public ResponseEntity<List<TaskView>> getTaskViewsByEmployee(@RequestParam Long employeeId, ServletWebRequest webRequest) {
+        try {
+            if (ConditionalGet.notModified(webRequest, changeStampService, TASKS, PROJECTS, EMPLOYEES)) {
+                return new ResponseEntity<>(HttpStatus.NOT_MODIFIED);
+            }
+            LOGGER.debug("Retrieving task views for employee ID: {}", employeeId);
+            List<TaskView> tasks = taskService.getTaskViewsByEmployeeId(employeeId);
+            return new ResponseEntity<>(tasks, HttpStatus.OK);
+        } catch (Exception e) {
+            LOGGER.error("Error retrieving task views for employee {}: {}", employeeId, e.getMessage());
+            return new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
     // Recupero di un task per ID (passato nel body)
     @PreAuthorize("hasRole('PM')")
     @GetMapping("/getTaskById")
-    public ResponseEntity<Task> getTaskById(@RequestParam Long id) {
+    public ResponseEntity<Task> getTaskById(@RequestParam Long id, ServletWebRequest webRequest) {
         try {
-            LOGGER.info("Retrieving task with ID: {}", id);
+            LOGGER.debug("Retrieving task with ID: {}", id);
             Optional<Task> task = taskService.getTaskById(id);
             if (task.isPresent()) {
-                LOGGER.info("Task found: {}", task.get());
+                LOGGER.debug("Task found: {}", task.get());
+                // Il task include progetto e dipendente: l'ETag dipende dalle versioni di tutti e tre
+                Task found = task.get();
+                if (ConditionalGet.notModified(webRequest, changeStampService, found.getVersion(),
+                        found.getProject() != null ? found.getProject().getVersion() : null,
+                        found.getEmployee() != null ? found.getEmployee().getVersion() : null)) {
+                    return new ResponseEntity<>(HttpStatus.NOT_MODIFIED);
+                }
                 return new ResponseEntity<>(task.get(), HttpStatus.OK);
             } else {
                 LOGGER.warn("Task with ID {} not found", id);
@@ -89,10 +253,10 @@ public class TaskController {
     public ResponseEntity<Task> updateTask(@RequestBody Task task) {
         try {
             if (task.getId() != null) {
-                LOGGER.info("Updating task with ID: {}", task.getId());
+                LOGGER.debug("Updating task with ID: {}", task.getId());
                 Task updatedTask = taskService.updateTask(task.getId(), task);
                 if (updatedTask != null) {
-                    LOGGER.info("Task updated successfully with ID: {}", updatedTask.getId());
+                    LOGGER.debug("Task updated successfully with ID: {}", updatedTask.getId());
                     return new ResponseEntity<>(updatedTask, HttpStatus.OK);
                 } else {
                     LOGGER.warn("Task with ID {} not found for update", task.getId());
@@ -108,12 +272,34 @@ public class TaskController {
         }
     }
 
+    // Cambio di stato di tutti i task di un progetto (opzionalmente solo quelli in fromStatus) con un unico UPDATE
+    @PreAuthorize("hasRole('PM')")
+    @PutMapping("/updateTasksStatusByProject")
+    public ResponseEntity<Map<String, Integer>> updateTasksStatusByProject(@RequestParam Long projectId,
+                                                                           @RequestParam(required = false) TaskStatusEnum fromStatus,
+                                                                           @RequestParam TaskStatusEnum toStatus) {
+        try {
+            LOGGER.debug("Updating status of tasks of project {} from {} to {}", projectId, fromStatus, toStatus);
+            int updated = taskService.updateTasksStatusByProject(projectId, fromStatus, toStatus);
+            return ResponseEntity.ok(Collections.singletonMap("updatedTasks", updated));
+        } catch (EntityNotFoundException e) {
+            LOGGER.warn("Project with ID {} not found: {}", projectId, e.getMessage());
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        } catch (IllegalArgumentException e) {
+            LOGGER.warn("Invalid status update for project {}: {}", projectId, e.getMessage());
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        } catch (Exception e) {
+            LOGGER.error("Error occurred while updating tasks of project {}: {}", projectId, e.getMessage());
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
     // Eliminazione di un task (passando l'ID nel body)
     @PreAuthorize("hasRole('PM')")
     @DeleteMapping("/deleteTask")
     public ResponseEntity<String> deleteTask(@RequestParam("id") Long id) {
         try {
-            LOGGER.info("Delete request for task ID: {}", id);
+            LOGGER.debug("Delete request for task ID: {}", id);
             if (id == null || id <= 0) {
                 return ResponseEntity.badRequest().body("Invalid ID");
             }
@@ -0,0 +1,38 @@
+package project.dto;
+
+// Statistiche di una regione di cache (hit, miss e rapporto di hit)
+public class CacheStatistics {
+
+    private final String name;
+    private final long hits;
+    private final long misses;
+    private final long evictions;
+
+    public CacheStatistics(String name, long hits, long misses, long evictions) {
+        this.name = name;
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+    public double getHitRatio() {
+        long requests = hits + misses;
+        return requests == 0 ? 0.0 : (double) hits / requests;
+    }
+}
@@ -0,0 +1,70 @@
+package project.dto;
+
+import project.enums.ChangeEventTypeEnum;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+
+// Modifica pubblicata dai service dopo il commit: solo tipo e id coinvolti, i dati si rileggono dagli endpoint
+// (con gli ETag una rilettura di dati invariati costa un 304). projectIds ed employeeIds servono a filtrare i destinatari;
+// id è il numero progressivo assegnato dal feed (Last-Event-ID per la ripresa)
+public class ChangeEvent {
+
+    private final long id;
+    private final ChangeEventTypeEnum type;
+    private final Long entityId;
+    private final Set<Long> projectIds;
+    private final Set<Long> employeeIds;
+
+    private ChangeEvent(long id, ChangeEventTypeEnum type, Long entityId, Set<Long> projectIds, Set<Long> employeeIds) {
+        this.id = id;
+        this.type = type;
+        this.entityId = entityId;
+        this.projectIds = projectIds;
+        this.employeeIds = employeeIds;
+    }
+
+    public static ChangeEvent of(ChangeEventTypeEnum type, Long entityId, Collection<Long> projectIds, Collection<Long> employeeIds) {
+        return new ChangeEvent(0, type, entityId, ids(projectIds), ids(employeeIds));
+    }
+
+    public static ChangeEvent task(ChangeEventTypeEnum type, Long taskId, Long projectId, Long... employeeIds) {
+        return of(type, taskId, Collections.singleton(projectId), Arrays.asList(employeeIds));
+    }
+
+    public ChangeEvent withId(long id) {
+        return new ChangeEvent(id, type, entityId, projectIds, employeeIds);
+    }
+
+    private static Set<Long> ids(Collection<Long> ids) {
+        Set<Long> result = new TreeSet<>();
+        if (ids != null) {
+            ids.stream().filter(Objects::nonNull).forEach(result::add);
+        }
+        return Collections.unmodifiableSet(result);
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public ChangeEventTypeEnum getType() {
+        return type;
+    }
+
+    public Long getEntityId() {
+        return entityId;
+    }
+
+    public Set<Long> getProjectIds() {
+        return projectIds;
+    }
+
+    public Set<Long> getEmployeeIds() {
+        return employeeIds;
+    }
+}
@@ -0,0 +1,115 @@
+package project.dto;
+
+// Stato di un pool di connessioni JDBC e tempi di attesa/utilizzo delle connessioni (in millisecondi)
+public class ConnectionPoolStatistics {
+
+    private final String poolName;
+    private final int activeConnections;
+    private final int idleConnections;
+    private final int pendingThreads;
+    private final int totalConnections;
+    private final int minConnections;
+    private final int maxConnections;
+    private final long acquireCount;
+    private final double acquireMeanMillis;
+    private final double acquireP99Millis;
+    private final double acquireMaxMillis;
+    private final long usageCount;
+    private final double usageMeanMillis;
+    private final double usageP99Millis;
+    private final double usageMaxMillis;
+    private final long connectionsCreated;
+    private final long connectionTimeouts;
+
+    public ConnectionPoolStatistics(String poolName, int activeConnections, int idleConnections, int pendingThreads,
+                                    int totalConnections, int minConnections, int maxConnections,
+                                    long acquireCount, double acquireMeanMillis, double acquireP99Millis, double acquireMaxMillis,
+                                    long usageCount, double usageMeanMillis, double usageP99Millis, double usageMaxMillis,
+                                    long connectionsCreated, long connectionTimeouts) {
+        this.poolName = poolName;
+        this.activeConnections = activeConnections;
+        this.idleConnections = idleConnections;
+        this.pendingThreads = pendingThreads;
+        this.totalConnections = totalConnections;
+        this.minConnections = minConnections;
+        this.maxConnections = maxConnections;
+        this.acquireCount = acquireCount;
+        this.acquireMeanMillis = acquireMeanMillis;
+        this.acquireP99Millis = acquireP99Millis;
+        this.acquireMaxMillis = acquireMaxMillis;
+        this.usageCount = usageCount;
+        this.usageMeanMillis = usageMeanMillis;
+        this.usageP99Millis = usageP99Millis;
+        this.usageMaxMillis = usageMaxMillis;
+        this.connectionsCreated = connectionsCreated;
+        this.connectionTimeouts = connectionTimeouts;
+    }
+
+    public String getPoolName() {
+        return poolName;
+    }
+
+    public int getActiveConnections() {
+        return activeConnections;
+    }
+
+    public int getIdleConnections() {
+        return idleConnections;
+    }
+
+    public int getPendingThreads() {
+        return pendingThreads;
+    }
+
+    public int getTotalConnections() {
+        return totalConnections;
+    }
+
+    public int getMinConnections() {
+        return minConnections;
+    }
+
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+    public long getAcquireCount() {
+        return acquireCount;
+    }
+
+    public double getAcquireMeanMillis() {
+        return acquireMeanMillis;
+    }
+
+    public double getAcquireP99Millis() {
+        return acquireP99Millis;
+    }
+
+    public double getAcquireMaxMillis() {
+        return acquireMaxMillis;
+    }
+
+    public long getUsageCount() {
+        return usageCount;
+    }
+
+    public double getUsageMeanMillis() {
+        return usageMeanMillis;
+    }
+
+    public double getUsageP99Millis() {
+        return usageP99Millis;
+    }
+
+    public double getUsageMaxMillis() {
+        return usageMaxMillis;
+    }
+
+    public long getConnectionsCreated() {
+        return connectionsCreated;
+    }
+
+    public long getConnectionTimeouts() {
+        return connectionTimeouts;
+    }
+}
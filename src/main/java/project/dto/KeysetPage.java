@@ -0,0 +1,53 @@
+package project.dto;
+
+import java.util.List;
+import java.util.function.Function;
+
+// Pagina di risultati con paginazione a cursore (keyset sull'id)
+public class KeysetPage<T> {
+
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 200;
+
+    private final List<T> items;
+    private final Long nextCursor;
+
+    public KeysetPage(List<T> items, Long nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    // Limita la dimensione richiesta all'intervallo consentito
+    public static int resolvePageSize(Integer size) {
+        if (size == null || size <= 0) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.min(size, MAX_PAGE_SIZE);
+    }
+
+    // Il cursore di partenza è l'ultimo id già letto (0 = prima pagina)
+    public static long resolveCursor(Long afterId) {
+        return afterId == null || afterId < 0 ? 0L : afterId;
+    }
+
+    // Costruisce la pagina a partire da size + 1 righe lette: la riga in più indica che esiste una pagina successiva
+    public static <T> KeysetPage<T> of(List<T> rows, int size, Function<T, Long> idExtractor) {
+        if (rows.size() <= size) {
+            return new KeysetPage<>(rows, null);
+        }
+        List<T> items = rows.subList(0, size);
+        return new KeysetPage<>(items, idExtractor.apply(items.get(size - 1)));
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public Long getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean isHasMore() {
+        return nextCursor != null;
+    }
+}
@@ -0,0 +1,68 @@
+package project.dto;
+
+import project.enums.ProjectStatusEnum;
+import project.enums.TaskStatusEnum;
+
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.Map;
+
+// Riepilogo di un progetto per la dashboard: task per stato, scaduti e percentuale di completamento
+public class ProjectSummaryView {
+
+    private final Long projectId;
+    private final String projectName;
+    private final ProjectStatusEnum projectStatus;
+    private final Map<TaskStatusEnum, Long> taskCounts;
+    private final long totalTasks;
+    private final long overdueCount;
+    private final LocalDate overdueAsOf;
+
+    public ProjectSummaryView(Long projectId, String projectName, ProjectStatusEnum projectStatus,
+                              long toDoCount, long inProgressCount, long completedCount,
+                              long overdueCount, LocalDate overdueAsOf) {
+        this.projectId = projectId;
+        this.projectName = projectName;
+        this.projectStatus = projectStatus;
+        this.taskCounts = new EnumMap<>(TaskStatusEnum.class);
+        this.taskCounts.put(TaskStatusEnum.TO_DO, toDoCount);
+        this.taskCounts.put(TaskStatusEnum.IN_PROGRESS, inProgressCount);
+        this.taskCounts.put(TaskStatusEnum.COMPLETED, completedCount);
+        this.totalTasks = toDoCount + inProgressCount + completedCount;
+        this.overdueCount = overdueCount;
+        this.overdueAsOf = overdueAsOf;
+    }
+
+    public Long getProjectId() {
+        return projectId;
+    }
+
+    public String getProjectName() {
+        return projectName;
+    }
+
+    public ProjectStatusEnum getProjectStatus() {
+        return projectStatus;
+    }
+
+    public Map<TaskStatusEnum, Long> getTaskCounts() {
+        return taskCounts;
+    }
+
+    public long getTotalTasks() {
+        return totalTasks;
+    }
+
+    public long getOverdueCount() {
+        return overdueCount;
+    }
+
+    public LocalDate getOverdueAsOf() {
+        return overdueAsOf;
+    }
+
+    // Quota di task completati (0 se il progetto non ha task)
+    public double getCompletionRatio() {
+        return totalTasks == 0 ? 0 : (double) taskCounts.get(TaskStatusEnum.COMPLETED) / totalTasks;
+    }
+}
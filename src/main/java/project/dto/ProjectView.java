@@ -0,0 +1,50 @@
+package project.dto;
+
+import project.enums.ProjectStatusEnum;
+
+import java.time.LocalDate;
+
+// Proiezione dei soli campi di un progetto mostrati nelle liste (stessa forma JSON dell'entità)
+public class ProjectView {
+
+    private final Long id;
+    private final String name;
+    private final String description;
+    private final LocalDate startDate;
+    private final LocalDate endDate;
+    private final ProjectStatusEnum status;
+
+    public ProjectView(Long id, String name, String description, LocalDate startDate, LocalDate endDate,
+                       ProjectStatusEnum status) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.status = status;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    public ProjectStatusEnum getStatus() {
+        return status;
+    }
+}
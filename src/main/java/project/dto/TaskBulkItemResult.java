@@ -0,0 +1,49 @@
+package project.dto;
+
+import project.enums.BulkOperationEnum;
+
+// Esito di una singola operazione bulk: index è la posizione nella lista della richiesta
+public class TaskBulkItemResult {
+
+    private final BulkOperationEnum operation;
+    private final int index;
+    private final Long id;
+    private final boolean success;
+    private final String message;
+
+    private TaskBulkItemResult(BulkOperationEnum operation, int index, Long id, boolean success, String message) {
+        this.operation = operation;
+        this.index = index;
+        this.id = id;
+        this.success = success;
+        this.message = message;
+    }
+
+    public static TaskBulkItemResult success(BulkOperationEnum operation, int index, Long id) {
+        return new TaskBulkItemResult(operation, index, id, true, null);
+    }
+
+    public static TaskBulkItemResult failure(BulkOperationEnum operation, int index, Long id, String message) {
+        return new TaskBulkItemResult(operation, index, id, false, message);
+    }
+
+    public BulkOperationEnum getOperation() {
+        return operation;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public boolean isSuccess() {
+        return success;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+}
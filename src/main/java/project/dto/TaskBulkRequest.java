@@ -0,0 +1,51 @@
+package project.dto;
+
+import project.model.Task;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Operazioni bulk sui task, eseguite in un'unica transazione (liste tutte opzionali)
+public class TaskBulkRequest {
+
+    private List<Task> create = new ArrayList<>();
+    private List<Task> update = new ArrayList<>();
+    private List<Long> delete = new ArrayList<>();
+
+    public TaskBulkRequest() {
+    }
+
+    public TaskBulkRequest(List<Task> create, List<Task> update, List<Long> delete) {
+        setCreate(create);
+        setUpdate(update);
+        setDelete(delete);
+    }
+
+    public int size() {
+        return create.size() + update.size() + delete.size();
+    }
+
+    public List<Task> getCreate() {
+        return create;
+    }
+
+    public void setCreate(List<Task> create) {
+        this.create = create != null ? create : new ArrayList<>();
+    }
+
+    public List<Task> getUpdate() {
+        return update;
+    }
+
+    public void setUpdate(List<Task> update) {
+        this.update = update != null ? update : new ArrayList<>();
+    }
+
+    public List<Long> getDelete() {
+        return delete;
+    }
+
+    public void setDelete(List<Long> delete) {
+        this.delete = delete != null ? delete : new ArrayList<>();
+    }
+}
@@ -0,0 +1,24 @@
+package project.dto;
+
+import java.util.List;
+
+public class TaskBulkResult {
+
+    private final List<TaskBulkItemResult> results;
+
+    public TaskBulkResult(List<TaskBulkItemResult> results) {
+        this.results = results;
+    }
+
+    public List<TaskBulkItemResult> getResults() {
+        return results;
+    }
+
+    public long getSucceeded() {
+        return results.stream().filter(TaskBulkItemResult::isSuccess).count();
+    }
+
+    public long getFailed() {
+        return results.size() - getSucceeded();
+    }
+}
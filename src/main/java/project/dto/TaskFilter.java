@@ -0,0 +1,66 @@
+package project.dto;
+
+import project.enums.TaskStatusEnum;
+
+import java.time.LocalDate;
+
+// Filtri lato server per la lista dei task (tutti opzionali)
+public class TaskFilter {
+
+    private TaskStatusEnum status;
+    private LocalDate dueFrom;
+    private LocalDate dueTo;
+    private Long projectId;
+    private Long employeeId;
+
+    public TaskFilter() {
+    }
+
+    public TaskFilter(TaskStatusEnum status, LocalDate dueFrom, LocalDate dueTo, Long projectId, Long employeeId) {
+        this.status = status;
+        this.dueFrom = dueFrom;
+        this.dueTo = dueTo;
+        this.projectId = projectId;
+        this.employeeId = employeeId;
+    }
+
+    public TaskStatusEnum getStatus() {
+        return status;
+    }
+
+    public void setStatus(TaskStatusEnum status) {
+        this.status = status;
+    }
+
+    public LocalDate getDueFrom() {
+        return dueFrom;
+    }
+
+    public void setDueFrom(LocalDate dueFrom) {
+        this.dueFrom = dueFrom;
+    }
+
+    public LocalDate getDueTo() {
+        return dueTo;
+    }
+
+    public void setDueTo(LocalDate dueTo) {
+        this.dueTo = dueTo;
+    }
+
+    public Long getProjectId() {
+        return projectId;
+    }
+
+    public void setProjectId(Long projectId) {
+        this.projectId = projectId;
+    }
+
+    public Long getEmployeeId() {
+        return employeeId;
+    }
+
+    public void setEmployeeId(Long employeeId) {
+        this.employeeId = employeeId;
+    }
+}
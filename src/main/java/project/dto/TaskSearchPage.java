@@ -0,0 +1,55 @@
+package project.dto;
+
+import java.util.List;
+
+// Pagina di risultati della ricerca full-text: task in ordine di rilevanza e numero totale di risultati
+public class TaskSearchPage {
+
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private final List<TaskView> items;
+    private final long total;
+    private final int page;
+    private final int size;
+
+    public TaskSearchPage(List<TaskView> items, long total, int page, int size) {
+        this.items = items;
+        this.total = total;
+        this.page = page;
+        this.size = size;
+    }
+
+    // Limita la dimensione richiesta all'intervallo consentito
+    public static int resolvePageSize(Integer size) {
+        if (size == null || size <= 0) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.min(size, MAX_PAGE_SIZE);
+    }
+
+    // Pagine numerate da 0
+    public static int resolvePage(Integer page) {
+        return page == null || page < 0 ? 0 : page;
+    }
+
+    public List<TaskView> getItems() {
+        return items;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public int getPage() {
+        return page;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public boolean isHasMore() {
+        return (long) (page + 1) * size < total;
+    }
+}
@@ -0,0 +1,74 @@
+package project.dto;
+
+import project.enums.TaskStatusEnum;
+
+import java.time.LocalDate;
+
+// Vista "piatta" di un task: campi del task più id e nome di progetto e dipendente
+public class TaskView {
+
+    private final Long id;
+    private final String title;
+    private final String description;
+    private final LocalDate dueDate;
+    private final TaskStatusEnum status;
+    private final boolean completed;
+    private final Long projectId;
+    private final String projectName;
+    private final Long employeeId;
+    private final String employeeName;
+
+    public TaskView(Long id, String title, String description, LocalDate dueDate, TaskStatusEnum status,
+                    boolean completed, Long projectId, String projectName, Long employeeId, String employeeName) {
+        this.id = id;
+        this.title = title;
+        this.description = description;
+        this.dueDate = dueDate;
+        this.status = status;
+        this.completed = completed;
+        this.projectId = projectId;
+        this.projectName = projectName;
+        this.employeeId = employeeId;
+        this.employeeName = employeeName;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public LocalDate getDueDate() {
+        return dueDate;
+    }
+
+    public TaskStatusEnum getStatus() {
+        return status;
+    }
+
+    public boolean isCompleted() {
+        return completed;
+    }
+
+    public Long getProjectId() {
+        return projectId;
+    }
+
+    public String getProjectName() {
+        return projectName;
+    }
+
+    public Long getEmployeeId() {
+        return employeeId;
+    }
+
+    public String getEmployeeName() {
+        return employeeName;
+    }
+}
@@ -0,0 +1,8 @@
+package project.enums;
+
+public enum BulkOperationEnum {
+
+    CREATE,
+    UPDATE,
+    DELETE
+}
@@ -0,0 +1,18 @@
+package project.enums;
+
+// Tipi di modifica pubblicati sul feed delle modifiche (nome dell'evento SSE)
+public enum ChangeEventTypeEnum {
+
+    TASK_CREATED,
+    TASK_UPDATED,
+    TASK_DELETED,
+    // Più task modificati insieme (operazioni bulk, cambi di stato per progetto)
+    TASKS_CHANGED,
+    PROJECT_CREATED,
+    PROJECT_UPDATED,
+    PROJECT_COMPLETED,
+    PROJECT_DELETED,
+    EMPLOYEE_CREATED,
+    EMPLOYEE_UPDATED,
+    EMPLOYEE_DELETED
+}
@@ -0,0 +1,10 @@
+package project.enums;
+
+// Collezioni con un proprio contatore di modifiche (ETag delle liste)
+public enum ResourceCollectionEnum {
+
+    TASKS,
+    PROJECTS,
+    EMPLOYEES,
+    PROJECT_SUMMARIES
+}
@@ -0,0 +1,150 @@
+package project.filter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.web.util.OnCommittedResponseWrapper;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+// Budget di query per ogni richiesta /api: conta gli statement JDBC e il tempo passato sul database,
+// segnala nel log le richieste oltre il budget, troppo lente o con la stessa query ripetuta (N+1)
+// e registra i valori come metriche. Fuori dalla produzione li espone anche negli header X-Query-Count / X-Query-Time
+@Component
+public class QueryBudgetFilter extends OncePerRequestFilter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(QueryBudgetFilter.class);
+
+    public static final String QUERY_COUNT_HEADER = "X-Query-Count";
+    public static final String QUERY_TIME_HEADER = "X-Query-Time";
+
+    private static final int LOGGED_SHAPES = 5;
+    private static final int MAX_SHAPE_LENGTH = 300;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${query-budget.max-statements:30}")
+    private int maxStatements;
+
+    @Value("${query-budget.max-repeated-statements:10}")
+    private int maxRepeatedStatements;
+
+    @Value("${query-budget.slow-threshold:500ms}")
+    private Duration slowThreshold;
+
+    @Value("${query-budget.expose-headers:false}")
+    private boolean exposeHeaders;
+
+    // Endpoint che eseguono molti statement per scelta (es. operazioni bulk): misurati ma non segnalati
+    @Value("${query-budget.ignored-uris:}")
+    private Set<String> ignoredUris;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith(request.getContextPath() + "/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RequestQueryStats stats = RequestQueryStats.start();
+        try {
+            // Gli header vanno scritti prima che la risposta parta: contano le query eseguite fino a quel momento
+            chain.doFilter(request, exposeHeaders ? new QueryHeadersResponseWrapper(response, stats) : response);
+            // Risposta senza corpo: non ancora inviata, gli header si possono ancora aggiungere
+            if (exposeHeaders && !response.isCommitted()) {
+                response.setHeader(QUERY_COUNT_HEADER, String.valueOf(stats.getStatements()));
+                response.setHeader(QUERY_TIME_HEADER, String.valueOf(stats.getElapsedMillis()));
+            }
+        } finally {
+            RequestQueryStats.stop();
+            report(request, stats);
+        }
+    }
+
+    private void report(HttpServletRequest request, RequestQueryStats stats) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+
+        DistributionSummary.builder("http.server.requests.db.statements")
+                .description("JDBC statements executed by an HTTP request")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(stats.getStatements());
+        Timer.builder("http.server.requests.db.time")
+                .description("Time spent executing JDBC statements during an HTTP request")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(stats.getElapsedMillis(), TimeUnit.MILLISECONDS);
+
+        if (ignoredUris.contains(uri)) {
+            return;
+        }
+        String reason = null;
+        if (stats.getStatements() > maxStatements) {
+            reason = "budget";
+        } else if (stats.getMaxRepetitions() > maxRepeatedStatements) {
+            reason = "repeated";
+        } else if (stats.getElapsedMillis() > slowThreshold.toMillis()) {
+            reason = "slow";
+        }
+        if (reason != null) {
+            Counter.builder("http.server.requests.db.flagged")
+                    .description("HTTP requests over the query budget, repeating a query or slow on the database")
+                    .tag("method", request.getMethod())
+                    .tag("uri", uri)
+                    .tag("reason", reason)
+                    .register(meterRegistry)
+                    .increment();
+            LOGGER.warn("Request {} {} flagged ({}): {} statements in {} ms (budget {} statements, {} repetitions, {} ms); top queries: {}",
+                    request.getMethod(), uri, reason, stats.getStatements(), stats.getElapsedMillis(),
+                    maxStatements, maxRepeatedStatements, slowThreshold.toMillis(), describeShapes(stats));
+        }
+    }
+
+    private static String describeShapes(RequestQueryStats stats) {
+        return stats.getTopShapes(LOGGED_SHAPES).stream()
+                .map((Map.Entry<String, Integer> shape) -> shape.getValue() + "x " + abbreviate(shape.getKey()))
+                .collect(Collectors.joining(" | "));
+    }
+
+    private static String abbreviate(String sql) {
+        return sql.length() <= MAX_SHAPE_LENGTH ? sql : sql.substring(0, MAX_SHAPE_LENGTH) + "...";
+    }
+
+    private static final class QueryHeadersResponseWrapper extends OnCommittedResponseWrapper {
+
+        private final RequestQueryStats stats;
+
+        QueryHeadersResponseWrapper(HttpServletResponse response, RequestQueryStats stats) {
+            super(response);
+            this.stats = stats;
+        }
+
+        @Override
+        protected void onResponseCommitted() {
+            setHeader(QUERY_COUNT_HEADER, String.valueOf(stats.getStatements()));
+            setHeader(QUERY_TIME_HEADER, String.valueOf(stats.getElapsedMillis()));
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package project.filter;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+// Statement JDBC eseguiti dal thread della richiesta HTTP corrente: numero, tempo totale e "forma" delle query
+// (letterali e liste IN normalizzati), per riconoscere le stesse query ripetute (N+1)
+public final class RequestQueryStats {
+
+    private static final ThreadLocal<RequestQueryStats> CURRENT = new ThreadLocal<>();
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private int statements;
+    private long elapsedMillis;
+    private final Map<String, Integer> shapes = new HashMap<>();
+
+    private RequestQueryStats() {
+    }
+
+    static RequestQueryStats start() {
+        RequestQueryStats stats = new RequestQueryStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    static void stop() {
+        CURRENT.remove();
+    }
+
+    public static void record(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        RequestQueryStats stats = CURRENT.get();
+        if (stats == null) {
+            return;
+        }
+        // Un batch JDBC è un solo round trip verso il database
+        stats.statements++;
+        stats.elapsedMillis += execInfo.getElapsedTime();
+        for (QueryInfo queryInfo : queryInfoList) {
+            stats.shapes.merge(shapeOf(queryInfo.getQuery()), 1, Integer::sum);
+        }
+    }
+
+    static String shapeOf(String sql) {
+        String shape = STRING_LITERAL.matcher(sql).replaceAll("?");
+        shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+        shape = IN_LIST.matcher(shape).replaceAll("(?...)");
+        return WHITESPACE.matcher(shape).replaceAll(" ").trim();
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public int getMaxRepetitions() {
+        int max = 0;
+        for (int count : shapes.values()) {
+            max = Math.max(max, count);
+        }
+        return max;
+    }
+
+    // Le forme di query più eseguite, dalla più frequente
+    public List<Map.Entry<String, Integer>> getTopShapes(int limit) {
+        List<Map.Entry<String, Integer>> entries = new ArrayList<>(shapes.entrySet());
+        entries.sort(Map.Entry.<String, Integer>comparingByValue().reversed());
+        return entries.subList(0, Math.min(limit, entries.size()));
+    }
+}
@@ -0,0 +1,124 @@
+package project.model;
+
+import javax.persistence.*;
+import java.time.Instant;
+
+// Evento dell'outbox che ha esaurito i tentativi di consegna (stesso id della riga originale)
+@Entity
+public class OutboxDeadLetter {
+
+    @Id
+    private Long id;
+
+    @Column(nullable = false, length = 32)
+    private String aggregateType;
+
+    private Long aggregateId;
+
+    @Column(nullable = false, length = 32)
+    private String eventType;
+
+    // LONGTEXT anche per la validazione dello schema: con @Lob H2 (modalità MySQL) e MySQL non coincidono
+    @Column(nullable = false, columnDefinition = "LONGTEXT")
+    private String payload;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    private int attempts;
+
+    @Column(length = 1000)
+    private String lastError;
+
+    @Column(nullable = false)
+    private Instant failedAt;
+
+    public OutboxDeadLetter() {
+    }
+
+    public OutboxDeadLetter(OutboxEvent event, Instant failedAt) {
+        this.id = event.getId();
+        this.aggregateType = event.getAggregateType();
+        this.aggregateId = event.getAggregateId();
+        this.eventType = event.getEventType();
+        this.payload = event.getPayload();
+        this.createdAt = event.getCreatedAt();
+        this.attempts = event.getAttempts();
+        this.lastError = event.getLastError();
+        this.failedAt = failedAt;
+    }
+
+    // Getter e Setter
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getAggregateType() {
+        return aggregateType;
+    }
+
+    public void setAggregateType(String aggregateType) {
+        this.aggregateType = aggregateType;
+    }
+
+    public Long getAggregateId() {
+        return aggregateId;
+    }
+
+    public void setAggregateId(Long aggregateId) {
+        this.aggregateId = aggregateId;
+    }
+
+    public String getEventType() {
+        return eventType;
+    }
+
+    public void setEventType(String eventType) {
+        this.eventType = eventType;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public void setPayload(String payload) {
+        this.payload = payload;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+
+    public Instant getFailedAt() {
+        return failedAt;
+    }
+
+    public void setFailedAt(Instant failedAt) {
+        this.failedAt = failedAt;
+    }
+}
@@ -0,0 +1,79 @@
+package project.model;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import java.time.LocalDate;
+
+// Contatori dei task di un progetto (una riga per progetto), mantenuti in modo incrementale
+@Entity
+public class ProjectSummary {
+
+    @Id
+    private Long projectId;
+
+    private long toDoCount;
+    private long inProgressCount;
+    private long completedCount;
+
+    // Task non completati con scadenza passata, calcolati alla data overdueAsOf
+    private long overdueCount;
+    private LocalDate overdueAsOf;
+
+    public ProjectSummary() {
+    }
+
+    public ProjectSummary(Long projectId, LocalDate overdueAsOf) {
+        this.projectId = projectId;
+        this.overdueAsOf = overdueAsOf;
+    }
+
+    // Getter e Setter
+
+    public Long getProjectId() {
+        return projectId;
+    }
+
+    public void setProjectId(Long projectId) {
+        this.projectId = projectId;
+    }
+
+    public long getToDoCount() {
+        return toDoCount;
+    }
+
+    public void setToDoCount(long toDoCount) {
+        this.toDoCount = toDoCount;
+    }
+
+    public long getInProgressCount() {
+        return inProgressCount;
+    }
+
+    public void setInProgressCount(long inProgressCount) {
+        this.inProgressCount = inProgressCount;
+    }
+
+    public long getCompletedCount() {
+        return completedCount;
+    }
+
+    public void setCompletedCount(long completedCount) {
+        this.completedCount = completedCount;
+    }
+
+    public long getOverdueCount() {
+        return overdueCount;
+    }
+
+    public void setOverdueCount(long overdueCount) {
+        this.overdueCount = overdueCount;
+    }
+
+    public LocalDate getOverdueAsOf() {
+        return overdueAsOf;
+    }
+
+    public void setOverdueAsOf(LocalDate overdueAsOf) {
+        this.overdueAsOf = overdueAsOf;
+    }
+}
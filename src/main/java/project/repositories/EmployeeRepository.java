@@ -1,10 +1,40 @@
 package project.repositories;
 
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import project.config.CacheConfig;
+import project.enums.RoleEnum;
 import project.model.Employee;
 
+import java.util.Collection;
+import java.util.List;
+
 public interface EmployeeRepository extends JpaRepository<Employee, Long> {
 
-    // Metodo per cercare un utente tramite il nome utente
+    // Metodo per cercare un utente tramite il nome utente (in cache: viene usato a ogni login)
+    @Cacheable(cacheNames = CacheConfig.EMPLOYEES_BY_USERNAME, unless = "#result == null")
     Employee findByUsername(String username);
+
+    // Pagina di dipendenti successiva al cursore (scansione della chiave primaria)
+    @Query("SELECT e FROM Employee e WHERE e.id > :afterId ORDER BY e.id")
+    List<Employee> findPageAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    // Pagina di dipendenti con un ruolo, successiva al cursore (indice employee(role, id))
+    @Query("SELECT e FROM Employee e WHERE e.role = :role AND e.id > :afterId ORDER BY e.id")
+    List<Employee> findPageByRoleAfter(@Param("role") RoleEnum role,
+                                       @Param("afterId") Long afterId,
+                                       Pageable pageable);
+
+    // Aggiorna solo l'hash della password (rehash al login con un costo BCrypt diverso)
+    @Modifying
+    @Query("UPDATE Employee e SET e.password = :password, e.version = e.version + 1 WHERE e.id = :id")
+    int updatePassword(@Param("id") Long id, @Param("password") String password);
+
+    // Id esistenti tra quelli richiesti (validazione delle operazioni bulk con una sola query)
+    @Query("SELECT e.id FROM Employee e WHERE e.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,7 @@
+package project.repositories;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import project.model.OutboxDeadLetter;
+
+public interface OutboxDeadLetterRepository extends JpaRepository<OutboxDeadLetter, Long> {
+}
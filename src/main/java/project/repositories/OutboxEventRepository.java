@@ -0,0 +1,17 @@
+package project.repositories;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import project.model.OutboxEvent;
+
+import java.util.List;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // Eventi in ordine di scrittura (chiave primaria) successivi a afterId, compresi quelli in attesa di un nuovo
+    // tentativo: servono a trattenere gli eventi successivi dello stesso aggregato
+    @Query("SELECT e FROM OutboxEvent e WHERE e.id > :afterId ORDER BY e.id")
+    List<OutboxEvent> findOldestAfter(@Param("afterId") long afterId, Pageable pageable);
+}
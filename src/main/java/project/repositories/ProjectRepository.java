@@ -1,16 +1,53 @@
 package project.repositories;
 
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import project.config.CacheConfig;
+import project.dto.ProjectView;
+import project.enums.ProjectStatusEnum;
 import project.model.Project;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface ProjectRepository extends JpaRepository<Project, Long> {
 
-    @Query("SELECT DISTINCT p FROM Project p JOIN p.tasks t WHERE t.employee.id = :employeeId")
-    List<Project> findProjectsByEmployeeId(@Param("employeeId") Long employeeId);
+    // Semi-join con EXISTS: ogni progetto è letto una volta sola, senza DISTINCT su tutte le righe dei task
+    // (coperto dall'indice task(employee_id, project_id))
+    String PROJECT_VIEWS_BY_EMPLOYEE_QUERY = "SELECT new project.dto.ProjectView(p.id, p.name, p.description,"
+            + " p.startDate, p.endDate, p.status) FROM Project p"
+            + " WHERE EXISTS (SELECT t.id FROM Task t WHERE t.project = p AND t.employee.id = :employeeId)"
+            + " ORDER BY p.id";
+
+    @Cacheable(cacheNames = CacheConfig.PROJECTS_BY_EMPLOYEE)
+    @Query(PROJECT_VIEWS_BY_EMPLOYEE_QUERY)
+    List<ProjectView> findProjectViewsByEmployeeId(@Param("employeeId") Long employeeId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Project p SET p.status = :status, p.version = p.version + 1 WHERE p.id = :id")
+    int updateStatus(@Param("id") Long id, @Param("status") ProjectStatusEnum status);
+
+    // Pagina di progetti successiva al cursore (scansione della chiave primaria)
+    @Query("SELECT p FROM Project p WHERE p.id > :afterId ORDER BY p.id")
+    List<Project> findPageAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    // Pagina di progetti in uno stato, successiva al cursore: query a parte perché un filtro opzionale
+    // (:status IS NULL OR ...) impedisce l'uso dell'indice project(status, id)
+    @Query("SELECT p FROM Project p WHERE p.status = :status AND p.id > :afterId ORDER BY p.id")
+    List<Project> findPageByStatusAfter(@Param("status") ProjectStatusEnum status,
+                                        @Param("afterId") Long afterId,
+                                        Pageable pageable);
+
+    @Query("SELECT p.id FROM Project p ORDER BY p.id")
+    List<Long> findAllIds();
+
+    // Id esistenti tra quelli richiesti (validazione delle operazioni bulk con una sola query)
+    @Query("SELECT p.id FROM Project p WHERE p.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
 }
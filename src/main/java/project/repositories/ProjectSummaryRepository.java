@@ -0,0 +1,47 @@
+package project.repositories;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import project.dto.ProjectSummaryView;
+import project.model.ProjectSummary;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+public interface ProjectSummaryRepository extends JpaRepository<ProjectSummary, Long> {
+
+    String SUMMARY_VIEW_SELECT = "SELECT new project.dto.ProjectSummaryView(p.id, p.name, p.status,"
+            + " s.toDoCount, s.inProgressCount, s.completedCount, s.overdueCount, s.overdueAsOf)"
+            + " FROM ProjectSummary s JOIN Project p ON p.id = s.projectId";
+
+    // Incremento atomico dei contatori (delta anche negativi, scaduti calcolati rispetto a overdueAsOf):
+    // 0 righe aggiornate se il riepilogo non esiste o se i suoi scaduti non sono aggiornati a quella data
+    @Modifying
+    @Query("UPDATE ProjectSummary s SET s.toDoCount = s.toDoCount + :toDo,"
+            + " s.inProgressCount = s.inProgressCount + :inProgress,"
+            + " s.completedCount = s.completedCount + :completed,"
+            + " s.overdueCount = s.overdueCount + :overdue"
+            + " WHERE s.projectId = :projectId AND s.overdueAsOf = :overdueAsOf")
+    int addToCounters(@Param("projectId") Long projectId,
+                      @Param("toDo") long toDo,
+                      @Param("inProgress") long inProgress,
+                      @Param("completed") long completed,
+                      @Param("overdue") long overdue,
+                      @Param("overdueAsOf") LocalDate overdueAsOf);
+
+    // Conteggi reali per progetto e stato: righe (projectId, status, totale, scaduti)
+    @Query("SELECT t.project.id, t.status, COUNT(t),"
+            + " SUM(CASE WHEN t.status <> project.enums.TaskStatusEnum.COMPLETED AND t.dueDate < :today THEN 1 ELSE 0 END)"
+            + " FROM Task t WHERE t.project.id IN :projectIds GROUP BY t.project.id, t.status")
+    List<Object[]> countTasksByProjectAndStatus(@Param("projectIds") Collection<Long> projectIds,
+                                                @Param("today") LocalDate today);
+
+    @Query(SUMMARY_VIEW_SELECT + " ORDER BY p.id")
+    List<ProjectSummaryView> findAllViews();
+
+    @Query(SUMMARY_VIEW_SELECT + " WHERE p.id IN :projectIds ORDER BY p.id")
+    List<ProjectSummaryView> findViewsByProjectIds(@Param("projectIds") Collection<Long> projectIds);
+}
@@ -1,19 +1,90 @@
 package project.repositories;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
+import project.dto.TaskView;
+import project.enums.TaskStatusEnum;
 import project.model.Task;
 
+import javax.persistence.QueryHint;
+
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
+
 
+public interface TaskRepository extends JpaRepository<Task, Long>, TaskRepositoryCustom {
 
-public interface TaskRepository extends JpaRepository<Task, Long> {
+    // Proiezione piatta dei task con id e nome di progetto e dipendente, in un'unica query
+    String TASK_VIEW_SELECT = "SELECT new project.dto.TaskView(t.id, t.title, t.description, t.dueDate, t.status,"
+            + " t.isCompleted, p.id, p.name, e.id, e.name)"
+            + " FROM Task t LEFT JOIN t.project p LEFT JOIN t.employee e";
 
     @Modifying
     @Query("DELETE FROM Task t WHERE t.employee.id = :employeeId")
 
     void deleteByEmployeeId(@Param("employeeId") Long employeeId);
-    List<Task> findByEmployeeId(Long employeeId);
+
+    // Progetto e dipendente vengono caricati nella stessa query (niente N+1 in serializzazione).
+    // Il filtro è sulla foreign key del task: quello derivato dal nome del metodo finirebbe sull'id del dipendente
+    // in join e non userebbe gli indici su task(employee_id, ...)
+    @EntityGraph(attributePaths = {"project", "employee"})
+    @Query("SELECT t FROM Task t WHERE t.employee.id = :employeeId")
+    List<Task> findByEmployeeId(@Param("employeeId") Long employeeId);
+
+    @Override
+    @EntityGraph(attributePaths = {"project", "employee"})
+    List<Task> findAll();
+
+    // Cambio di stato set-based dei task di un progetto (fromStatus null = qualunque stato), isCompleted allineato allo stato.
+    // L'UPDATE JPQL invalida la regione di cache di secondo livello dei Task; il contesto di persistenza viene svuotato.
+    // Gli UPDATE set-based non passano da @Version: la versione va incrementata esplicitamente
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Task t SET t.status = :toStatus, t.isCompleted = :completed, t.version = t.version + 1"
+            + " WHERE t.project.id = :projectId"
+            + " AND (:fromStatus IS NULL OR t.status = :fromStatus)"
+            + " AND t.status <> :toStatus")
+    int updateStatusByProjectId(@Param("projectId") Long projectId,
+                                @Param("fromStatus") TaskStatusEnum fromStatus,
+                                @Param("toStatus") TaskStatusEnum toStatus,
+                                @Param("completed") boolean completed);
+
+    // Dipendenti con almeno un task nel progetto (per invalidare le loro cache)
+    @Query("SELECT DISTINCT t.employee.id FROM Task t WHERE t.project.id = :projectId AND t.employee IS NOT NULL")
+    List<Long> findEmployeeIdsByProjectId(@Param("projectId") Long projectId);
+
+    // Progetti con almeno un task del dipendente (per aggiornarne i riepiloghi)
+    @Query("SELECT DISTINCT t.project.id FROM Task t WHERE t.employee.id = :employeeId AND t.project IS NOT NULL")
+    List<Long> findProjectIdsByEmployeeId(@Param("employeeId") Long employeeId);
+
+    @Query(TASK_VIEW_SELECT + " ORDER BY t.id")
+    List<TaskView> findAllViews();
+
+    @Query(TASK_VIEW_SELECT + " WHERE t.employee.id = :employeeId ORDER BY t.id")
+    List<TaskView> findViewsByEmployeeId(@Param("employeeId") Long employeeId);
+
+    // Viste dei task trovati dalla ricerca full-text (l'ordine per rilevanza lo ricostruisce il chiamante)
+    @Query(TASK_VIEW_SELECT + " WHERE t.id IN :ids")
+    List<TaskView> findViewsByIds(@Param("ids") Collection<Long> ids);
+
+    // Task da reindicizzare dopo una modifica, con il progetto (nome e descrizione sono indicizzati con il task)
+    @EntityGraph(attributePaths = {"project"})
+    List<Task> findByIdIn(Collection<Long> ids);
+
+    @EntityGraph(attributePaths = {"project"})
+    List<Task> findByProjectIdIn(Collection<Long> projectIds);
+
+    // Lettura in streaming di tutti i task per l'export: cursore forward-only con fetch size limitato,
+    // entità in sola lettura e associazioni caricate nella stessa query
+    @QueryHints({
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_READONLY, value = "true"),
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("SELECT t FROM Task t LEFT JOIN FETCH t.project LEFT JOIN FETCH t.employee ORDER BY t.id")
+    Stream<Task> streamAllForExport();
 }
@@ -0,0 +1,13 @@
+package project.repositories;
+
+import project.dto.TaskFilter;
+import project.model.Task;
+
+import java.util.List;
+
+// Query dei task costruite a partire dai filtri valorizzati (implementazione in TaskRepositoryCustomImpl)
+public interface TaskRepositoryCustom {
+
+    // Pagina di task successiva al cursore con i soli filtri presenti, al più limit righe
+    List<Task> findPageAfter(long afterId, TaskFilter filter, int limit);
+}
@@ -0,0 +1,58 @@
+package project.repositories;
+
+import project.dto.TaskFilter;
+import project.model.Task;
+
+import javax.persistence.EntityGraph;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Le condizioni entrano nella query solo se il filtro è valorizzato: con (:x IS NULL OR col = :x) il database
+// non può usare gli indici su stato, scadenza, progetto e dipendente e ripiega sulla scansione della chiave primaria
+public class TaskRepositoryCustomImpl implements TaskRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Task> findPageAfter(long afterId, TaskFilter filter, int limit) {
+        StringBuilder jpql = new StringBuilder("SELECT t FROM Task t WHERE t.id > :afterId");
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        parameters.put("afterId", afterId);
+        if (filter.getStatus() != null) {
+            jpql.append(" AND t.status = :status");
+            parameters.put("status", filter.getStatus());
+        }
+        if (filter.getDueFrom() != null) {
+            jpql.append(" AND t.dueDate >= :dueFrom");
+            parameters.put("dueFrom", filter.getDueFrom());
+        }
+        if (filter.getDueTo() != null) {
+            jpql.append(" AND t.dueDate <= :dueTo");
+            parameters.put("dueTo", filter.getDueTo());
+        }
+        if (filter.getProjectId() != null) {
+            jpql.append(" AND t.project.id = :projectId");
+            parameters.put("projectId", filter.getProjectId());
+        }
+        if (filter.getEmployeeId() != null) {
+            jpql.append(" AND t.employee.id = :employeeId");
+            parameters.put("employeeId", filter.getEmployeeId());
+        }
+        jpql.append(" ORDER BY t.id");
+
+        // Progetto e dipendente nella stessa query, come le altre liste di task
+        EntityGraph<Task> graph = entityManager.createEntityGraph(Task.class);
+        graph.addAttributeNodes("project", "employee");
+
+        TypedQuery<Task> query = entityManager.createQuery(jpql.toString(), Task.class)
+                .setHint("javax.persistence.fetchgraph", graph)
+                .setMaxResults(limit);
+        parameters.forEach(query::setParameter);
+        return query.getResultList();
+    }
+}
@@ -0,0 +1,150 @@
+package project.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import project.model.Employee;
+import project.repositories.EmployeeRepository;
+import project.services.EmployeeService;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+@Service
+public class CredentialVerifier implements DisposableBean {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CredentialVerifier.class);
+
+    private static final String DIGEST_ALGORITHM = "HmacSHA256";
+
+    // Prefisso di un hash BCrypt ($2a$10$...): il secondo campo è il costo con cui è stato calcolato
+    private static final Pattern BCRYPT_COST = Pattern.compile("^\\$2[abxy]?\\$(\\d{2})\\$");
+
+    private final EmployeeRepository employeeRepository;
+    private final EmployeeService employeeService;
+    private final PasswordEncoder passwordEncoder;
+    private final int bcryptStrength;
+
+    // Pool dedicato e limitato per BCrypt: a coda piena la richiesta viene rifiutata subito invece di occupare i thread di Tomcat
+    private final ThreadPoolTaskExecutor hashingExecutor;
+
+    // Credenziali verificate di recente: per ogni username solo un HMAC (chiave casuale del processo) di username, hash e password
+    private final Cache<String, byte[]> verifiedCredentials;
+    private final SecretKeySpec digestKey;
+
+    public CredentialVerifier(EmployeeRepository employeeRepository,
+                              EmployeeService employeeService,
+                              PasswordEncoder passwordEncoder,
+                              @Value("${security.password.bcrypt-strength:10}") int bcryptStrength,
+                              @Value("${security.password.hashing-threads:0}") int hashingThreads,
+                              @Value("${security.password.hashing-queue-capacity:64}") int queueCapacity,
+                              @Value("${security.password.credential-cache-size:10000}") long credentialCacheSize,
+                              @Value("${security.password.credential-cache-ttl:5m}") Duration credentialCacheTtl) {
+        this.employeeRepository = employeeRepository;
+        this.employeeService = employeeService;
+        this.passwordEncoder = passwordEncoder;
+        this.bcryptStrength = bcryptStrength;
+
+        int threads = hashingThreads > 0 ? hashingThreads : Runtime.getRuntime().availableProcessors();
+        this.hashingExecutor = new ThreadPoolTaskExecutor();
+        this.hashingExecutor.setCorePoolSize(threads);
+        this.hashingExecutor.setMaxPoolSize(threads);
+        this.hashingExecutor.setQueueCapacity(queueCapacity);
+        this.hashingExecutor.setThreadNamePrefix("password-hashing-");
+        this.hashingExecutor.initialize();
+
+        this.verifiedCredentials = credentialCacheSize > 0 && !credentialCacheTtl.isZero()
+                ? Caffeine.newBuilder()
+                        .maximumSize(credentialCacheSize)
+                        .expireAfterWrite(credentialCacheTtl)
+                        .build()
+                : null;
+        byte[] key = new byte[32];
+        new SecureRandom().nextBytes(key);
+        this.digestKey = new SecretKeySpec(key, DIGEST_ALGORITHM);
+    }
+
+    // Verifica le credenziali: il dipendente se sono corrette, vuoto altrimenti.
+    // Lancia RejectedExecutionException se il pool di hashing è saturo.
+    public CompletableFuture<Optional<Employee>> verify(String username, String password) {
+        Employee employee = employeeRepository.findByUsername(username);
+        if (employee == null || employee.getPassword() == null || password == null) {
+            return CompletableFuture.completedFuture(Optional.empty());
+        }
+
+        // Credenziali già verificate di recente: nessun calcolo BCrypt
+        byte[] cached = verifiedCredentials != null ? verifiedCredentials.getIfPresent(username) : null;
+        if (cached != null && MessageDigest.isEqual(cached, digest(username, employee.getPassword(), password))) {
+            return CompletableFuture.completedFuture(Optional.of(employee));
+        }
+
+        return CompletableFuture.supplyAsync(() -> check(employee, password), hashingExecutor);
+    }
+
+    private Optional<Employee> check(Employee employee, String password) {
+        String encodedPassword = employee.getPassword();
+        if (!passwordEncoder.matches(password, encodedPassword)) {
+            return Optional.empty();
+        }
+
+        // Il costo configurato è cambiato (in aumento o in diminuzione): si salva un nuovo hash finché si conosce la password in chiaro
+        if (needsRehash(encodedPassword)) {
+            try {
+                String upgradedPassword = passwordEncoder.encode(password);
+                employeeService.updatePasswordHash(employee, upgradedPassword);
+                encodedPassword = upgradedPassword;
+            } catch (RuntimeException e) {
+                LOGGER.warn("Could not upgrade password hash for username {}: {}", employee.getUsername(), e.getMessage());
+            }
+        }
+
+        if (verifiedCredentials != null) {
+            verifiedCredentials.put(employee.getUsername(), digest(employee.getUsername(), encodedPassword, password));
+        }
+        return Optional.of(employee);
+    }
+
+    // upgradeEncoding di BCryptPasswordEncoder segnala solo i costi inferiori a quello configurato:
+    // qui si confronta il costo salvato nell'hash, così anche una riduzione viene applicata
+    private boolean needsRehash(String encodedPassword) {
+        Matcher matcher = BCRYPT_COST.matcher(encodedPassword);
+        if (!matcher.find()) {
+            return passwordEncoder.upgradeEncoding(encodedPassword);
+        }
+        return Integer.parseInt(matcher.group(1)) != bcryptStrength;
+    }
+
+    private byte[] digest(String username, String encodedPassword, String password) {
+        try {
+            Mac mac = Mac.getInstance(DIGEST_ALGORITHM);
+            mac.init(digestKey);
+            mac.update(username.getBytes(StandardCharsets.UTF_8));
+            mac.update((byte) 0);
+            mac.update(encodedPassword.getBytes(StandardCharsets.UTF_8));
+            mac.update((byte) 0);
+            return mac.doFinal(password.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(DIGEST_ALGORITHM + " not available", e);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        hashingExecutor.shutdown();
+    }
+}
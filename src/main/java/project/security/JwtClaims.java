@@ -0,0 +1,37 @@
+package project.security;
+
+// Claims di un token già verificato (firma e scadenza): immutabile, condiviso tra le richieste
+public final class JwtClaims {
+
+    private final String username;
+    private final String role;
+    private final Long id;
+    private final long expiresAtMillis;
+
+    public JwtClaims(String username, String role, Long id, long expiresAtMillis) {
+        this.username = username;
+        this.role = role;
+        this.id = id;
+        this.expiresAtMillis = expiresAtMillis;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public long getExpiresAtMillis() {
+        return expiresAtMillis;
+    }
+
+    public boolean isExpired(long nowMillis) {
+        return expiresAtMillis <= nowMillis;
+    }
+}
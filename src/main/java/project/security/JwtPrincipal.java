@@ -0,0 +1,48 @@
+package project.security;
+
+import org.springframework.security.core.AuthenticatedPrincipal;
+
+import java.io.Serializable;
+
+// Principal autenticato costruito dai claims del JWT (sub, id, role): usato dalle espressioni
+// di @PreAuthorize come authentication.principal.id senza accedere al database
+public final class JwtPrincipal implements AuthenticatedPrincipal, Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Long id;
+    private final String username;
+    private final String role;
+
+    public JwtPrincipal(Long id, String username, String role) {
+        this.id = id;
+        this.username = username;
+        this.role = role;
+    }
+
+    public static JwtPrincipal from(JwtClaims claims) {
+        return new JwtPrincipal(claims.getId(), claims.getUsername(), claims.getRole());
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    @Override
+    public String getName() {
+        return username;
+    }
+
+    @Override
+    public String toString() {
+        return username;
+    }
+}
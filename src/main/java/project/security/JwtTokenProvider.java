@@ -1,23 +1,61 @@
 package project.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import com.nimbusds.jose.JOSEException;
 import com.nimbusds.jose.JWSAlgorithm;
 import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSSigner;
+import com.nimbusds.jose.JWSVerifier;
 import com.nimbusds.jose.crypto.MACSigner;
 import com.nimbusds.jose.crypto.MACVerifier;
 import com.nimbusds.jwt.JWTClaimsSet;
 import com.nimbusds.jwt.SignedJWT;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import project.model.Employee;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.text.ParseException;
+import java.util.Base64;
 import java.util.Date;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class JwtTokenProvider {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(JwtTokenProvider.class);
+
     private final String SECRET_KEY = "yIu4hK#89j12Nn4!g@#3UtdTk24Jp8Yxz";
 
+    // Signer e verifier HMAC sono thread-safe: vengono creati una volta sola
+    private final JWSSigner signer;
+    private final JWSVerifier verifier;
+
+    // Token già verificati, indicizzati per digest SHA-256: ogni voce scade insieme al token (null = cache disattivata)
+    private final Cache<String, JwtClaims> verifiedTokens;
+
+    public JwtTokenProvider(@Value("${security.jwt.verified-token-cache-size:10000}") long verifiedTokenCacheSize) {
+        try {
+            this.signer = new MACSigner(SECRET_KEY);
+            this.verifier = new MACVerifier(SECRET_KEY);
+        } catch (JOSEException e) {
+            throw new IllegalStateException("Invalid JWT secret key", e);
+        }
+        this.verifiedTokens = verifiedTokenCacheSize > 0
+                ? Caffeine.newBuilder()
+                        .maximumSize(verifiedTokenCacheSize)
+                        .expireAfter(new TokenExpiry())
+                        .build()
+                : null;
+    }
+
     // Genera il token, passa anche il ruolo come parametro
     public String generateToken(Employee employee) {
         Date expirationDate = new Date(System.currentTimeMillis() + 86400000); // 1 giorno
@@ -36,62 +74,102 @@ public class JwtTokenProvider {
                     claimsSet
             );
 
-            signedJWT.sign(new MACSigner(SECRET_KEY));
+            signedJWT.sign(signer);
 
             return signedJWT.serialize();
         } catch (JOSEException e) {
-            e.printStackTrace();
+            LOGGER.error("Error signing token for username {}: {}", employee.getUsername(), e.getMessage());
             return null;
         }
     }
 
+    // Parsing e verifica (firma HMAC e scadenza) del token in un'unica passata
+    public Optional<JwtClaims> parseToken(String token) {
+        if (token == null || token.isEmpty()) {
+            return Optional.empty();
+        }
+        long now = System.currentTimeMillis();
+        String digest = verifiedTokens != null ? digest(token) : null;
+
+        if (digest != null) {
+            JwtClaims cached = verifiedTokens.getIfPresent(digest);
+            if (cached != null) {
+                return cached.isExpired(now) ? Optional.empty() : Optional.of(cached);
+            }
+        }
 
-    // Estrai il nome utente dal token
-    public String getUsernameFromToken(String token) {
         try {
             SignedJWT signedJWT = SignedJWT.parse(token);
-            return signedJWT.getJWTClaimsSet().getSubject();
-        } catch (ParseException e) {
-            e.printStackTrace();
-            return null;
+            if (!signedJWT.verify(verifier)) {
+                return Optional.empty();
+            }
+            JWTClaimsSet claimsSet = signedJWT.getJWTClaimsSet();
+            Date expirationTime = claimsSet.getExpirationTime();
+            if (expirationTime == null || expirationTime.getTime() <= now) {
+                return Optional.empty();
+            }
+
+            JwtClaims claims = new JwtClaims(
+                    claimsSet.getSubject(),
+                    claimsSet.getStringClaim("role"),
+                    claimsSet.getLongClaim("id"),
+                    expirationTime.getTime());
+            if (digest != null) {
+                verifiedTokens.put(digest, claims);
+            }
+            return Optional.of(claims);
+        } catch (ParseException | JOSEException e) {
+            LOGGER.debug("Invalid JWT token: {}", e.getMessage());
+            return Optional.empty();
         }
     }
 
+    // Estrai il nome utente dal token
+    public String getUsernameFromToken(String token) {
+        return parseToken(token).map(JwtClaims::getUsername).orElse(null);
+    }
+
     // Estrai il ruolo dal token
     public String getRoleFromToken(String token) {
-        try {
-            SignedJWT signedJWT = SignedJWT.parse(token);
-            return (String) signedJWT.getJWTClaimsSet().getClaim("role");
-        } catch (ParseException e) {
-            e.printStackTrace();
-            return null;
-        }
+        return parseToken(token).map(JwtClaims::getRole).orElse(null);
     }
 
     // Verifica se il token è valido
     public boolean validateToken(String token) {
-        try {
-            SignedJWT signedJWT = SignedJWT.parse(token);
-            if (!signedJWT.verify(new MACVerifier(SECRET_KEY))) {
-                return false;
-            }
-            JWTClaimsSet claimsSet = signedJWT.getJWTClaimsSet();
-            return !claimsSet.getExpirationTime().before(new Date());
-        } catch (Exception e) {
-            e.printStackTrace();
-            return false;
-        }
+        return parseToken(token).isPresent();
     }
 
     // Restituisce la data di scadenza
     public Date getExpirationDateFromToken(String token) {
+        return parseToken(token).map(claims -> new Date(claims.getExpiresAtMillis())).orElse(null);
+    }
+
+    private static String digest(String token) {
         try {
-            SignedJWT signedJWT = SignedJWT.parse(token);
-            return signedJWT.getJWTClaimsSet().getExpirationTime();
-        } catch (ParseException e) {
-            e.printStackTrace();
-            return null;
+            MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+            return Base64.getEncoder().encodeToString(messageDigest.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
         }
     }
-}
 
+    // La voce in cache vive fino alla scadenza del token
+    private static final class TokenExpiry implements Expiry<String, JwtClaims> {
+
+        @Override
+        public long expireAfterCreate(String key, JwtClaims claims, long currentTime) {
+            long remainingMillis = claims.getExpiresAtMillis() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(remainingMillis, 0));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, JwtClaims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(String key, JwtClaims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
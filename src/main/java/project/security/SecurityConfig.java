@@ -9,6 +9,7 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.builders.WebSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configuration.WebSecurityConfigurerAdapter;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import project.filter.JwtAuthenticationFilter;
 
@@ -43,9 +44,16 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
                         "/api/auth/**"
                 ).permitAll()
 
+                // Health check e scrape delle metriche (da proteggere a livello di rete)
+                .antMatchers("/actuator/health", "/actuator/prometheus").permitAll()
+
                 .anyRequest().authenticated()
                 .and()
 
+                // Autenticazione solo tramite JWT: nessuna sessione HTTP
+                .sessionManagement().sessionCreationPolicy(SessionCreationPolicy.STATELESS)
+                .and()
+
                 .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
     }
 
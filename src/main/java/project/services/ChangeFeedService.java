@@ -0,0 +1,10 @@
+package project.services;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+public interface ChangeFeedService {
+
+    SseEmitter subscribe(Long projectId, Long employeeId, Long lastEventId);
+
+    int getSubscriberCount();
+}
@@ -0,0 +1,16 @@
+package project.services;
+
+import project.enums.ResourceCollectionEnum;
+
+public interface ChangeStampService {
+
+    void markChanged(ResourceCollectionEnum... collections);
+
+    String collectionEtag(String resource, ResourceCollectionEnum... collections);
+
+    long lastModified(ResourceCollectionEnum... collections);
+
+    boolean isSettled(ResourceCollectionEnum... collections);
+
+    String entityEtag(String resource, Long... versions);
+}
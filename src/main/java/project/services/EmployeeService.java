@@ -1,5 +1,7 @@
 package project.services;
 
+import project.dto.KeysetPage;
+import project.enums.RoleEnum;
 import project.model.Employee;
 import java.util.List;
 import java.util.Optional;
@@ -10,9 +12,13 @@ public interface EmployeeService {
 
     List<Employee> getAllEmployees();
 
+    KeysetPage<Employee> getEmployeesPage(Long afterId, Integer size, RoleEnum role);
+
     Optional<Employee> getEmployeeById(Long id);
 
     Employee updateEmployee(Long id, Employee employee);
 
     boolean deleteEmployee(Long id);
+
+    void updatePasswordHash(Employee employee, String encodedPassword);
 }
@@ -0,0 +1,12 @@
+package project.services;
+
+import project.model.OutboxEvent;
+
+// Consumatore interno degli eventi dell'outbox. La consegna è "almeno una volta" (anche a tutti i consumatori
+// se uno solo fallisce): l'elaborazione deve essere idempotente. Un'eccezione fa ritentare l'evento
+public interface OutboxConsumer {
+
+    String getName();
+
+    void consume(OutboxEvent event) throws Exception;
+}
@@ -0,0 +1,6 @@
+package project.services;
+
+public interface OutboxService {
+
+    int relayPendingEvents();
+}
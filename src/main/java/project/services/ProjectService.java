@@ -1,5 +1,8 @@
 package project.services;
 
+import project.dto.KeysetPage;
+import project.dto.ProjectView;
+import project.enums.ProjectStatusEnum;
 import project.model.Project;
 
 import java.util.List;
@@ -11,11 +14,15 @@ public interface ProjectService {
 
     List<Project> getAllProjects();
 
+    KeysetPage<Project> getProjectsPage(Long afterId, Integer size, ProjectStatusEnum status);
+
     Optional<Project> getProjectById(Long id);
 
-    List<Project> getProjectsForEmployee(Long employeeId);
+    List<ProjectView> getProjectsForEmployee(Long employeeId);
 
     Project updateProject(Long id, Project project);
 
     boolean deleteProject(Long id);
+
+    int completeProject(Long id);
 }
\ No newline at end of file
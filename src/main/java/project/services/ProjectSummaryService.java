@@ -0,0 +1,12 @@
+package project.services;
+
+import project.dto.ProjectSummaryView;
+
+import java.util.List;
+
+public interface ProjectSummaryService {
+
+    List<ProjectSummaryView> getProjectSummaries(List<Long> projectIds);
+
+    int reconcileProjectSummaries();
+}
@@ -0,0 +1,13 @@
+package project.services;
+
+import project.dto.CacheStatistics;
+import project.dto.ConnectionPoolStatistics;
+
+import java.util.List;
+
+public interface StatisticsService {
+
+    List<CacheStatistics> getCacheStatistics();
+
+    List<ConnectionPoolStatistics> getConnectionPoolStatistics();
+}
@@ -0,0 +1,13 @@
+package project.services;
+
+import project.dto.TaskSearchPage;
+import project.enums.TaskStatusEnum;
+
+public interface TaskSearchService {
+
+    TaskSearchPage searchTasks(String text, TaskStatusEnum status, Long projectId, Long employeeId, Integer page, Integer size);
+
+    int rebuildIndex();
+
+    boolean isIndexReady();
+}
@@ -1,7 +1,14 @@
 package project.services;
 
+import project.dto.KeysetPage;
+import project.dto.TaskBulkRequest;
+import project.dto.TaskBulkResult;
+import project.dto.TaskFilter;
+import project.dto.TaskView;
+import project.enums.TaskStatusEnum;
 import project.model.Task;
 
+import java.io.OutputStream;
 import java.util.List;
 import java.util.Optional;
 
@@ -11,11 +18,23 @@ public interface TaskService {
 
     List<Task> getAllTasks();
 
+    KeysetPage<Task> getTasksPage(Long afterId, Integer size, TaskFilter filter);
+
     List<Task> getTasksByEmployeeId(Long employeeId);
 
+    List<TaskView> getAllTaskViews();
+
+    List<TaskView> getTaskViewsByEmployeeId(Long employeeId);
+
+    long exportTasks(OutputStream outputStream);
+
     Optional<Task> getTaskById(Long id);
 
     Task updateTask(Long id, Task task);
 
     boolean deleteTask(Long id);
+
+    int updateTasksStatusByProject(Long projectId, TaskStatusEnum fromStatus, TaskStatusEnum toStatus);
+
+    TaskBulkResult bulkTasks(TaskBulkRequest request);
 }
@@ -0,0 +1,25 @@
+package project.services.impl;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import project.model.OutboxEvent;
+import project.services.OutboxConsumer;
+
+// Traccia delle modifiche su un logger dedicato (project.audit), fuori dal percorso delle richieste
+@Component
+public class AuditLogConsumer implements OutboxConsumer {
+
+    private static final Logger AUDIT = LoggerFactory.getLogger("project.audit");
+
+    @Override
+    public String getName() {
+        return "audit-log";
+    }
+
+    @Override
+    public void consume(OutboxEvent event) {
+        AUDIT.info("{} {} {} at {}: {}", event.getEventType(), event.getAggregateType(), event.getAggregateId(),
+                event.getCreatedAt(), event.getPayload());
+    }
+}
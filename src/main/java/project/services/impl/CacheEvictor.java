@@ -0,0 +1,54 @@
+package project.services.impl;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+import project.config.CacheConfig;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+
+// Invalidazione puntuale delle cache dei finder dopo le scritture nei service (al commit: cache transaction-aware).
+// Con le repliche in lettura la chiave viene invalidata una seconda volta trascorso il ritardo delle repliche:
+// un altro utente può averla ripopolata nel frattempo leggendo da una replica non ancora allineata
+@Component
+public class CacheEvictor {
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private TaskScheduler taskScheduler;
+
+    @Value("${datasource.replicas.urls:}")
+    private String replicaUrls;
+
+    @Value("${datasource.replicas.read-after-write-window:2s}")
+    private Duration replicaLag;
+
+    public void evictEmployeeByUsername(String username) {
+        evict(CacheConfig.EMPLOYEES_BY_USERNAME, username);
+    }
+
+    public void evictProjectsOfEmployee(Long employeeId) {
+        evict(CacheConfig.PROJECTS_BY_EMPLOYEE, employeeId);
+    }
+
+    public void evictProjectsOfEmployees(Collection<Long> employeeIds) {
+        employeeIds.forEach(this::evictProjectsOfEmployee);
+    }
+
+    private void evict(String cacheName, Object key) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null && key != null) {
+            cache.evict(key);
+            if (!replicaUrls.isBlank() && !replicaLag.isZero()) {
+                taskScheduler.schedule(() -> cache.evict(key), Instant.now().plus(replicaLag));
+            }
+        }
+    }
+}
@@ -0,0 +1,399 @@
+package project.services.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import project.dto.ChangeEvent;
+import project.services.ChangeFeedService;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Feed delle modifiche in Server-Sent Events. Le connessioni sono risposte asincrone di Spring MVC: una connessione inattiva
+// non occupa thread, solo il socket. Gli eventi pubblicati dai service arrivano qui dopo il commit e finiscono nella coda
+// limitata di ogni sottoscrittore interessato; pochi thread dedicati svuotano le code scrivendo sui socket.
+// Un client che non tiene il passo (coda piena o scrittura ferma oltre change-feed.send-timeout) viene disconnesso
+// e si riallinea riconnettendosi con Last-Event-ID
+@Service
+public class ChangeFeedServiceImpl implements ChangeFeedService, DisposableBean {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ChangeFeedServiceImpl.class);
+
+    // Inviato quando gli eventi persi non sono più disponibili: il client deve rileggere tutto
+    static final String RESET_EVENT = "reset";
+
+    private final ObjectMapper objectMapper;
+    private final int bufferSize;
+    private final int historySize;
+    private final long timeoutMillis;
+    private final long retryMillis;
+    private final long sendTimeoutNanos;
+    private final Counter evictions;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    // Sottoscrittori con una scrittura in corso, anche se già disconnessi (es. per coda piena)
+    private final Set<Subscriber> activeSends = ConcurrentHashMap.newKeySet();
+
+    // Ultimi eventi pubblicati, per la ripresa: protetto dal proprio lock insieme a nextId e alla consegna,
+    // così una sottoscrizione con ripresa non perde né duplica gli eventi pubblicati nel frattempo
+    private final ArrayDeque<Message> history = new ArrayDeque<>();
+    // Gli id partono dall'istante di avvio: quelli emessi prima di un riavvio risultano più vecchi dello storico
+    private long nextId = System.currentTimeMillis();
+
+    private final ThreadPoolTaskExecutor senderExecutor;
+
+    public ChangeFeedServiceImpl(ObjectMapper objectMapper,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${change-feed.buffer-size:256}") int bufferSize,
+                                 @Value("${change-feed.history-size:1024}") int historySize,
+                                 @Value("${change-feed.timeout:30m}") Duration timeout,
+                                 @Value("${change-feed.retry:5s}") Duration retry,
+                                 @Value("${change-feed.send-timeout:10s}") Duration sendTimeout,
+                                 @Value("${change-feed.sender-threads:2}") int senderThreads) {
+        this.objectMapper = objectMapper;
+        this.bufferSize = bufferSize;
+        this.historySize = historySize;
+        this.timeoutMillis = timeout.toMillis();
+        this.retryMillis = retry.toMillis();
+        this.sendTimeoutNanos = sendTimeout.toNanos();
+
+        // Nessun limite sulla coda del pool: ogni sottoscrittore ha al più un invio in attesa.
+        // Il numero di thread attivi è corePoolSize, che cresce temporaneamente per ogni scrittura bloccata (vedi evictStalledSubscribers)
+        this.senderExecutor = new ThreadPoolTaskExecutor();
+        this.senderExecutor.setCorePoolSize(senderThreads);
+        this.senderExecutor.setThreadNamePrefix("change-feed-");
+        this.senderExecutor.initialize();
+
+        Gauge.builder("change.feed.subscribers", subscribers, Set::size)
+                .description("Open change feed connections")
+                .register(meterRegistry);
+        this.evictions = Counter.builder("change.feed.evictions")
+                .description("Change feed connections closed because the client could not keep up")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public SseEmitter subscribe(Long projectId, Long employeeId, Long lastEventId) {
+        SseEmitter emitter = newEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter, projectId, employeeId, bufferSize);
+        emitter.onCompletion(() -> close(subscriber));
+        emitter.onError(e -> close(subscriber));
+        emitter.onTimeout(() -> {
+            close(subscriber);
+            subscriber.complete();
+        });
+
+        // Il primo invio apre subito lo stream e indica al client dopo quanto riconnettersi
+        subscriber.queue.offer(Message.connected(retryMillis));
+        synchronized (history) {
+            if (lastEventId != null) {
+                replay(subscriber, lastEventId);
+            }
+            subscribers.add(subscriber);
+        }
+        schedule(subscriber);
+        LOGGER.debug("Change feed subscription (project {}, employee {}, last event {})", projectId, employeeId, lastEventId);
+        return emitter;
+    }
+
+    @Override
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    // Dopo il commit della transazione che ha pubblicato l'evento (subito, se pubblicato fuori transazione):
+    // un rollback non genera notifiche. Eseguito sul thread della richiesta, solo operazioni in memoria
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChange(ChangeEvent change) {
+        synchronized (history) {
+            ChangeEvent event = change.withId(nextId++);
+            Message message = Message.change(event, toJson(event));
+            history.addLast(message);
+            if (history.size() > historySize) {
+                history.removeFirst();
+            }
+            for (Subscriber subscriber : subscribers) {
+                if (subscriber.accepts(event)) {
+                    deliver(subscriber, message);
+                }
+            }
+        }
+    }
+
+    // Commento SSE periodico: tiene aperte le connessioni attraverso proxy e load balancer
+    // e fa emergere quelle chiuse dal client senza preavviso
+    @Scheduled(fixedRateString = "${change-feed.heartbeat-interval-ms:15000}",
+            initialDelayString = "${change-feed.heartbeat-interval-ms:15000}")
+    public void sendHeartbeats() {
+        Message heartbeat = Message.heartbeat();
+        for (Subscriber subscriber : subscribers) {
+            deliver(subscriber, heartbeat);
+        }
+    }
+
+    // Scritture ferme da più di change-feed.send-timeout (client che non legge: buffer del socket pieni).
+    // Il sottoscrittore viene disconnesso, ma il thread resta nella scrittura bloccante finché Tomcat non la interrompe
+    // (timeout di scrittura del connettore): intanto il pool riceve un thread in più, così gli altri client non si fermano
+    @Scheduled(fixedRateString = "${change-feed.stall-check-interval-ms:1000}",
+            initialDelayString = "${change-feed.stall-check-interval-ms:1000}")
+    public void evictStalledSubscribers() {
+        long now = System.nanoTime();
+        for (Subscriber subscriber : activeSends) {
+            long blockedNanos;
+            synchronized (subscriber) {
+                blockedNanos = now - subscriber.sendStartedAt;
+                if (!subscriber.sending || subscriber.stalled || blockedNanos < sendTimeoutNanos) {
+                    continue;
+                }
+                subscriber.stalled = true;
+            }
+            // Già disconnesso per coda piena: l'espulsione è stata contata allora
+            if (!subscriber.closed) {
+                evictions.increment();
+                LOGGER.warn("Change feed subscriber evicted: send blocked for {} ms", Duration.ofNanos(blockedNanos).toMillis());
+                close(subscriber);
+            }
+            subscriber.queue.clear();
+            resizeSenders(1);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        for (Subscriber subscriber : subscribers) {
+            close(subscriber);
+            subscriber.complete();
+        }
+        senderExecutor.shutdown();
+    }
+
+    // Eventi successivi a lastEventId visibili al sottoscrittore; se non sono più tutti nello storico,
+    // o sono più di quanti ne stiano nella coda, il client riceve un reset
+    private void replay(Subscriber subscriber, long lastEventId) {
+        long oldestId = history.isEmpty() ? nextId : history.peekFirst().event.getId();
+        List<Message> missed = new ArrayList<>();
+        if (lastEventId >= oldestId - 1 && lastEventId < nextId) {
+            for (Message message : history) {
+                if (message.event.getId() > lastEventId && subscriber.accepts(message.event)) {
+                    missed.add(message);
+                }
+            }
+            if (missed.size() < subscriber.queue.remainingCapacity()) {
+                subscriber.queue.addAll(missed);
+                return;
+            }
+        }
+        LOGGER.debug("Change feed cannot resume from event {}: sending reset", lastEventId);
+        subscriber.queue.offer(Message.reset());
+    }
+
+    private void deliver(Subscriber subscriber, Message message) {
+        if (subscriber.closed) {
+            return;
+        }
+        if (subscriber.queue.offer(message)) {
+            schedule(subscriber);
+        } else {
+            // Consumatore lento: la coda non cresce oltre il limite, la connessione si chiude
+            evictions.increment();
+            LOGGER.warn("Change feed subscriber evicted: {} events pending", subscriber.queue.size());
+            close(subscriber);
+            subscriber.queue.clear();
+            schedule(subscriber);
+        }
+    }
+
+    // Un solo invio alla volta per sottoscrittore: l'ordine degli eventi è quello della coda
+    private void schedule(Subscriber subscriber) {
+        if (subscriber.draining.compareAndSet(false, true)) {
+            try {
+                senderExecutor.execute(() -> drain(subscriber));
+            } catch (TaskRejectedException e) {
+                subscriber.draining.set(false);
+                close(subscriber);
+            }
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        while (true) {
+            if (subscriber.closed) {
+                subscriber.complete();
+                return;
+            }
+            Message message = subscriber.queue.poll();
+            if (message == null) {
+                subscriber.draining.set(false);
+                // Un evento accodato dopo il poll: lo invia questo thread, se nessun altro l'ha già preso in carico
+                if ((subscriber.queue.isEmpty() && !subscriber.closed) || !subscriber.draining.compareAndSet(false, true)) {
+                    return;
+                }
+                continue;
+            }
+            synchronized (subscriber) {
+                subscriber.sendStartedAt = System.nanoTime();
+                subscriber.sending = true;
+            }
+            activeSends.add(subscriber);
+            try {
+                subscriber.emitter.send(message.toSse());
+            } catch (IOException | IllegalStateException e) {
+                // Connessione chiusa dal client: la chiusura della risposta la completa Spring MVC
+                LOGGER.debug("Change feed subscriber disconnected: {}", e.getMessage());
+                subscriber.completed.set(true);
+                close(subscriber);
+            } finally {
+                activeSends.remove(subscriber);
+                boolean stalled;
+                synchronized (subscriber) {
+                    subscriber.sending = false;
+                    stalled = subscriber.stalled;
+                    subscriber.stalled = false;
+                }
+                // Scrittura bloccata terminata: il thread aggiunto al pool per sostituire questo non serve più
+                if (stalled) {
+                    resizeSenders(-1);
+                }
+            }
+        }
+    }
+
+    // Con corePoolSize ridotto i thread in eccesso terminano appena liberi
+    private void resizeSenders(int delta) {
+        synchronized (senderExecutor) {
+            senderExecutor.setCorePoolSize(senderExecutor.getCorePoolSize() + delta);
+        }
+    }
+
+    // Punto di estensione per i test (emitter con scritture controllate)
+    protected SseEmitter newEmitter(long timeoutMillis) {
+        return new SseEmitter(timeoutMillis);
+    }
+
+    private void close(Subscriber subscriber) {
+        subscriber.closed = true;
+        subscribers.remove(subscriber);
+    }
+
+    private String toJson(ChangeEvent event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize change event " + event.getType(), e);
+        }
+    }
+
+    private static final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final Long projectId;
+        private final Long employeeId;
+        private final BlockingQueue<Message> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean completed = new AtomicBoolean();
+        private volatile boolean closed;
+        // Scrittura in corso e suo inizio (System.nanoTime), protetti dal lock del sottoscrittore
+        private boolean sending;
+        private long sendStartedAt;
+        private boolean stalled;
+
+        private Subscriber(SseEmitter emitter, Long projectId, Long employeeId, int bufferSize) {
+            this.emitter = emitter;
+            this.projectId = projectId;
+            this.employeeId = employeeId;
+            this.queue = new ArrayBlockingQueue<>(bufferSize);
+        }
+
+        // Filtro per dipendente stretto (l'employee vede solo ciò che lo riguarda); filtro per progetto largo:
+        // le modifiche non legate a un progetto (es. dipendenti) arrivano a tutti
+        private boolean accepts(ChangeEvent event) {
+            if (employeeId != null && !event.getEmployeeIds().contains(employeeId)) {
+                return false;
+            }
+            return projectId == null || event.getProjectIds().isEmpty() || event.getProjectIds().contains(projectId);
+        }
+
+        private void complete() {
+            if (completed.compareAndSet(false, true)) {
+                try {
+                    emitter.complete();
+                } catch (IllegalStateException e) {
+                    LOGGER.debug("Change feed emitter already completed: {}", e.getMessage());
+                }
+            }
+        }
+    }
+
+    // Evento SSE da inviare: il JSON è serializzato una sola volta per tutti i destinatari,
+    // il builder di Spring invece va creato a ogni invio
+    private static final class Message {
+
+        private final ChangeEvent event;
+        private final String data;
+        private final String name;
+        private final String comment;
+        private final Long retryMillis;
+
+        private Message(ChangeEvent event, String data, String name, String comment, Long retryMillis) {
+            this.event = event;
+            this.data = data;
+            this.name = name;
+            this.comment = comment;
+            this.retryMillis = retryMillis;
+        }
+
+        private static Message change(ChangeEvent event, String json) {
+            return new Message(event, json, event.getType().name(), null, null);
+        }
+
+        private static Message connected(long retryMillis) {
+            return new Message(null, null, null, "connected", retryMillis);
+        }
+
+        private static Message heartbeat() {
+            return new Message(null, null, null, "heartbeat", null);
+        }
+
+        private static Message reset() {
+            return new Message(null, "{}", RESET_EVENT, null, null);
+        }
+
+        private SseEmitter.SseEventBuilder toSse() {
+            SseEmitter.SseEventBuilder builder = SseEmitter.event();
+            if (event != null) {
+                builder.id(String.valueOf(event.getId()));
+            }
+            if (retryMillis != null) {
+                builder.reconnectTime(retryMillis);
+            }
+            if (comment != null) {
+                builder.comment(comment);
+            }
+            if (name != null) {
+                builder.name(name).data(data, MediaType.APPLICATION_JSON);
+            }
+            return builder;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package project.services.impl;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.DigestUtils;
+import project.enums.ResourceCollectionEnum;
+import project.services.ChangeStampService;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Contatori di modifica per collezione, in memoria come le cache dei finder: una lista non è cambiata finché
+// non cambia il contatore di nessuna delle collezioni da cui dipende, quindi l'ETag si calcola senza eseguire la query.
+// L'id dell'istanza nell'ETag invalida quelli emessi prima di un riavvio
+@Service
+public class ChangeStampServiceImpl implements ChangeStampService {
+
+    private final String instanceId = UUID.randomUUID().toString();
+    private final Map<ResourceCollectionEnum, AtomicLong> counters = new EnumMap<>(ResourceCollectionEnum.class);
+    private final Map<ResourceCollectionEnum, AtomicLong> lastModified = new EnumMap<>(ResourceCollectionEnum.class);
+    // Istante (System.nanoTime) dell'ultima modifica, per sapere quando le repliche l'hanno ricevuta
+    private final Map<ResourceCollectionEnum, AtomicLong> changedAt = new EnumMap<>(ResourceCollectionEnum.class);
+    // Ritardo massimo atteso delle repliche in lettura (0 senza repliche)
+    private final long replicaLagNanos;
+
+    public ChangeStampServiceImpl(@Value("${datasource.replicas.urls:}") String replicaUrls,
+                                  @Value("${datasource.replicas.read-after-write-window:2s}") Duration replicaLag) {
+        this.replicaLagNanos = replicaUrls.isBlank() ? 0 : replicaLag.toNanos();
+        long startup = System.currentTimeMillis() / 1000 * 1000;
+        long settled = System.nanoTime() - replicaLagNanos;
+        for (ResourceCollectionEnum collection : ResourceCollectionEnum.values()) {
+            counters.put(collection, new AtomicLong());
+            lastModified.put(collection, new AtomicLong(startup));
+            changedAt.put(collection, new AtomicLong(settled));
+        }
+    }
+
+    // Il contatore avanza dopo il commit: chi ha letto quello vecchio al più riceve i dati nuovi con l'ETag vecchio
+    // (e li riscarica al giro dopo). Chi legge il contatore nuovo trova i dati nuovi sul primario; con le repliche
+    // (datasource.replicas.urls) una lettura può arrivare su una replica non ancora allineata, per questo le liste
+    // ricevono un ETag solo quando la modifica è più vecchia del ritardo delle repliche (isSettled)
+    @Override
+    public void markChanged(ResourceCollectionEnum... collections) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    advance(collections);
+                }
+            });
+        } else {
+            advance(collections);
+        }
+    }
+
+    @Override
+    public String collectionEtag(String resource, ResourceCollectionEnum... collections) {
+        StringBuilder key = new StringBuilder(instanceId).append('|').append(resource);
+        for (ResourceCollectionEnum collection : collections) {
+            key.append('|').append(counters.get(collection).get());
+        }
+        return etag(key);
+    }
+
+    @Override
+    public long lastModified(ResourceCollectionEnum... collections) {
+        long latest = 0;
+        for (ResourceCollectionEnum collection : collections) {
+            latest = Math.max(latest, lastModified.get(collection).get());
+        }
+        return latest;
+    }
+
+    // Con le repliche, dopo una modifica le letture possono ancora restituire le righe precedenti per il ritardo
+    // delle repliche (read-after-write-window): fino ad allora il contatore nuovo non descrive i dati letti
+    @Override
+    public boolean isSettled(ResourceCollectionEnum... collections) {
+        long now = System.nanoTime();
+        for (ResourceCollectionEnum collection : collections) {
+            if (now - changedAt.get(collection).get() < replicaLagNanos) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // ETag di una singola risorsa dalle versioni (@Version) delle entità che compaiono nella risposta
+    @Override
+    public String entityEtag(String resource, Long... versions) {
+        StringBuilder key = new StringBuilder(resource);
+        for (Long version : versions) {
+            key.append('|').append(version);
+        }
+        return etag(key);
+    }
+
+    // Last-Modified e If-Modified-Since hanno la precisione del secondo: il timbro è l'inizio del secondo successivo
+    // alla modifica, e ConditionalGet lo invia solo da quell'istante. Una scrittura successiva alla risposta
+    // riceve quindi un timbro di almeno un secondo dopo, anche se avviene nello stesso secondo della risposta
+    private void advance(ResourceCollectionEnum... collections) {
+        long nextSecond = (System.currentTimeMillis() / 1000 + 1) * 1000;
+        long nanos = System.nanoTime();
+        for (ResourceCollectionEnum collection : collections) {
+            counters.get(collection).incrementAndGet();
+            lastModified.get(collection).accumulateAndGet(nextSecond, Math::max);
+            changedAt.get(collection).accumulateAndGet(nanos, (current, candidate) -> candidate - current > 0 ? candidate : current);
+        }
+    }
+
+    // ETag debole: la stessa rappresentazione può arrivare compressa o in un formato binario
+    // (e Tomcat non comprime le risposte con ETag forte)
+    private static String etag(CharSequence key) {
+        return "W/\"" + DigestUtils.md5DigestAsHex(key.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+}
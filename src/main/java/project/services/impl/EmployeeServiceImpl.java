@@ -3,15 +3,23 @@ package project.services.impl;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import project.dto.ChangeEvent;
+import project.dto.KeysetPage;
+import project.enums.ChangeEventTypeEnum;
 import project.enums.RoleEmployeeEnum;
+import project.enums.ResourceCollectionEnum;
 import project.enums.RoleEnum;
 import project.model.Employee;
 import project.repositories.EmployeeRepository;
 import project.repositories.TaskRepository;
+import project.services.ChangeStampService;
 import project.services.EmployeeService;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
@@ -26,10 +34,23 @@ public class EmployeeServiceImpl implements EmployeeService {
     @Autowired
     private TaskRepository taskRepository;
 
+    @Autowired
+    private CacheEvictor cacheEvictor;
+
+    @Autowired
+    private ProjectSummaryCounters projectSummaryCounters;
+
+    @Autowired
+    private ChangeStampService changeStampService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     @Override
+    @Transactional
     public Employee createEmployee(Employee employee) {
         try {
-            LOGGER.info("Attempting to create employee: {}", employee);
+            LOGGER.debug("Attempting to create employee: {}", employee);
 
             if (employee.getUsername() == null || employee.getUsername().isEmpty()) {
                 throw new IllegalArgumentException("Username cannot be null or empty");
@@ -41,6 +62,8 @@ public class EmployeeServiceImpl implements EmployeeService {
                 employee.setRoleEmployee(RoleEmployeeEnum.JUNIOR_DEVELOPER);
             }
             Employee newEmployee = employeeRepository.save(employee);
+            changeStampService.markChanged(ResourceCollectionEnum.EMPLOYEES);
+            publish(ChangeEventTypeEnum.EMPLOYEE_CREATED, newEmployee.getId(), Collections.emptyList());
             LOGGER.info("Employee created successfully with ID: {}", newEmployee.getId());
             return newEmployee;
         } catch (Exception e) {
@@ -50,11 +73,12 @@ public class EmployeeServiceImpl implements EmployeeService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Employee> getAllEmployees() {
         try {
-            LOGGER.info("Fetching all employees");
+            LOGGER.debug("Fetching all employees");
             List<Employee> employees = employeeRepository.findAll();
-            LOGGER.info("Found {} employees", employees.size());
+            LOGGER.debug("Found {} employees", employees.size());
             return employees;
         } catch (Exception e) {
             LOGGER.error("Error occurred while retrieving all employees: {}", e.getMessage(), e);
@@ -63,12 +87,33 @@ public class EmployeeServiceImpl implements EmployeeService {
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public KeysetPage<Employee> getEmployeesPage(Long afterId, Integer size, RoleEnum role) {
+        try {
+            int pageSize = KeysetPage.resolvePageSize(size);
+            LOGGER.debug("Fetching employees page after ID {} (size {})", afterId, pageSize);
+
+            // Si legge una riga in più per sapere se esiste la pagina successiva
+            long cursor = KeysetPage.resolveCursor(afterId);
+            PageRequest limit = PageRequest.ofSize(pageSize + 1);
+            List<Employee> rows = role == null
+                    ? employeeRepository.findPageAfter(cursor, limit)
+                    : employeeRepository.findPageByRoleAfter(role, cursor, limit);
+            return KeysetPage.of(rows, pageSize, Employee::getId);
+        } catch (Exception e) {
+            LOGGER.error("Error occurred while retrieving employees page: {}", e.getMessage(), e);
+            throw new RuntimeException("Error fetching employees page", e);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public Optional<Employee> getEmployeeById(Long id) {
         try {
-            LOGGER.info("Fetching employee with ID: {}", id);
+            LOGGER.debug("Fetching employee with ID: {}", id);
             Optional<Employee> employee = employeeRepository.findById(id);
             if (employee.isPresent()) {
-                LOGGER.info("Employee found: {}", employee.get());
+                LOGGER.debug("Employee found: {}", employee.get());
             } else {
                 LOGGER.warn("Employee with ID {} not found", id);
             }
@@ -80,11 +125,13 @@ public class EmployeeServiceImpl implements EmployeeService {
     }
 
     @Override
+    @Transactional
     public Employee updateEmployee(Long id, Employee updateData) {
         try {
-            LOGGER.info("Attempting to update employee with ID: {}", id);
+            LOGGER.debug("Attempting to update employee with ID: {}", id);
             Employee existing = employeeRepository.findById(id)
                     .orElseThrow(() -> new RuntimeException("Employee not found"));
+            String previousUsername = existing.getUsername();
 
             if (updateData.getName() != null) {
                 existing.setName(updateData.getName());
@@ -99,6 +146,10 @@ public class EmployeeServiceImpl implements EmployeeService {
             if (updateData.getRoleEmployee() != null) existing.setRoleEmployee(updateData.getRoleEmployee());
 
             Employee updatedEmployee = employeeRepository.save(existing);
+            cacheEvictor.evictEmployeeByUsername(previousUsername);
+            cacheEvictor.evictEmployeeByUsername(updatedEmployee.getUsername());
+            changeStampService.markChanged(ResourceCollectionEnum.EMPLOYEES);
+            publish(ChangeEventTypeEnum.EMPLOYEE_UPDATED, id, Collections.emptyList());
             LOGGER.info("Employee updated successfully with ID: {}", updatedEmployee.getId());
             return updatedEmployee;
         } catch (Exception e) {
@@ -112,17 +163,25 @@ public class EmployeeServiceImpl implements EmployeeService {
     @Transactional
     public boolean deleteEmployee(Long id) {
         try {
-            LOGGER.info("Attempting to delete employee with ID: {}", id);
+            LOGGER.debug("Attempting to delete employee with ID: {}", id);
 
             Optional<Employee> employee = employeeRepository.findById(id);
             if (employee.isPresent() && employee.get().getRole() == RoleEnum.PM) {
                 throw new IllegalArgumentException("Cannot delete a PM");
             }
 
+            List<Long> projectIds = taskRepository.findProjectIdsByEmployeeId(id);
             taskRepository.deleteByEmployeeId(id);
+            projectSummaryCounters.recalculate(projectIds);
+            changeStampService.markChanged(ResourceCollectionEnum.TASKS);
 
             if (employeeRepository.existsById(id)) {
                 employeeRepository.deleteById(id);
+                employee.ifPresent(e -> cacheEvictor.evictEmployeeByUsername(e.getUsername()));
+                cacheEvictor.evictProjectsOfEmployee(id);
+                changeStampService.markChanged(ResourceCollectionEnum.EMPLOYEES);
+                // I suoi task sono stati eliminati: interessa anche chi segue quei progetti
+                publish(ChangeEventTypeEnum.EMPLOYEE_DELETED, id, projectIds);
                 LOGGER.info("Employee with ID {} deleted successfully", id);
                 return true;
             } else {
@@ -134,4 +193,22 @@ public class EmployeeServiceImpl implements EmployeeService {
             throw new RuntimeException("Error deleting employee", e);
         }
     }
+
+    @Override
+    @Transactional
+    public void updatePasswordHash(Employee employee, String encodedPassword) {
+        try {
+            LOGGER.info("Upgrading password hash for employee with ID: {}", employee.getId());
+            employeeRepository.updatePassword(employee.getId(), encodedPassword);
+            cacheEvictor.evictEmployeeByUsername(employee.getUsername());
+            changeStampService.markChanged(ResourceCollectionEnum.EMPLOYEES);
+        } catch (Exception e) {
+            LOGGER.error("Error occurred while upgrading password hash for employee with ID {}: {}", employee.getId(), e.getMessage(), e);
+            throw new RuntimeException("Error upgrading password hash", e);
+        }
+    }
+
+    private void publish(ChangeEventTypeEnum type, Long employeeId, List<Long> projectIds) {
+        eventPublisher.publishEvent(ChangeEvent.of(type, employeeId, projectIds, Collections.singleton(employeeId)));
+    }
 }
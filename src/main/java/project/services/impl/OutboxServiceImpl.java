@@ -0,0 +1,219 @@
+package project.services.impl;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import project.model.OutboxDeadLetter;
+import project.model.OutboxEvent;
+import project.repositories.OutboxDeadLetterRepository;
+import project.repositories.OutboxEventRepository;
+import project.services.OutboxConsumer;
+import project.services.OutboxService;
+
+import javax.annotation.PostConstruct;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+// Consegna degli eventi dell'outbox ai consumatori interni, a lotti in ordine di id, su un solo thread (lo scheduler):
+// come le cache e il feed delle modifiche presuppone una sola istanza dell'applicazione.
+// Un evento viene cancellato solo dopo la consegna a tutti i consumatori (almeno una volta); in caso di errore
+// viene ritentato con attesa esponenziale e, fino ad allora, trattiene gli eventi successivi dello stesso aggregato.
+// Ogni giro scorre l'intera outbox per id (keyset), così gli eventi trattenuti non bloccano quelli degli altri aggregati.
+// Esauriti i tentativi passa in outbox_dead_letter
+@Service
+public class OutboxServiceImpl implements OutboxService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(OutboxServiceImpl.class);
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private OutboxDeadLetterRepository outboxDeadLetterRepository;
+
+    @Autowired
+    private List<OutboxConsumer> consumers;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${outbox.batch-size:100}")
+    private int batchSize;
+
+    @Value("${outbox.max-attempts:10}")
+    private int maxAttempts;
+
+    @Value("${outbox.initial-backoff:1s}")
+    private Duration initialBackoff;
+
+    @Value("${outbox.max-backoff:5m}")
+    private Duration maxBackoff;
+
+    private final AtomicLong pending = new AtomicLong();
+
+    private Counter delivered;
+    private Counter retried;
+    private Counter deadLettered;
+    private Timer lag;
+
+    @PostConstruct
+    void registerMetrics() {
+        Gauge.builder("outbox.events.pending", pending, AtomicLong::get)
+                .description("Outbox events waiting for delivery, as of the last relay run")
+                .register(meterRegistry);
+        delivered = Counter.builder("outbox.events.delivered")
+                .description("Outbox events delivered to every consumer")
+                .register(meterRegistry);
+        retried = Counter.builder("outbox.events.retried")
+                .description("Failed outbox deliveries scheduled for a retry")
+                .register(meterRegistry);
+        deadLettered = Counter.builder("outbox.events.dead.lettered")
+                .description("Outbox events moved to the dead letter table after the last attempt")
+                .register(meterRegistry);
+        lag = Timer.builder("outbox.delivery.lag")
+                .description("Time from the commit of a change to the delivery of its outbox event")
+                .register(meterRegistry);
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${outbox.poll-interval-ms:500}", initialDelayString = "${outbox.poll-interval-ms:500}")
+    public int relayPendingEvents() {
+        try {
+            RelayRun run = new RelayRun();
+            int read;
+            // Lotti pieni: ci sono probabilmente altri eventi dopo l'ultimo letto, consegnati o meno quelli del lotto
+            do {
+                read = relayBatch(run);
+            } while (read == batchSize);
+            // Il giro ha letto tutta l'outbox: il conteggio non richiede query
+            pending.set(run.read - run.relayed);
+            if (run.relayed > 0) {
+                LOGGER.debug("Relayed {} outbox events", run.relayed);
+            }
+            return run.relayed;
+        } catch (Exception e) {
+            LOGGER.error("Error occurred while relaying outbox events: {}", e.getMessage());
+            throw new RuntimeException("Error relaying outbox events", e);
+        }
+    }
+
+    // Legge e consegna il lotto successivo a run.afterId; restituisce il numero di eventi letti
+    private int relayBatch(RelayRun run) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        // Transazione non readOnly, quindi sul primario: una replica in ritardo riproporrebbe eventi già consegnati
+        List<OutboxEvent> batch = transactionTemplate.execute(status ->
+                outboxEventRepository.findOldestAfter(run.afterId, PageRequest.ofSize(batchSize)));
+        if (batch == null || batch.isEmpty()) {
+            return 0;
+        }
+        run.afterId = batch.get(batch.size() - 1).getId();
+
+        Instant now = Instant.now();
+        // Aggregati trattenuti per tutto il giro: un evento in attesa blocca anche i successivi letti nei lotti seguenti
+        Set<String> blockedAggregates = run.blockedAggregates;
+        List<Long> deliveredIds = new ArrayList<>();
+        List<OutboxEvent> retries = new ArrayList<>();
+        List<OutboxDeadLetter> deadLetters = new ArrayList<>();
+
+        for (OutboxEvent event : batch) {
+            String aggregate = event.getAggregateType() + ":" + event.getAggregateId();
+            if (blockedAggregates.contains(aggregate) || event.getNextAttemptAt().isAfter(now)) {
+                blockedAggregates.add(aggregate);
+                continue;
+            }
+
+            String error = deliver(event);
+            if (error == null) {
+                deliveredIds.add(event.getId());
+                lag.record(Duration.between(event.getCreatedAt(), Instant.now()));
+                continue;
+            }
+
+            event.setAttempts(event.getAttempts() + 1);
+            event.setLastError(error);
+            if (event.getAttempts() >= maxAttempts) {
+                // Da qui gli eventi successivi dello stesso aggregato tornano consegnabili
+                LOGGER.error("Outbox event {} ({} {} {}) moved to dead letters after {} attempts: {}", event.getId(),
+                        event.getEventType(), event.getAggregateType(), event.getAggregateId(), event.getAttempts(), error);
+                deadLetters.add(new OutboxDeadLetter(event, now));
+            } else {
+                Duration backoff = backoff(event.getAttempts());
+                LOGGER.warn("Outbox event {} ({} {} {}) failed, attempt {} of {}, retrying in {} ms: {}", event.getId(),
+                        event.getEventType(), event.getAggregateType(), event.getAggregateId(), event.getAttempts(),
+                        maxAttempts, backoff.toMillis(), error);
+                event.setNextAttemptAt(now.plus(backoff));
+                retries.add(event);
+                blockedAggregates.add(aggregate);
+            }
+        }
+
+        // Esiti del lotto in una sola transazione: se fallisce, gli eventi già consegnati verranno riconsegnati
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!deliveredIds.isEmpty()) {
+                outboxEventRepository.deleteAllByIdInBatch(deliveredIds);
+            }
+            outboxEventRepository.saveAll(retries);
+            if (!deadLetters.isEmpty()) {
+                outboxDeadLetterRepository.saveAll(deadLetters);
+                outboxEventRepository.deleteAllByIdInBatch(deadLetters.stream()
+                        .map(OutboxDeadLetter::getId)
+                        .collect(Collectors.toList()));
+            }
+        });
+
+        run.read += batch.size();
+        run.relayed += deliveredIds.size() + deadLetters.size();
+        delivered.increment(deliveredIds.size());
+        retried.increment(retries.size());
+        deadLettered.increment(deadLetters.size());
+        return batch.size();
+    }
+
+    // Messaggio d'errore del primo consumatore che fallisce, null se tutti hanno elaborato l'evento
+    private String deliver(OutboxEvent event) {
+        for (OutboxConsumer consumer : consumers) {
+            try {
+                consumer.consume(event);
+            } catch (Exception e) {
+                String error = consumer.getName() + ": " + e;
+                return error.length() <= MAX_ERROR_LENGTH ? error : error.substring(0, MAX_ERROR_LENGTH);
+            }
+        }
+        return null;
+    }
+
+    private Duration backoff(int attempts) {
+        long millis = initialBackoff.toMillis() << Math.min(attempts - 1, 30);
+        return Duration.ofMillis(Math.min(millis, maxBackoff.toMillis()));
+    }
+
+    // Stato di un giro del relay: posizione nella outbox, aggregati trattenuti ed eventi letti e consegnati
+    private static final class RelayRun {
+
+        private long afterId;
+        private final Set<String> blockedAggregates = new HashSet<>();
+        private int read;
+        private int relayed;
+    }
+}
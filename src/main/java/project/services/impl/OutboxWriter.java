@@ -0,0 +1,56 @@
+package project.services.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import project.dto.ChangeEvent;
+import project.model.OutboxEvent;
+import project.repositories.OutboxEventRepository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Scrive nell'outbox gli eventi pubblicati dai service, nella stessa transazione della modifica:
+// con il rollback l'evento sparisce insieme alla modifica, con il commit verrà consegnato (OutboxServiceImpl)
+@Component
+public class OutboxWriter {
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onChange(ChangeEvent event) {
+        // Prima le modifiche (e i lock sulle righe), poi l'id dell'evento: due transazioni sulla stessa entità
+        // ottengono id dell'outbox nello stesso ordine dei loro commit
+        entityManager.flush();
+
+        // Aggregato dal tipo: TASK, TASKS (modifiche a più task insieme), PROJECT, EMPLOYEE
+        String type = event.getType().name();
+        String aggregateType = type.substring(0, type.indexOf('_'));
+        outboxEventRepository.save(new OutboxEvent(aggregateType, event.getEntityId(), type, toJson(event), Instant.now()));
+    }
+
+    private String toJson(ChangeEvent event) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("entityId", event.getEntityId());
+        payload.put("projectIds", event.getProjectIds());
+        payload.put("employeeIds", event.getEmployeeIds());
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize outbox event " + event.getType(), e);
+        }
+    }
+}
@@ -3,13 +3,25 @@ package project.services.impl;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import project.dto.ChangeEvent;
+import project.dto.KeysetPage;
+import project.dto.ProjectView;
+import project.enums.ChangeEventTypeEnum;
+import project.enums.ProjectStatusEnum;
+import project.enums.ResourceCollectionEnum;
+import project.enums.TaskStatusEnum;
 import project.model.Project;
 import project.repositories.ProjectRepository;
+import project.repositories.TaskRepository;
+import project.services.ChangeStampService;
 import project.services.ProjectService;
 
 import javax.persistence.EntityNotFoundException;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
@@ -21,12 +33,32 @@ public class ProjectServiceImpl implements ProjectService {
     @Autowired
     private ProjectRepository projectRepository;
 
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private CacheEvictor cacheEvictor;
+
+    @Autowired
+    private ProjectSummaryCounters projectSummaryCounters;
+
+    @Autowired
+    private ChangeStampService changeStampService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     @Override
+    @Transactional
     public Project createProject(Project project) {
         try {
-            LOGGER.info("Creating new project: {}", project);
-            // Salvataggio di un nuovo progetto nel DB
-            return projectRepository.save(project);
+            LOGGER.debug("Creating new project: {}", project);
+            // Salvataggio di un nuovo progetto nel DB, con il suo riepilogo a contatori vuoti
+            Project newProject = projectRepository.save(project);
+            projectSummaryCounters.projectCreated(newProject.getId());
+            changeStampService.markChanged(ResourceCollectionEnum.PROJECTS);
+            publish(ChangeEventTypeEnum.PROJECT_CREATED, newProject.getId(), Collections.emptyList());
+            return newProject;
         } catch (Exception e) {
             LOGGER.error("Error occurred while creating project: {}", e.getMessage());
             throw new RuntimeException("Error occurred while creating project", e);
@@ -34,11 +66,12 @@ public class ProjectServiceImpl implements ProjectService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Project> getAllProjects() {
         try {
-            LOGGER.info("Retrieving all projects");
+            LOGGER.debug("Retrieving all projects");
             List<Project> projects = projectRepository.findAll();
-            LOGGER.info("Found {} projects", projects.size());
+            LOGGER.debug("Found {} projects", projects.size());
             return projects;
         } catch (Exception e) {
             LOGGER.error("Error occurred while retrieving all projects: {}", e.getMessage());
@@ -47,12 +80,33 @@ public class ProjectServiceImpl implements ProjectService {
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public KeysetPage<Project> getProjectsPage(Long afterId, Integer size, ProjectStatusEnum status) {
+        try {
+            int pageSize = KeysetPage.resolvePageSize(size);
+            LOGGER.debug("Retrieving projects page after ID {} (size {})", afterId, pageSize);
+
+            // Si legge una riga in più per sapere se esiste la pagina successiva
+            long cursor = KeysetPage.resolveCursor(afterId);
+            PageRequest limit = PageRequest.ofSize(pageSize + 1);
+            List<Project> rows = status == null
+                    ? projectRepository.findPageAfter(cursor, limit)
+                    : projectRepository.findPageByStatusAfter(status, cursor, limit);
+            return KeysetPage.of(rows, pageSize, Project::getId);
+        } catch (Exception e) {
+            LOGGER.error("Error occurred while retrieving projects page: {}", e.getMessage());
+            throw new RuntimeException("Error occurred while retrieving projects page", e);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public Optional<Project> getProjectById(Long id) {
         try {
-            LOGGER.info("Retrieving project with ID: {}", id);
+            LOGGER.debug("Retrieving project with ID: {}", id);
             Optional<Project> project = projectRepository.findById(id);
             if (project.isPresent()) {
-                LOGGER.info("Project found: {}", project.get());
+                LOGGER.debug("Project found: {}", project.get());
             } else {
                 LOGGER.warn("Project with ID {} not found", id);
             }
@@ -63,9 +117,10 @@ public class ProjectServiceImpl implements ProjectService {
         }
     }
     @Override
-    public List<Project> getProjectsForEmployee(Long employeeId) {
+    @Transactional(readOnly = true)
+    public List<ProjectView> getProjectsForEmployee(Long employeeId) {
         try {
-            return projectRepository.findProjectsByEmployeeId(employeeId);
+            return projectRepository.findProjectViewsByEmployeeId(employeeId);
         } catch (Exception e) {
             LOGGER.error("Error fetching projects for employee {}: {}", employeeId, e.getMessage(), e);
             throw new RuntimeException("Error fetching projects for employee", e);
@@ -76,7 +131,7 @@ public class ProjectServiceImpl implements ProjectService {
     @Transactional
     public Project updateProject(Long id, Project updateData) {
         try {
-            LOGGER.info("Updating project with ID: {}", id);
+            LOGGER.debug("Updating project with ID: {}", id);
 
             Project existing = projectRepository.findById(id)
                     .orElseThrow(() -> new EntityNotFoundException("Project not found"));
@@ -97,8 +152,14 @@ public class ProjectServiceImpl implements ProjectService {
                 existing.setStatus(updateData.getStatus());
             }
 
+            Project updatedProject = projectRepository.save(existing);
+            // I dati del progetto sono in cache per ogni dipendente che vi lavora
+            List<Long> employeeIds = taskRepository.findEmployeeIdsByProjectId(id);
+            cacheEvictor.evictProjectsOfEmployees(employeeIds);
+            changeStampService.markChanged(ResourceCollectionEnum.PROJECTS);
+            publish(ChangeEventTypeEnum.PROJECT_UPDATED, id, employeeIds);
             LOGGER.info("Project with ID {} updated successfully", id);
-            return projectRepository.save(existing);
+            return updatedProject;
         } catch (Exception e) {
             LOGGER.error("Error updating project ID {}: {}", id, e.getMessage());
             throw new RuntimeException("Error updating project", e);
@@ -107,15 +168,21 @@ public class ProjectServiceImpl implements ProjectService {
 
 
     @Override
+    @Transactional
     public boolean deleteProject(Long id) {
         try {
-            LOGGER.info("Deleting project with ID: {}", id);
+            LOGGER.debug("Deleting project with ID: {}", id);
 
             Optional<Project> project = projectRepository.findById(id);
 
             if (project.isPresent()) {
 
+                List<Long> employeeIds = taskRepository.findEmployeeIdsByProjectId(id);
                 projectRepository.delete(project.get());
+                cacheEvictor.evictProjectsOfEmployees(employeeIds);
+                // I task del progetto vengono eliminati in cascata
+                changeStampService.markChanged(ResourceCollectionEnum.PROJECTS, ResourceCollectionEnum.TASKS);
+                publish(ChangeEventTypeEnum.PROJECT_DELETED, id, employeeIds);
                 LOGGER.info("Project with ID {} deleted successfully", id);
                 return true;
             } else {
@@ -131,4 +198,37 @@ public class ProjectServiceImpl implements ProjectService {
             throw new RuntimeException("Error occurred while deleting project", e);
         }
     }
+
+    @Override
+    @Transactional
+    public int completeProject(Long id) {
+        try {
+            LOGGER.debug("Completing project with ID: {}", id);
+
+            // Stato del progetto e di tutti i suoi task con due UPDATE set-based
+            if (projectRepository.updateStatus(id, ProjectStatusEnum.COMPLETED) == 0) {
+                throw new EntityNotFoundException("Project with ID " + id + " not found.");
+            }
+            int completedTasks = taskRepository.updateStatusByProjectId(id, null, TaskStatusEnum.COMPLETED, true);
+            projectSummaryCounters.recalculate(id);
+
+            List<Long> employeeIds = taskRepository.findEmployeeIdsByProjectId(id);
+            cacheEvictor.evictProjectsOfEmployees(employeeIds);
+            changeStampService.markChanged(ResourceCollectionEnum.PROJECTS, ResourceCollectionEnum.TASKS);
+            publish(ChangeEventTypeEnum.PROJECT_COMPLETED, id, employeeIds);
+            LOGGER.info("Project with ID {} completed together with {} tasks", id, completedTasks);
+            return completedTasks;
+        } catch (EntityNotFoundException e) {
+            LOGGER.error("Error occurred while completing project with ID {}: {}", id, e.getMessage());
+            throw e;
+        } catch (Exception e) {
+            LOGGER.error("Error occurred while completing project with ID {}: {}", id, e.getMessage());
+            throw new RuntimeException("Error occurred while completing project", e);
+        }
+    }
+
+    // Destinatari: chi segue il progetto e i dipendenti con task nel progetto
+    private void publish(ChangeEventTypeEnum type, Long projectId, List<Long> employeeIds) {
+        eventPublisher.publishEvent(ChangeEvent.of(type, projectId, Collections.singleton(projectId), employeeIds));
+    }
 }
@@ -0,0 +1,140 @@
+package project.services.impl;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import project.enums.TaskStatusEnum;
+import project.model.ProjectSummary;
+import project.model.Task;
+import project.repositories.ProjectSummaryRepository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Aggiornamento dei contatori di project_summary nella stessa transazione delle scritture sui task
+@Component
+public class ProjectSummaryCounters {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ProjectSummaryCounters.class);
+
+    @Autowired
+    private ProjectSummaryRepository projectSummaryRepository;
+
+    public void projectCreated(Long projectId) {
+        projectSummaryRepository.save(new ProjectSummary(projectId, LocalDate.now()));
+    }
+
+    public void taskCreated(Task task) {
+        LocalDate today = LocalDate.now();
+        long[] delta = new long[4];
+        add(delta, task.getStatus(), task.getDueDate(), 1, today);
+        apply(projectIdOf(task), delta, today);
+    }
+
+    public void taskDeleted(Task task) {
+        LocalDate today = LocalDate.now();
+        long[] delta = new long[4];
+        add(delta, task.getStatus(), task.getDueDate(), -1, today);
+        apply(projectIdOf(task), delta, today);
+    }
+
+    // Variazione di stato o scadenza di un task già esistente (il progetto non cambia)
+    public void taskChanged(TaskStatusEnum previousStatus, LocalDate previousDueDate, Task task) {
+        LocalDate today = LocalDate.now();
+        long[] delta = new long[4];
+        add(delta, previousStatus, previousDueDate, -1, today);
+        add(delta, task.getStatus(), task.getDueDate(), 1, today);
+        apply(projectIdOf(task), delta, today);
+    }
+
+    // Ricalcolo completo dei riepiloghi indicati a partire dai task; restituisce quanti erano disallineati
+    public int recalculate(Collection<Long> projectIds) {
+        List<Long> ids = projectIds.stream().filter(Objects::nonNull).distinct().collect(Collectors.toList());
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        LocalDate today = LocalDate.now();
+        Map<Long, ProjectSummary> summaries = projectSummaryRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(ProjectSummary::getProjectId, Function.identity()));
+        Map<Long, long[]> counts = ids.stream().collect(Collectors.toMap(Function.identity(), id -> new long[4]));
+
+        for (Object[] row : projectSummaryRepository.countTasksByProjectAndStatus(ids, today)) {
+            long[] projectCounts = counts.get((Long) row[0]);
+            projectCounts[statusIndex((TaskStatusEnum) row[1])] += ((Number) row[2]).longValue();
+            projectCounts[3] += ((Number) row[3]).longValue();
+        }
+
+        int drifted = 0;
+        for (Long id : ids) {
+            long[] actual = counts.get(id);
+            ProjectSummary summary = summaries.get(id);
+            if (summary == null) {
+                summary = new ProjectSummary(id, today);
+                drifted++;
+            } else if (summary.getToDoCount() != actual[0] || summary.getInProgressCount() != actual[1]
+                    || summary.getCompletedCount() != actual[2] || summary.getOverdueCount() != actual[3]) {
+                LOGGER.debug("Project summary {} drifted, recalculating", id);
+                drifted++;
+            }
+            summary.setToDoCount(actual[0]);
+            summary.setInProgressCount(actual[1]);
+            summary.setCompletedCount(actual[2]);
+            summary.setOverdueCount(actual[3]);
+            summary.setOverdueAsOf(today);
+            projectSummaryRepository.save(summary);
+        }
+        return drifted;
+    }
+
+    public int recalculate(Long projectId) {
+        return recalculate(Collections.singletonList(projectId));
+    }
+
+    // I delta degli scaduti sono calcolati rispetto a oggi: si applicano solo a un riepilogo il cui overdueCount vale per oggi
+    private void apply(Long projectId, long[] delta, LocalDate today) {
+        if (projectId == null || (delta[0] == 0 && delta[1] == 0 && delta[2] == 0 && delta[3] == 0)) {
+            return;
+        }
+        // Riepilogo assente (progetto creato prima dei contatori) o con scaduti contati in un giorno precedente
+        // (task scaduti nel frattempo): si ricostruisce dai task, modifica in corso compresa
+        if (projectSummaryRepository.addToCounters(projectId, delta[0], delta[1], delta[2], delta[3], today) == 0) {
+            recalculate(projectId);
+        }
+    }
+
+    private static void add(long[] delta, TaskStatusEnum status, LocalDate dueDate, int sign, LocalDate today) {
+        if (status == null) {
+            return;
+        }
+        delta[statusIndex(status)] += sign;
+        if (isOverdue(status, dueDate, today)) {
+            delta[3] += sign;
+        }
+    }
+
+    private static boolean isOverdue(TaskStatusEnum status, LocalDate dueDate, LocalDate today) {
+        return status != TaskStatusEnum.COMPLETED && dueDate != null && dueDate.isBefore(today);
+    }
+
+    private static int statusIndex(TaskStatusEnum status) {
+        switch (status) {
+            case TO_DO:
+                return 0;
+            case IN_PROGRESS:
+                return 1;
+            default:
+                return 2;
+        }
+    }
+
+    private static Long projectIdOf(Task task) {
+        return task.getProject() != null ? task.getProject().getId() : null;
+    }
+}
@@ -0,0 +1,82 @@
+package project.services.impl;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import project.dto.ProjectSummaryView;
+import project.repositories.ProjectRepository;
+import project.repositories.ProjectSummaryRepository;
+import project.enums.ResourceCollectionEnum;
+import project.services.ChangeStampService;
+import project.services.ProjectSummaryService;
+
+import java.util.List;
+
+@Service
+public class ProjectSummaryServiceImpl implements ProjectSummaryService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ProjectSummaryServiceImpl.class);
+
+    // Progetti riallineati per transazione: i lock sulle righe di riepilogo durano poco
+    private static final int RECONCILE_CHUNK_SIZE = 200;
+
+    @Autowired
+    private ProjectSummaryRepository projectSummaryRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private ProjectSummaryCounters projectSummaryCounters;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ChangeStampService changeStampService;
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ProjectSummaryView> getProjectSummaries(List<Long> projectIds) {
+        try {
+            LOGGER.debug("Retrieving project summaries");
+            // Una riga per progetto già aggregata: il costo non dipende dal numero di task
+            return projectIds == null || projectIds.isEmpty()
+                    ? projectSummaryRepository.findAllViews()
+                    : projectSummaryRepository.findViewsByProjectIds(projectIds);
+        } catch (Exception e) {
+            LOGGER.error("Error occurred while retrieving project summaries: {}", e.getMessage());
+            throw new RuntimeException("Error retrieving project summaries", e);
+        }
+    }
+
+    // Riallineamento periodico dei contatori (derive da scritture esterne e task diventati scaduti)
+    @Override
+    @Scheduled(cron = "${project-summary.reconcile-cron:0 5 * * * *}")
+    public int reconcileProjectSummaries() {
+        try {
+            LOGGER.info("Reconciling project summaries");
+            TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+            List<Long> projectIds = projectRepository.findAllIds();
+            int drifted = 0;
+            for (int from = 0; from < projectIds.size(); from += RECONCILE_CHUNK_SIZE) {
+                List<Long> chunk = projectIds.subList(from, Math.min(from + RECONCILE_CHUNK_SIZE, projectIds.size()));
+                Integer repaired = transactionTemplate.execute(status -> projectSummaryCounters.recalculate(chunk));
+                drifted += repaired != null ? repaired : 0;
+            }
+            if (drifted > 0) {
+                changeStampService.markChanged(ResourceCollectionEnum.PROJECT_SUMMARIES);
+            }
+            LOGGER.info("Reconciled {} project summaries, {} were out of date", projectIds.size(), drifted);
+            return drifted;
+        } catch (Exception e) {
+            LOGGER.error("Error occurred while reconciling project summaries: {}", e.getMessage());
+            throw new RuntimeException("Error reconciling project summaries", e);
+        }
+    }
+}
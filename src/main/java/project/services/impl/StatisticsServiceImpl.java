@@ -0,0 +1,92 @@
+package project.services.impl;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import project.dto.CacheStatistics;
+import project.dto.ConnectionPoolStatistics;
+import project.services.StatisticsService;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@Service
+public class StatisticsServiceImpl implements StatisticsService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(StatisticsServiceImpl.class);
+
+    // MBean standard JCache registrati per ogni cache con monitoring.statistics attivo
+    private static final String CACHE_STATISTICS_PATTERN = "javax.cache:type=CacheStatistics,*";
+
+    // Metriche registrate da Hikari per ogni pool (tag pool) tramite il tracker Micrometer collegato da Spring Boot
+    private static final String POOL_METRICS_PREFIX = "hikaricp.connections";
+    private static final double REPORTED_PERCENTILE = 0.99;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Override
+    public List<CacheStatistics> getCacheStatistics() {
+        try {
+            MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+            List<CacheStatistics> statistics = new ArrayList<>();
+            for (ObjectName name : mBeanServer.queryNames(new ObjectName(CACHE_STATISTICS_PATTERN), null)) {
+                statistics.add(new CacheStatistics(
+                        name.getKeyProperty("Cache"),
+                        (Long) mBeanServer.getAttribute(name, "CacheHits"),
+                        (Long) mBeanServer.getAttribute(name, "CacheMisses"),
+                        (Long) mBeanServer.getAttribute(name, "CacheEvictions")));
+            }
+            statistics.sort(Comparator.comparing(CacheStatistics::getName));
+            return statistics;
+        } catch (Exception e) {
+            LOGGER.error("Error occurred while reading cache statistics: {}", e.getMessage());
+            throw new RuntimeException("Error reading cache statistics", e);
+        }
+    }
+
+    @Override
+    public List<ConnectionPoolStatistics> getConnectionPoolStatistics() {
+        List<ConnectionPoolStatistics> statistics = new ArrayList<>();
+        for (Gauge max : meterRegistry.find(POOL_METRICS_PREFIX + ".max").gauges()) {
+            String pool = max.getId().getTag("pool");
+            Timer acquire = meterRegistry.get(POOL_METRICS_PREFIX + ".acquire").tag("pool", pool).timer();
+            Timer usage = meterRegistry.get(POOL_METRICS_PREFIX + ".usage").tag("pool", pool).timer();
+            statistics.add(new ConnectionPoolStatistics(pool,
+                    (int) poolGauge("active", pool), (int) poolGauge("idle", pool), (int) poolGauge("pending", pool),
+                    (int) meterRegistry.get(POOL_METRICS_PREFIX).tag("pool", pool).gauge().value(),
+                    (int) poolGauge("min", pool), (int) max.value(),
+                    acquire.count(), acquire.mean(TimeUnit.MILLISECONDS), percentileMillis(acquire), acquire.max(TimeUnit.MILLISECONDS),
+                    usage.count(), usage.mean(TimeUnit.MILLISECONDS), percentileMillis(usage), usage.max(TimeUnit.MILLISECONDS),
+                    meterRegistry.get(POOL_METRICS_PREFIX + ".creation").tag("pool", pool).timer().count(),
+                    (long) meterRegistry.get(POOL_METRICS_PREFIX + ".timeout").tag("pool", pool).counter().count()));
+        }
+        statistics.sort(Comparator.comparing(ConnectionPoolStatistics::getPoolName));
+        return statistics;
+    }
+
+    private double poolGauge(String name, String pool) {
+        return meterRegistry.get(POOL_METRICS_PREFIX + "." + name).tag("pool", pool).gauge().value();
+    }
+
+    // p99 configurato con management.metrics.distribution.percentiles.hikaricp.connections.*, 0 se non configurato.
+    // La stima dell'istogramma è per eccesso: non supera il massimo registrato
+    private static double percentileMillis(Timer timer) {
+        for (ValueAtPercentile value : timer.takeSnapshot().percentileValues()) {
+            if (value.percentile() == REPORTED_PERCENTILE) {
+                return Math.min(value.value(TimeUnit.MILLISECONDS), timer.max(TimeUnit.MILLISECONDS));
+            }
+        }
+        return 0.0;
+    }
+}
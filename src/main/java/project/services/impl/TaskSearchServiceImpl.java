@@ -0,0 +1,431 @@
+package project.services.impl;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.TopFieldCollector;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import project.dto.ChangeEvent;
+import project.dto.TaskSearchPage;
+import project.dto.TaskView;
+import project.enums.ChangeEventTypeEnum;
+import project.enums.TaskStatusEnum;
+import project.model.Task;
+import project.repositories.TaskRepository;
+import project.services.TaskSearchService;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Ricerca full-text sui task con un indice Lucene in memoria: un documento per task, con nome e descrizione del progetto.
+// L'indice si ricostruisce dal database all'avvio, in background, e resta allineato con le modifiche pubblicate dai service:
+// dopo il commit gli id coinvolti vengono accodati e un solo thread rilegge dal database i task correnti e aggiorna l'indice
+// (near-real-time: visibili alla ricerca dopo il refresh che segue ogni aggiornamento).
+// Come le cache presuppone una sola istanza dell'applicazione
+@Service
+public class TaskSearchServiceImpl implements TaskSearchService, DisposableBean {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TaskSearchServiceImpl.class);
+
+    // Campi dell'indice
+    static final String ID = "id";
+    static final String STATUS = "status";
+    static final String PROJECT_ID = "projectId";
+    static final String EMPLOYEE_ID = "employeeId";
+    static final String TITLE = "title";
+    static final String DESCRIPTION = "description";
+    static final String PROJECT_NAME = "projectName";
+    static final String PROJECT_DESCRIPTION = "projectDescription";
+
+    // Peso dei campi nel punteggio: il titolo del task conta più del nome del progetto, le descrizioni meno
+    private static final Map<String, Float> FIELD_BOOSTS = Map.of(
+            TITLE, 4f, PROJECT_NAME, 2f, DESCRIPTION, 1f, PROJECT_DESCRIPTION, 0.5f);
+
+    // L'ultima parola vale anche come prefisso (ricerca durante la digitazione), con un peso minore della parola intera
+    private static final float PREFIX_WEIGHT = 0.5f;
+    private static final int MIN_PREFIX_LENGTH = 2;
+    private static final int MAX_QUERY_TERMS = 32;
+
+    // Rilevanza, a parità di punteggio l'id: l'ordine delle pagine è stabile
+    private static final Sort RELEVANCE = new Sort(SortField.FIELD_SCORE, new SortField(ID, SortField.Type.LONG));
+
+    private static final Set<ChangeEventTypeEnum> TASK_CHANGES = EnumSet.of(
+            ChangeEventTypeEnum.TASK_CREATED, ChangeEventTypeEnum.TASK_UPDATED, ChangeEventTypeEnum.TASK_DELETED);
+
+    private static final int REBUILD_BATCH_SIZE = 500;
+
+    private final TaskRepository taskRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean rebuildOnStartup;
+    private final int maxResults;
+
+    private final Analyzer analyzer = new StandardAnalyzer();
+    private final IndexWriter indexWriter;
+    private final SearcherManager searcherManager;
+
+    // Un solo thread per ricostruzione e aggiornamenti: l'indice riceve le modifiche nell'ordine in cui sono state lette
+    private final ThreadPoolTaskExecutor indexExecutor;
+
+    // Id in attesa di reindicizzazione: più modifiche ravvicinate diventano un solo aggiornamento
+    private final Set<Long> pendingTaskIds = ConcurrentHashMap.newKeySet();
+    private final Set<Long> pendingProjectIds = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean updateScheduled = new AtomicBoolean();
+
+    private volatile boolean rebuildRequested;
+    private volatile boolean ready;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public TaskSearchServiceImpl(TaskRepository taskRepository,
+                                 PlatformTransactionManager transactionManager,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${search.rebuild-on-startup:true}") boolean rebuildOnStartup,
+                                 @Value("${search.max-results:1000}") int maxResults) {
+        this.taskRepository = taskRepository;
+        this.rebuildOnStartup = rebuildOnStartup;
+        this.maxResults = maxResults;
+
+        // Transazione non readOnly, quindi sul primario: una replica in ritardo reindicizzerebbe lo stato precedente alla modifica
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+
+        try {
+            this.indexWriter = new IndexWriter(new ByteBuffersDirectory(), new IndexWriterConfig(analyzer));
+            this.searcherManager = new SearcherManager(indexWriter, null);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create the search index", e);
+        }
+
+        this.indexExecutor = new ThreadPoolTaskExecutor();
+        this.indexExecutor.setCorePoolSize(1);
+        this.indexExecutor.setMaxPoolSize(1);
+        this.indexExecutor.setThreadNamePrefix("search-index-");
+        this.indexExecutor.initialize();
+
+        Gauge.builder("search.index.documents", indexWriter, writer -> writer.getDocStats().numDocs)
+                .description("Tasks in the full-text search index")
+                .register(meterRegistry);
+    }
+
+    // Ricostruzione in background: l'applicazione accetta richieste subito, la ricerca risponde quando l'indice è pronto
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIndexOnStartup() {
+        if (rebuildOnStartup) {
+            rebuildRequested = true;
+            indexExecutor.execute(() -> {
+                try {
+                    rebuild();
+                } catch (Exception e) {
+                    LOGGER.error("Error occurred while building the search index: {}", e.getMessage());
+                }
+            });
+        }
+    }
+
+    @Override
+    public int rebuildIndex() {
+        try {
+            rebuildRequested = true;
+            return indexExecutor.submit(this::rebuild).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while rebuilding the search index", e);
+        } catch (ExecutionException e) {
+            LOGGER.error("Error occurred while rebuilding the search index: {}", e.getCause().getMessage());
+            throw new RuntimeException("Error rebuilding the search index", e.getCause());
+        }
+    }
+
+    @Override
+    public boolean isIndexReady() {
+        return ready;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public TaskSearchPage searchTasks(String text, TaskStatusEnum status, Long projectId, Long employeeId, Integer pageNumber, Integer pageSize) {
+        if (!ready) {
+            throw new IllegalStateException("Search index is still being built");
+        }
+        int page = TaskSearchPage.resolvePage(pageNumber);
+        int size = TaskSearchPage.resolvePageSize(pageSize);
+        if ((long) (page + 1) * size > maxResults) {
+            throw new IllegalArgumentException("Search results are limited to the first " + maxResults);
+        }
+        try {
+            LOGGER.debug("Searching tasks for '{}' (status {}, project {}, employee {}, page {})", text, status, projectId, employeeId, page);
+            Query query = buildQuery(text, status, projectId, employeeId);
+
+            List<Long> ids = new ArrayList<>();
+            long total;
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                TopFieldCollector collector = TopFieldCollector.create(RELEVANCE, (page + 1) * size, Integer.MAX_VALUE);
+                searcher.search(query, collector);
+                total = collector.getTotalHits();
+                TopDocs top = collector.topDocs(page * size, size);
+                for (ScoreDoc hit : top.scoreDocs) {
+                    ids.add(Long.valueOf(searcher.doc(hit.doc, Collections.singleton(ID)).get(ID)));
+                }
+            } finally {
+                searcherManager.release(searcher);
+            }
+
+            // Dati dei task dal database, nell'ordine di rilevanza: l'indice contiene solo i campi per la ricerca.
+            // Un task eliminato e non ancora tolto dall'indice semplicemente non compare
+            List<TaskView> items = new ArrayList<>();
+            if (!ids.isEmpty()) {
+                Map<Long, TaskView> views = taskRepository.findViewsByIds(ids).stream()
+                        .collect(Collectors.toMap(TaskView::getId, Function.identity()));
+                for (Long id : ids) {
+                    TaskView view = views.get(id);
+                    if (view != null) {
+                        items.add(view);
+                    }
+                }
+            }
+            return new TaskSearchPage(items, total, page, size);
+        } catch (IllegalArgumentException e) {
+            throw e;
+        } catch (Exception e) {
+            LOGGER.error("Error occurred while searching tasks: {}", e.getMessage());
+            throw new RuntimeException("Error searching tasks", e);
+        }
+    }
+
+    // Dopo il commit della transazione che ha pubblicato l'evento (un rollback non cambia l'indice).
+    // Finché non è stata chiesta una ricostruzione le modifiche si ignorano: la ricostruzione leggerà comunque lo stato attuale
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChange(ChangeEvent change) {
+        if (!rebuildRequested) {
+            return;
+        }
+        if (TASK_CHANGES.contains(change.getType())) {
+            pendingTaskIds.add(change.getEntityId());
+        } else {
+            // Progetti modificati o eliminati, task modificati in blocco, task eliminati con il loro dipendente:
+            // si reindicizzano tutti i task dei progetti coinvolti
+            pendingProjectIds.addAll(change.getProjectIds());
+        }
+        if (!pendingTaskIds.isEmpty() || !pendingProjectIds.isEmpty()) {
+            scheduleUpdate();
+        }
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        indexExecutor.shutdown();
+        searcherManager.close();
+        indexWriter.close();
+    }
+
+    private void scheduleUpdate() {
+        if (updateScheduled.compareAndSet(false, true)) {
+            indexExecutor.execute(this::applyPendingChanges);
+        }
+    }
+
+    // Ogni id viene riletto dal database: l'indice riflette lo stato attuale qualunque sia l'ordine delle modifiche
+    private void applyPendingChanges() {
+        updateScheduled.set(false);
+        List<Long> taskIds = takeAll(pendingTaskIds);
+        List<Long> projectIds = takeAll(pendingProjectIds);
+        if (taskIds.isEmpty() && projectIds.isEmpty()) {
+            return;
+        }
+        try {
+            Map<Long, Document> documents = transactionTemplate.execute(status -> {
+                Map<Long, Document> loaded = new LinkedHashMap<>();
+                if (!projectIds.isEmpty()) {
+                    taskRepository.findByProjectIdIn(projectIds).forEach(task -> loaded.put(task.getId(), toDocument(task)));
+                }
+                if (!taskIds.isEmpty()) {
+                    taskRepository.findByIdIn(taskIds).forEach(task -> loaded.put(task.getId(), toDocument(task)));
+                }
+                return loaded;
+            });
+
+            for (Long projectId : projectIds) {
+                indexWriter.deleteDocuments(new Term(PROJECT_ID, projectId.toString()));
+            }
+            for (Long taskId : taskIds) {
+                if (!documents.containsKey(taskId)) {
+                    indexWriter.deleteDocuments(new Term(ID, taskId.toString()));
+                }
+            }
+            for (Map.Entry<Long, Document> document : documents.entrySet()) {
+                indexWriter.updateDocument(new Term(ID, document.getKey().toString()), document.getValue());
+            }
+            searcherManager.maybeRefreshBlocking();
+            LOGGER.debug("Search index updated: {} tasks and {} projects reindexed", taskIds.size(), projectIds.size());
+        } catch (Exception e) {
+            // L'indice resta indietro su questi task fino alla loro prossima modifica o alla prossima ricostruzione
+            LOGGER.error("Error occurred while updating the search index for tasks {} and projects {}: {}",
+                    taskIds, projectIds, e.getMessage());
+        }
+    }
+
+    // Indice nuovo a partire dai task nel database, letti in streaming; le ricerche vedono l'indice precedente fino al refresh
+    private int rebuild() throws IOException {
+        long start = System.currentTimeMillis();
+        indexWriter.deleteAll();
+        Integer indexed = transactionTemplate.execute(status -> {
+            int count = 0;
+            try (Stream<Task> tasks = taskRepository.streamAllForExport()) {
+                Iterator<Task> iterator = tasks.iterator();
+                while (iterator.hasNext()) {
+                    indexWriter.addDocument(toDocument(iterator.next()));
+                    if (++count % REBUILD_BATCH_SIZE == 0) {
+                        entityManager.clear();
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return count;
+        });
+        searcherManager.maybeRefreshBlocking();
+        ready = true;
+        LOGGER.info("Search index built with {} tasks in {} ms", indexed, System.currentTimeMillis() - start);
+        return indexed != null ? indexed : 0;
+    }
+
+    private Document toDocument(Task task) {
+        Document document = new Document();
+        document.add(new StringField(ID, task.getId().toString(), Field.Store.YES));
+        document.add(new NumericDocValuesField(ID, task.getId()));
+        if (task.getStatus() != null) {
+            document.add(new StringField(STATUS, task.getStatus().name(), Field.Store.NO));
+        }
+        if (task.getEmployee() != null) {
+            document.add(new StringField(EMPLOYEE_ID, task.getEmployee().getId().toString(), Field.Store.NO));
+        }
+        addText(document, TITLE, task.getTitle());
+        addText(document, DESCRIPTION, task.getDescription());
+        if (task.getProject() != null) {
+            document.add(new StringField(PROJECT_ID, task.getProject().getId().toString(), Field.Store.NO));
+            addText(document, PROJECT_NAME, task.getProject().getName());
+            addText(document, PROJECT_DESCRIPTION, task.getProject().getDescription());
+        }
+        return document;
+    }
+
+    private static void addText(Document document, String field, String value) {
+        if (value != null && !value.isBlank()) {
+            document.add(new TextField(field, value, Field.Store.NO));
+        }
+    }
+
+    // Ogni parola deve comparire in almeno un campo di testo; stato, progetto e dipendente filtrano senza contare nel punteggio
+    private Query buildQuery(String text, TaskStatusEnum status, Long projectId, Long employeeId) throws IOException {
+        List<String> terms = analyze(text);
+        if (terms.isEmpty()) {
+            throw new IllegalArgumentException("Search text contains no searchable words");
+        }
+        if (terms.size() > MAX_QUERY_TERMS) {
+            throw new IllegalArgumentException("Search text is limited to " + MAX_QUERY_TERMS + " words");
+        }
+
+        BooleanQuery.Builder query = new BooleanQuery.Builder();
+        for (int i = 0; i < terms.size(); i++) {
+            String term = terms.get(i);
+            boolean prefix = i == terms.size() - 1 && term.length() >= MIN_PREFIX_LENGTH;
+            BooleanQuery.Builder anyField = new BooleanQuery.Builder();
+            FIELD_BOOSTS.forEach((field, boost) -> {
+                anyField.add(new BoostQuery(new TermQuery(new Term(field, term)), boost), BooleanClause.Occur.SHOULD);
+                if (prefix) {
+                    anyField.add(new BoostQuery(new PrefixQuery(new Term(field, term)), boost * PREFIX_WEIGHT), BooleanClause.Occur.SHOULD);
+                }
+            });
+            query.add(anyField.build(), BooleanClause.Occur.MUST);
+        }
+        if (status != null) {
+            query.add(new TermQuery(new Term(STATUS, status.name())), BooleanClause.Occur.FILTER);
+        }
+        if (projectId != null) {
+            query.add(new TermQuery(new Term(PROJECT_ID, projectId.toString())), BooleanClause.Occur.FILTER);
+        }
+        if (employeeId != null) {
+            query.add(new TermQuery(new Term(EMPLOYEE_ID, employeeId.toString())), BooleanClause.Occur.FILTER);
+        }
+        return query.build();
+    }
+
+    // Stessa analisi del testo indicizzato (tokenizzazione e minuscole)
+    private List<String> analyze(String text) throws IOException {
+        List<String> terms = new ArrayList<>();
+        if (text == null) {
+            return terms;
+        }
+        try (TokenStream tokens = analyzer.tokenStream(TITLE, text)) {
+            CharTermAttribute term = tokens.addAttribute(CharTermAttribute.class);
+            tokens.reset();
+            while (tokens.incrementToken()) {
+                terms.add(term.toString());
+            }
+            tokens.end();
+        }
+        return terms;
+    }
+
+    private static List<Long> takeAll(Set<Long> pending) {
+        List<Long> taken = new ArrayList<>();
+        for (Long id : pending) {
+            if (pending.remove(id)) {
+                taken.add(id);
+            }
+        }
+        return taken;
+    }
+}
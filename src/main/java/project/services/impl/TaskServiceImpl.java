@@ -1,37 +1,112 @@
 package project.services.impl;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import project.dto.ChangeEvent;
+import project.dto.KeysetPage;
+import project.dto.TaskBulkItemResult;
+import project.dto.TaskBulkRequest;
+import project.dto.TaskBulkResult;
+import project.dto.TaskFilter;
+import project.dto.TaskView;
+import project.enums.BulkOperationEnum;
+import project.enums.ChangeEventTypeEnum;
+import project.enums.ResourceCollectionEnum;
 import project.enums.TaskStatusEnum;
+import project.model.Employee;
+import project.model.Project;
 import project.model.Task;
+import project.repositories.EmployeeRepository;
+import project.repositories.ProjectRepository;
 import project.repositories.TaskRepository;
+import project.services.ChangeStampService;
 import project.services.TaskService;
+import javax.persistence.EntityManager;
 import javax.persistence.EntityNotFoundException;
+import javax.persistence.PersistenceContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class TaskServiceImpl implements TaskService {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(TaskServiceImpl.class);
 
+    // Ogni quante righe esportate si svuota il contesto di persistenza e si fa flush verso il client
+    private static final int EXPORT_BATCH_SIZE = 500;
+
+    // Limite di operazioni per richiesta bulk e ogni quanti INSERT si svuota il contesto di persistenza
+    private static final int MAX_BULK_OPERATIONS = 5000;
+    private static final int BULK_FLUSH_SIZE = 50;
+
     @Autowired
     private TaskRepository taskRepository;
 
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CacheEvictor cacheEvictor;
+
+    @Autowired
+    private ProjectSummaryCounters projectSummaryCounters;
+
+    @Autowired
+    private ChangeStampService changeStampService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
     @Override
+    @Transactional
     public Task createTask(Task task) {
         try {
-            if (task.getStatus() == null) {
-                task.setStatus(TaskStatusEnum.TO_DO);
-            }
-            task.setCompleted(false);
+            // Progetto e dipendente arrivano dal client con il solo id: con @Version Hibernate li tratterebbe come nuovi
+            Long projectId = task.getProject() != null ? task.getProject().getId() : null;
+            Long employeeId = task.getEmployee() != null ? task.getEmployee().getId() : null;
+            task.setProject(projectId != null ? projectRepository.getReferenceById(projectId) : null);
+            task.setEmployee(employeeId != null ? employeeRepository.getReferenceById(employeeId) : null);
+            prepareNewTask(task);
 
-            LOGGER.info("Creating new task: {}", task);
-            return taskRepository.save(task);
+            LOGGER.debug("Creating new task: {}", task);
+            Task newTask = taskRepository.save(task);
+            projectSummaryCounters.taskCreated(newTask);
+            // Il dipendente assegnato può avere un nuovo progetto
+            cacheEvictor.evictProjectsOfEmployee(employeeIdOf(newTask));
+            changeStampService.markChanged(ResourceCollectionEnum.TASKS);
+            eventPublisher.publishEvent(ChangeEvent.task(ChangeEventTypeEnum.TASK_CREATED,
+                    newTask.getId(), projectIdOf(newTask), employeeIdOf(newTask)));
+            return newTask;
         } catch (Exception e) {
             LOGGER.error("Error occurred while creating task: {}", e.getMessage());
             throw new RuntimeException("Failed to create task", e);
@@ -40,9 +115,10 @@ public class TaskServiceImpl implements TaskService {
 
 
     @Override
+    @Transactional(readOnly = true)
     public List<Task> getAllTasks() {
         try {
-            LOGGER.info("Retrieving all tasks");
+            LOGGER.debug("Retrieving all tasks");
             return taskRepository.findAll();
         } catch (Exception e) {
             LOGGER.error("Error occurred while retrieving all tasks: {}", e.getMessage());
@@ -51,14 +127,92 @@ public class TaskServiceImpl implements TaskService {
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public KeysetPage<Task> getTasksPage(Long afterId, Integer size, TaskFilter filter) {
+        try {
+            int pageSize = KeysetPage.resolvePageSize(size);
+            TaskFilter criteria = filter != null ? filter : new TaskFilter();
+            LOGGER.debug("Retrieving tasks page after ID {} (size {})", afterId, pageSize);
+
+            // Si legge una riga in più per sapere se esiste la pagina successiva
+            List<Task> rows = taskRepository.findPageAfter(KeysetPage.resolveCursor(afterId), criteria, pageSize + 1);
+            return KeysetPage.of(rows, pageSize, Task::getId);
+        } catch (Exception e) {
+            LOGGER.error("Error occurred while retrieving tasks page: {}", e.getMessage());
+            throw new RuntimeException("Failed to retrieve tasks page", e);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public List<Task> getTasksByEmployeeId(Long employeeId) {
         return taskRepository.findByEmployeeId(employeeId);
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public List<TaskView> getAllTaskViews() {
+        try {
+            LOGGER.debug("Retrieving all task views");
+            return taskRepository.findAllViews();
+        } catch (Exception e) {
+            LOGGER.error("Error occurred while retrieving all task views: {}", e.getMessage());
+            throw new RuntimeException("Failed to retrieve task views", e);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<TaskView> getTaskViewsByEmployeeId(Long employeeId) {
+        try {
+            LOGGER.debug("Retrieving task views for employee ID: {}", employeeId);
+            return taskRepository.findViewsByEmployeeId(employeeId);
+        } catch (Exception e) {
+            LOGGER.error("Error occurred while retrieving task views for employee {}: {}", employeeId, e.getMessage());
+            throw new RuntimeException("Failed to retrieve task views", e);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long exportTasks(OutputStream outputStream) {
+        LOGGER.debug("Exporting all tasks as NDJSON");
+        // Flush solo ogni EXPORT_BATCH_SIZE righe: con FLUSH_AFTER_WRITE_VALUE (attivo di default) ogni riga
+        // diventerebbe un chunk HTTP a sé (e un flush del gzip)
+        ObjectWriter writer = objectMapper.writerFor(Task.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        long exported = 0;
+
+        // Un task per riga (NDJSON): lo stream di output resta di proprietà del chiamante.
+        // Niente separatore tra valori radice (di default uno spazio): le righe iniziano con il JSON del task
+        try (Stream<Task> tasks = taskRepository.streamAllForExport();
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)
+                     .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                     .setRootValueSeparator(null)) {
+            Iterator<Task> iterator = tasks.iterator();
+            while (iterator.hasNext()) {
+                writer.writeValue(generator, iterator.next());
+                generator.writeRaw('\n');
+                exported++;
+
+                if (exported % EXPORT_BATCH_SIZE == 0) {
+                    generator.flush();
+                    entityManager.clear();
+                }
+            }
+            generator.flush();
+            LOGGER.info("Exported {} tasks", exported);
+            return exported;
+        } catch (Exception e) {
+            LOGGER.error("Error occurred while exporting tasks after {} rows: {}", exported, e.getMessage());
+            throw new RuntimeException("Failed to export tasks", e);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public Optional<Task> getTaskById(Long id) {
         try {
-            LOGGER.info("Retrieving task with ID: {}", id);
+            LOGGER.debug("Retrieving task with ID: {}", id);
             Optional<Task> task = taskRepository.findById(id);
             if (!task.isPresent()) {
                 LOGGER.warn("Task with ID {} not found", id);
@@ -78,23 +232,18 @@ public class TaskServiceImpl implements TaskService {
     @Transactional
     public Task updateTask(Long id, Task updateData) {
         try {
-            LOGGER.info("Updating task with ID: {}", id);
+            LOGGER.debug("Updating task with ID: {}", id);
 
             Task existing = taskRepository.findById(id)
                     .orElseThrow(() -> new EntityNotFoundException("Task not found"));
+            TaskStatusEnum previousStatus = existing.getStatus();
+            LocalDate previousDueDate = existing.getDueDate();
 
-            if (updateData.getTitle() != null) {
-                existing.setTitle(updateData.getTitle());
-            }
-            if (updateData.getDescription() != null) {
-                existing.setDescription(updateData.getDescription());
-            }
-            if (updateData.getDueDate() != null) {
-                existing.setDueDate(updateData.getDueDate());
-            }
-            if (updateData.getStatus() != null) {
-                existing.setStatus(updateData.getStatus());
-            }
+            applyUpdate(existing, updateData);
+            projectSummaryCounters.taskChanged(previousStatus, previousDueDate, existing);
+            changeStampService.markChanged(ResourceCollectionEnum.TASKS);
+            eventPublisher.publishEvent(ChangeEvent.task(ChangeEventTypeEnum.TASK_UPDATED,
+                    id, projectIdOf(existing), employeeIdOf(existing)));
 
             LOGGER.info("Task with ID {} updated successfully", id);
             return taskRepository.save(existing);
@@ -106,14 +255,21 @@ public class TaskServiceImpl implements TaskService {
 
 
     @Override
+    @Transactional
     public boolean deleteTask(Long id) {
         try {
-            if (!taskRepository.existsById(id)) {
+            Task task = taskRepository.findById(id).orElse(null);
+            if (task == null) {
                 LOGGER.warn("Task with ID {} not found for deletion", id);
                 throw new EntityNotFoundException("Task with ID " + id + " not found");
             }
-            LOGGER.info("Deleting task with ID: {}", id);
-            taskRepository.deleteById(id);
+            LOGGER.debug("Deleting task with ID: {}", id);
+            taskRepository.delete(task);
+            projectSummaryCounters.taskDeleted(task);
+            cacheEvictor.evictProjectsOfEmployee(employeeIdOf(task));
+            changeStampService.markChanged(ResourceCollectionEnum.TASKS);
+            eventPublisher.publishEvent(ChangeEvent.task(ChangeEventTypeEnum.TASK_DELETED,
+                    id, projectIdOf(task), employeeIdOf(task)));
             return true;
         } catch (EntityNotFoundException e) {
             LOGGER.error("Error occurred while deleting task with ID {}: {}", id, e.getMessage());
@@ -123,4 +279,208 @@ public class TaskServiceImpl implements TaskService {
             throw new RuntimeException("Failed to delete task", e);
         }
     }
+
+    @Override
+    @Transactional
+    public int updateTasksStatusByProject(Long projectId, TaskStatusEnum fromStatus, TaskStatusEnum toStatus) {
+        if (toStatus == null) {
+            throw new IllegalArgumentException("Target status is required");
+        }
+        try {
+            LOGGER.debug("Moving tasks of project {} from status {} to {}", projectId, fromStatus, toStatus);
+            if (!projectRepository.existsById(projectId)) {
+                throw new EntityNotFoundException("Project with ID " + projectId + " not found");
+            }
+
+            // Un solo UPDATE per tutti i task del progetto, senza caricarli
+            int updated = taskRepository.updateStatusByProjectId(projectId, fromStatus, toStatus,
+                    toStatus == TaskStatusEnum.COMPLETED);
+            projectSummaryCounters.recalculate(projectId);
+            changeStampService.markChanged(ResourceCollectionEnum.TASKS);
+            if (updated > 0) {
+                eventPublisher.publishEvent(ChangeEvent.of(ChangeEventTypeEnum.TASKS_CHANGED, null,
+                        Collections.singleton(projectId), taskRepository.findEmployeeIdsByProjectId(projectId)));
+            }
+            LOGGER.info("Updated status of {} tasks of project {}", updated, projectId);
+            return updated;
+        } catch (EntityNotFoundException e) {
+            LOGGER.error("Error occurred while updating tasks of project {}: {}", projectId, e.getMessage());
+            throw e;
+        } catch (Exception e) {
+            LOGGER.error("Error occurred while updating tasks of project {}: {}", projectId, e.getMessage());
+            throw new RuntimeException("Failed to update tasks status", e);
+        }
+    }
+
+    @Override
+    @Transactional
+    public TaskBulkResult bulkTasks(TaskBulkRequest request) {
+        if (request.size() > MAX_BULK_OPERATIONS) {
+            throw new IllegalArgumentException("Too many operations in a single request (max " + MAX_BULK_OPERATIONS + ")");
+        }
+        try {
+            LOGGER.debug("Bulk task request: {} creates, {} updates, {} deletes",
+                    request.getCreate().size(), request.getUpdate().size(), request.getDelete().size());
+            List<TaskBulkItemResult> results = new ArrayList<>(request.size());
+            Set<Long> touchedEmployeeIds = new HashSet<>();
+            Set<Long> touchedProjectIds = new HashSet<>();
+            // Assegnatari dei task modificati: non cambiano progetti, servono solo per le notifiche
+            Set<Long> updatedEmployeeIds = new HashSet<>();
+
+            bulkCreate(request.getCreate(), results, touchedEmployeeIds, touchedProjectIds);
+            bulkUpdate(request.getUpdate(), results, touchedProjectIds, updatedEmployeeIds);
+            bulkDelete(request.getDelete(), results, touchedEmployeeIds, touchedProjectIds);
+
+            // UPDATE e DELETE vengono inviati qui, raggruppati in batch JDBC
+            entityManager.flush();
+            // Un ricalcolo per progetto toccato invece di un aggiornamento dei contatori per task
+            projectSummaryCounters.recalculate(touchedProjectIds);
+            cacheEvictor.evictProjectsOfEmployees(touchedEmployeeIds);
+            changeStampService.markChanged(ResourceCollectionEnum.TASKS);
+
+            TaskBulkResult result = new TaskBulkResult(results);
+            if (result.getSucceeded() > 0) {
+                updatedEmployeeIds.addAll(touchedEmployeeIds);
+                eventPublisher.publishEvent(ChangeEvent.of(ChangeEventTypeEnum.TASKS_CHANGED, null,
+                        touchedProjectIds, updatedEmployeeIds));
+            }
+            LOGGER.info("Bulk task request completed: {} succeeded, {} failed", result.getSucceeded(), result.getFailed());
+            return result;
+        } catch (Exception e) {
+            LOGGER.error("Error occurred during bulk task request: {}", e.getMessage());
+            throw new RuntimeException("Failed to execute bulk task request", e);
+        }
+    }
+
+    private void bulkCreate(List<Task> tasks, List<TaskBulkItemResult> results, Set<Long> touchedEmployeeIds, Set<Long> touchedProjectIds) {
+        // Progetti e dipendenti referenziati: una query per tipo invece di una per task
+        Set<Long> projectIds = new HashSet<>(projectRepository.findExistingIds(referencedIds(tasks, Task::getProject, Project::getId)));
+        Set<Long> employeeIds = new HashSet<>(employeeRepository.findExistingIds(referencedIds(tasks, Task::getEmployee, Employee::getId)));
+
+        for (int i = 0; i < tasks.size(); i++) {
+            Task task = tasks.get(i);
+            Long projectId = task.getProject() != null ? task.getProject().getId() : null;
+            Long employeeId = employeeIdOf(task);
+            if (projectId != null && !projectIds.contains(projectId)) {
+                results.add(TaskBulkItemResult.failure(BulkOperationEnum.CREATE, i, null, "Project " + projectId + " not found"));
+                continue;
+            }
+            if (employeeId != null && !employeeIds.contains(employeeId)) {
+                results.add(TaskBulkItemResult.failure(BulkOperationEnum.CREATE, i, null, "Employee " + employeeId + " not found"));
+                continue;
+            }
+
+            task.setId(null);
+            task.setProject(projectId != null ? projectRepository.getReferenceById(projectId) : null);
+            task.setEmployee(employeeId != null ? employeeRepository.getReferenceById(employeeId) : null);
+            prepareNewTask(task);
+            taskRepository.save(task);
+            results.add(TaskBulkItemResult.success(BulkOperationEnum.CREATE, i, task.getId()));
+            touchedEmployeeIds.add(employeeId);
+            touchedProjectIds.add(projectId);
+
+            // Gli INSERT partono a gruppi e il contesto di persistenza resta piccolo
+            if ((i + 1) % BULK_FLUSH_SIZE == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private void bulkUpdate(List<Task> updates, List<TaskBulkItemResult> results, Set<Long> touchedProjectIds, Set<Long> updatedEmployeeIds) {
+        Map<Long, Task> existing = loadByIds(updates.stream().map(Task::getId).collect(Collectors.toList()));
+
+        for (int i = 0; i < updates.size(); i++) {
+            Task updateData = updates.get(i);
+            Long id = updateData.getId();
+            Task task = id != null ? existing.get(id) : null;
+            if (task == null) {
+                results.add(TaskBulkItemResult.failure(BulkOperationEnum.UPDATE, i, id,
+                        id == null ? "Missing task ID" : "Task with ID " + id + " not found"));
+                continue;
+            }
+            applyUpdate(task, updateData);
+            touchedProjectIds.add(projectIdOf(task));
+            updatedEmployeeIds.add(employeeIdOf(task));
+            results.add(TaskBulkItemResult.success(BulkOperationEnum.UPDATE, i, id));
+        }
+    }
+
+    private void bulkDelete(List<Long> ids, List<TaskBulkItemResult> results, Set<Long> touchedEmployeeIds, Set<Long> touchedProjectIds) {
+        Map<Long, Task> existing = loadByIds(ids);
+        Set<Long> deleted = new HashSet<>();
+
+        for (int i = 0; i < ids.size(); i++) {
+            Long id = ids.get(i);
+            Task task = id != null ? existing.get(id) : null;
+            if (task == null) {
+                results.add(TaskBulkItemResult.failure(BulkOperationEnum.DELETE, i, id,
+                        id == null ? "Missing task ID" : "Task with ID " + id + " not found"));
+                continue;
+            }
+            // Lo stesso ID ripetuto nella richiesta: il task esiste ma è già stato eliminato da un elemento precedente
+            if (!deleted.add(id)) {
+                results.add(TaskBulkItemResult.failure(BulkOperationEnum.DELETE, i, id,
+                        "Duplicate delete of task with ID " + id));
+                continue;
+            }
+            touchedEmployeeIds.add(employeeIdOf(task));
+            touchedProjectIds.add(projectIdOf(task));
+            taskRepository.delete(task);
+            results.add(TaskBulkItemResult.success(BulkOperationEnum.DELETE, i, id));
+        }
+    }
+
+    private Map<Long, Task> loadByIds(List<Long> ids) {
+        List<Long> distinctIds = ids.stream().filter(Objects::nonNull).distinct().collect(Collectors.toList());
+        if (distinctIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        return taskRepository.findAllById(distinctIds).stream()
+                .collect(Collectors.toMap(Task::getId, Function.identity()));
+    }
+
+    private static <T> Set<Long> referencedIds(List<Task> tasks, Function<Task, T> association, Function<T, Long> idExtractor) {
+        Set<Long> ids = tasks.stream()
+                .map(association)
+                .filter(Objects::nonNull)
+                .map(idExtractor)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        // IN () vuoto non è valido in SQL
+        return ids.isEmpty() ? Collections.singleton(-1L) : ids;
+    }
+
+    private void prepareNewTask(Task task) {
+        if (task.getStatus() == null) {
+            task.setStatus(TaskStatusEnum.TO_DO);
+        }
+        task.setCompleted(task.getStatus() == TaskStatusEnum.COMPLETED);
+    }
+
+    private void applyUpdate(Task existing, Task updateData) {
+        if (updateData.getTitle() != null) {
+            existing.setTitle(updateData.getTitle());
+        }
+        if (updateData.getDescription() != null) {
+            existing.setDescription(updateData.getDescription());
+        }
+        if (updateData.getDueDate() != null) {
+            existing.setDueDate(updateData.getDueDate());
+        }
+        if (updateData.getStatus() != null) {
+            existing.setStatus(updateData.getStatus());
+            existing.setCompleted(updateData.getStatus() == TaskStatusEnum.COMPLETED);
+        }
+    }
+
+    private Long employeeIdOf(Task task) {
+        return task.getEmployee() != null ? task.getEmployee().getId() : null;
+    }
+
+    private Long projectIdOf(Task task) {
+        return task.getProject() != null ? task.getProject().getId() : null;
+    }
 }
@@ -0,0 +1,36 @@
+-- Schema iniziale, equivalente a quello generato finora da ddl-auto=update
+
+CREATE TABLE employee (
+    id            BIGINT       NOT NULL AUTO_INCREMENT,
+    name          VARCHAR(255),
+    username      VARCHAR(255),
+    password      VARCHAR(255),
+    role          VARCHAR(255),
+    role_employee VARCHAR(255),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE project (
+    id          BIGINT       NOT NULL AUTO_INCREMENT,
+    name        VARCHAR(255),
+    description VARCHAR(255),
+    start_date  DATE,
+    end_date    DATE,
+    status      VARCHAR(255),
+    PRIMARY KEY (id)
+);
+
+-- Id assegnati da task_seq (vedi V1_1), non AUTO_INCREMENT
+CREATE TABLE task (
+    id           BIGINT       NOT NULL,
+    title        VARCHAR(255),
+    description  VARCHAR(255),
+    due_date     DATE,
+    project_id   BIGINT,
+    employee_id  BIGINT,
+    status       VARCHAR(255),
+    is_completed BIT          NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_task_project FOREIGN KEY (project_id) REFERENCES project (id),
+    CONSTRAINT fk_task_employee FOREIGN KEY (employee_id) REFERENCES employee (id)
+);
@@ -0,0 +1,20 @@
+-- Indici per le query dei repository
+
+-- findByUsername a ogni login (e unicità già verificata in registrazione)
+CREATE UNIQUE INDEX ux_employee_username ON employee (username);
+
+-- Pagine di dipendenti filtrate per ruolo (keyset su id)
+CREATE INDEX ix_employee_role ON employee (role, id);
+
+-- Pagine di progetti filtrate per stato (keyset su id)
+CREATE INDEX ix_project_status ON project (status, id);
+
+-- Task di un dipendente (liste, viste, eliminazione), anche filtrati per stato
+CREATE INDEX ix_task_employee_status ON task (employee_id, status);
+
+-- Task di un progetto, cambi di stato per progetto e dipendenti del progetto
+CREATE INDEX ix_task_project_status ON task (project_id, status);
+
+-- Filtri per stato e intervallo di scadenza
+CREATE INDEX ix_task_status_due_date ON task (status, due_date);
+CREATE INDEX ix_task_due_date ON task (due_date);
@@ -0,0 +1,24 @@
+-- Contatori pre-aggregati per la dashboard dei progetti, aggiornati a ogni scrittura sui task
+-- e riallineati periodicamente (overdue_count vale alla data overdue_as_of)
+
+CREATE TABLE project_summary (
+    project_id        BIGINT   NOT NULL,
+    to_do_count       BIGINT   NOT NULL,
+    in_progress_count BIGINT   NOT NULL,
+    completed_count   BIGINT   NOT NULL,
+    overdue_count     BIGINT   NOT NULL,
+    overdue_as_of     DATE     NOT NULL,
+    PRIMARY KEY (project_id),
+    CONSTRAINT fk_project_summary_project FOREIGN KEY (project_id) REFERENCES project (id) ON DELETE CASCADE
+);
+
+INSERT INTO project_summary (project_id, to_do_count, in_progress_count, completed_count, overdue_count, overdue_as_of)
+SELECT p.id,
+       COALESCE(SUM(CASE WHEN t.status = 'TO_DO' THEN 1 ELSE 0 END), 0),
+       COALESCE(SUM(CASE WHEN t.status = 'IN_PROGRESS' THEN 1 ELSE 0 END), 0),
+       COALESCE(SUM(CASE WHEN t.status = 'COMPLETED' THEN 1 ELSE 0 END), 0),
+       COALESCE(SUM(CASE WHEN t.status <> 'COMPLETED' AND t.due_date < CURRENT_DATE THEN 1 ELSE 0 END), 0),
+       CURRENT_DATE
+FROM project p
+LEFT JOIN task t ON t.project_id = p.id
+GROUP BY p.id;
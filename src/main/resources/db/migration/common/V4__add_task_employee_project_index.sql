@@ -0,0 +1,2 @@
+-- Progetti di un dipendente (semi-join EXISTS): l'indice risponde alla sottoquery senza leggere le righe dei task
+CREATE INDEX ix_task_employee_project ON task (employee_id, project_id);
@@ -0,0 +1,4 @@
+-- Versione delle righe (@Version): locking ottimistico ed ETag delle singole risorse
+ALTER TABLE employee ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE project ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE task ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
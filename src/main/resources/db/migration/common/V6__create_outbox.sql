@@ -0,0 +1,29 @@
+-- Outbox transazionale: un evento per modifica, scritto nella stessa transazione della modifica
+-- e consegnato in seguito ai consumatori interni (vedi OutboxServiceImpl)
+
+CREATE TABLE outbox_event (
+    id              BIGINT        NOT NULL AUTO_INCREMENT,
+    aggregate_type  VARCHAR(32)   NOT NULL,
+    aggregate_id    BIGINT,
+    event_type      VARCHAR(32)   NOT NULL,
+    payload         LONGTEXT      NOT NULL,
+    created_at      DATETIME(3)   NOT NULL,
+    attempts        INT           NOT NULL DEFAULT 0,
+    next_attempt_at DATETIME(3)   NOT NULL,
+    last_error      VARCHAR(1000),
+    PRIMARY KEY (id)
+);
+
+-- Eventi che hanno esaurito i tentativi: restano qui per l'analisi e l'eventuale reinvio manuale
+CREATE TABLE outbox_dead_letter (
+    id             BIGINT        NOT NULL,
+    aggregate_type VARCHAR(32)   NOT NULL,
+    aggregate_id   BIGINT,
+    event_type     VARCHAR(32)   NOT NULL,
+    payload        LONGTEXT      NOT NULL,
+    created_at     DATETIME(3)   NOT NULL,
+    attempts       INT           NOT NULL,
+    last_error     VARCHAR(1000),
+    failed_at      DATETIME(3)   NOT NULL,
+    PRIMARY KEY (id)
+);
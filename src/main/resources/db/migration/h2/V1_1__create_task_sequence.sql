@@ -0,0 +1,6 @@
+-- Sequenza nativa con incremento pari all'allocationSize dell'entità Task
+CREATE SEQUENCE IF NOT EXISTS task_seq START WITH 1 INCREMENT BY 50;
+
+-- Schema già popolato (baseline): come per MySQL il primo valore letto è l'estremo superiore di un blocco di 50 id
+-- e deve superare di almeno 50 l'id massimo presente
+ALTER SEQUENCE task_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 50 FROM task);
@@ -0,0 +1,13 @@
+-- MySQL non ha sequenze: Hibernate usa una tabella con il prossimo valore (ottimizzatore pooled, 50 id per accesso).
+-- Sui database già esistenti la tabella può essere stata creata da ddl-auto: il valore viene portato oltre gli id presenti.
+-- Con l'ottimizzatore pooled il valore letto è l'estremo superiore del blocco (id da next_val - 49 a next_val):
+-- next_val deve quindi superare di almeno 50 l'id massimo già assegnato.
+
+CREATE TABLE IF NOT EXISTS task_seq (
+    next_val BIGINT
+);
+
+INSERT INTO task_seq (next_val)
+SELECT 1 FROM DUAL WHERE NOT EXISTS (SELECT * FROM task_seq);
+
+UPDATE task_seq SET next_val = GREATEST(next_val, (SELECT COALESCE(MAX(id), 0) + 50 FROM task));
@@ -26,6 +26,29 @@ function isPM() {
     return localStorage.getItem("auth-role") === "PM";
 }
 
+// ====================== PAGINAZIONE ======================
+const PAGE_SIZE = 50;
+const nextCursors = { projects: null, tasks: null, employees: null };
+
+function pageUrl(endpoint, key, append, params = "") {
+    const cursor = append && nextCursors[key] ? `&afterId=${nextCursors[key]}` : "";
+    return `${API_URL}/${endpoint}?size=${PAGE_SIZE}${cursor}${params}`;
+}
+
+// Ricerca full-text sui task: pagine numerate, l'employee cerca solo tra i propri task
+let taskSearchPage = 0;
+
+function taskSearchUrl(query, append) {
+    taskSearchPage = append ? taskSearchPage + 1 : 0;
+    const employeeFilter = isPM() ? "" : `&employeeId=${localStorage.getItem("auth-id")}`;
+    return `${API_URL}/searchTasks?q=${encodeURIComponent(query)}&page=${taskSearchPage}&size=${PAGE_SIZE}${employeeFilter}`;
+}
+
+function updateLoadMoreButton(buttonId, nextCursor) {
+    const btn = document.getElementById(buttonId);
+    if (btn) btn.style.display = nextCursor ? "inline-block" : "none";
+}
+
 // ====================== LOGIN / LOGOUT ======================
 function loginUser(e) {
     e.preventDefault();
@@ -41,6 +64,7 @@ function loginUser(e) {
         method: "POST"
     })
     .then(res => {
+        if (res.status === 503) throw new Error("Troppi accessi in corso, riprova tra qualche secondo");
         if (!res.ok) throw new Error("Credenziali non valide");
         return res.json();
     })
@@ -56,12 +80,14 @@ function loginUser(e) {
         fetchProjects();
         fetchTasks();
         if (isPM()) fetchEmployees();
+        startChangeFeed();
     })
     .catch(err => alert(err.message));
 }
 
 function logoutUser(e) {
     if (e) e.preventDefault();
+    stopChangeFeed();
     localStorage.clear();
     toggleDashboard(false);
 }
@@ -138,19 +164,22 @@ function setupUIByRole() {
 }
 
 // ====================== PROJECTS ======================
-async function fetchProjects() {
+async function fetchProjects(append = false) {
     try {
         const userId = localStorage.getItem("auth-id");
         const url = isPM()
-            ? `${API_URL}/getAllProjects`
+            ? pageUrl("getProjectsPage", "projects", append)
             : `${API_URL}/getProjectsForEmployee?employeeId=${userId}`;
 
         const res = await authFetch(url);
-        const projects = await res.json();
+        const data = await res.json();
+        const projects = isPM() ? data.items : data;
+        nextCursors.projects = isPM() ? data.nextCursor : null;
+        updateLoadMoreButton("more-projects-btn", nextCursors.projects);
 
         const table = document.getElementById("project-list");
         if (!table) return;
-        table.innerHTML = "";
+        if (!append) table.innerHTML = "";
 
         projects.forEach(p => {
             table.innerHTML += `
@@ -161,17 +190,34 @@ async function fetchProjects() {
                     <td>${p.status}</td>
                     <td>${p.startDate || ""}</td>
                     <td>${p.endDate || ""}</td>
+                    <td id="project-progress-${p.id}"></td>
                     <td>${isPM() ? `
                         <button class="btn" onclick="editProject(${p.id})">Modifica</button>
                         <button class="btn" onclick="deleteProject(${p.id})">Elimina</button>` : "" }
                     </td>
                 </tr>`;
         });
+
+        if (isPM() && projects.length) await fetchProjectProgress(projects.map(p => p.id));
     } catch(err) {
         alert("Errore caricamento progetti: " + err.message);
     }
 }
 
+// Avanzamento dai riepiloghi pre-aggregati lato server, senza scaricare i task
+async function fetchProjectProgress(projectIds) {
+    const res = await authFetch(`${API_URL}/getProjectSummaries?projectIds=${projectIds.join(",")}`);
+    if (!res.ok) return;
+    const summaries = await res.json();
+    summaries.forEach(s => {
+        const cell = document.getElementById(`project-progress-${s.projectId}`);
+        if (!cell) return;
+        const percent = Math.round(s.completionRatio * 100);
+        cell.textContent = `${s.taskCounts.COMPLETED}/${s.totalTasks} (${percent}%)`
+            + (s.overdueCount ? ` - ${s.overdueCount} scaduti` : "");
+    });
+}
+
 function showProjectForm(project = null) {
     const form = document.getElementById("project-form");
     if (!form) return;
@@ -245,18 +291,19 @@ async function deleteProject(id) {
 }
 
 // ====================== EMPLOYEES ======================
-async function fetchEmployees() {
+async function fetchEmployees(append = false) {
     if (!isPM()) return;
     try {
-        const res = await authFetch(`${API_URL}/getAllEmployees`);
-        const employees = await res.json();
+        const res = await authFetch(pageUrl("getEmployeesPage", "employees", append, "&role=EMPLOYEE"));
+        const data = await res.json();
+        nextCursors.employees = data.nextCursor;
+        updateLoadMoreButton("more-employees-btn", nextCursors.employees);
 
         const table = document.getElementById("employee-list");
         if (!table) return;
-        table.innerHTML = "";
+        if (!append) table.innerHTML = "";
 
-        const filtered = employees.filter(e => e.role !== "PM");
-        filtered.forEach(e => {
+        data.items.forEach(e => {
             table.innerHTML += `
                 <tr>
                     <td>${e.id}</td>
@@ -355,24 +402,41 @@ async function deleteEmployee(id) {
 }
 
 // ====================== TASKS ======================
-async function fetchTasks() {
+async function fetchTasks(append = false) {
     try {
         const userId = localStorage.getItem("auth-id");
-        const url = isPM()
-            ? `${API_URL}/getAllTasks`
-            : `${API_URL}/getTasksByEmployee?employeeId=${userId}`;
+        const query = document.getElementById("task-search")?.value.trim() || "";
+        const url = query
+            ? taskSearchUrl(query, append)
+            : isPM()
+                ? pageUrl("getTasksPage", "tasks", append)
+                : `${API_URL}/getTaskViewsByEmployee?employeeId=${userId}`;
 
         const res = await authFetch(url);
-        const tasks = await res.json();
+        if (query && res.status === 503) {
+            alert("Indice di ricerca in preparazione, riprova tra qualche secondo");
+            return;
+        }
+        const data = await res.json();
+        const tasks = query || isPM() ? data.items : data;
+        if (query) {
+            nextCursors.tasks = data.hasMore ? taskSearchPage + 1 : null;
+        } else {
+            nextCursors.tasks = isPM() ? data.nextCursor : null;
+        }
+        updateLoadMoreButton("more-tasks-btn", nextCursors.tasks);
 
         const table = document.getElementById("task-list");
         if (!table) return;
-        table.innerHTML = "";
+        if (!append) table.innerHTML = "";
 
         tasks.forEach(t => {
+            // I task del PM arrivano come entità, quelli dell'employee come vista piatta
+            const projectId = t.projectId ?? t.project?.id;
+            const employeeId = t.employeeId ?? t.employee?.id;
             let statusContent = t.status;
 
-            if (!isPM() && t.employee?.id == userId) {
+            if (!isPM() && employeeId == userId) {
                 statusContent = `
                     <select id="status-${t.id}">
                         <option value="TO_DO" ${t.status === 'TO_DO' ? 'selected' : ''}>To Do</option>
@@ -388,8 +452,8 @@ async function fetchTasks() {
                     <td>${t.description}</td>
                     <td>${statusContent}</td>
                     <td>${t.dueDate || ""}</td>
-                    <td>${t.project?.id || ""}</td>
-                    <td>${t.employee?.id || ""}</td>
+                    <td>${projectId || ""}</td>
+                    <td>${employeeId || ""}</td>
                     <td>
                         ${isPM()
                             ? `
@@ -638,6 +702,107 @@ function showLogin() {
 }
 
 
+// ====================== MODIFICHE IN TEMPO REALE ======================
+// Feed SSE letto con fetch (EventSource non permette l'header Authorization). Ogni evento indica solo cosa è cambiato:
+// le tabelle interessate si ricaricano una volta per raffica di eventi. Alla riconnessione Last-Event-ID
+// riprende dall'ultimo evento ricevuto; "reset" indica che gli eventi persi non sono più disponibili
+let changeFeed = null;
+let lastChangeEventId = null;
+let pendingRefresh = null;
+
+function startChangeFeed() {
+    stopChangeFeed();
+    const controller = new AbortController();
+    changeFeed = controller;
+    lastChangeEventId = null;
+    const url = isPM()
+        ? `${API_URL}/subscribeChanges`
+        : `${API_URL}/subscribeChanges?employeeId=${localStorage.getItem("auth-id")}`;
+
+    (async () => {
+        let retry = 5000;
+        while (!controller.signal.aborted) {
+            try {
+                const res = await fetch(url, {
+                    headers: {
+                        "Authorization": "Bearer " + localStorage.getItem("auth-token"),
+                        "Accept": "text/event-stream",
+                        ...(lastChangeEventId ? { "Last-Event-ID": lastChangeEventId } : {})
+                    },
+                    signal: controller.signal
+                });
+                if (res.status === 401 || res.status === 403) return;
+                if (!res.ok) throw new Error("Feed delle modifiche non disponibile: " + res.status);
+
+                const reader = res.body.pipeThrough(new TextDecoderStream()).getReader();
+                let buffer = "";
+                while (true) {
+                    const { value, done } = await reader.read();
+                    if (done) break;
+                    buffer += value;
+                    let end;
+                    while ((end = buffer.indexOf("\n\n")) >= 0) {
+                        const event = parseSseEvent(buffer.slice(0, end));
+                        buffer = buffer.slice(end + 2);
+                        if (event.retry) retry = event.retry;
+                        handleChangeEvent(event);
+                    }
+                }
+            } catch (err) {
+                if (controller.signal.aborted) return;
+            }
+            await new Promise(resolve => setTimeout(resolve, retry));
+        }
+    })();
+}
+
+function stopChangeFeed() {
+    if (changeFeed) changeFeed.abort();
+    changeFeed = null;
+}
+
+function parseSseEvent(block) {
+    const event = { name: null, data: "", id: null, retry: null };
+    block.split("\n").forEach(line => {
+        if (!line || line.startsWith(":")) return;
+        const sep = line.indexOf(":");
+        const field = sep >= 0 ? line.slice(0, sep) : line;
+        const value = sep >= 0 ? line.slice(sep + 1).replace(/^ /, "") : "";
+        if (field === "event") event.name = value;
+        else if (field === "data") event.data += (event.data ? "\n" : "") + value;
+        else if (field === "id") event.id = value;
+        else if (field === "retry") event.retry = parseInt(value, 10);
+    });
+    return event;
+}
+
+function handleChangeEvent(event) {
+    if (event.id) lastChangeEventId = event.id;
+    if (!event.name) return; // commenti: connessione aperta e heartbeat
+
+    const refresh = pendingRefresh?.sections || new Set();
+    if (event.name === "reset" || event.name.startsWith("TASK") || event.name.startsWith("PROJECT")) {
+        // I task cambiano l'avanzamento dei progetti, i progetti completati o eliminati cambiano i task
+        refresh.add("tasks");
+        refresh.add("projects");
+    }
+    if (event.name === "reset" || event.name.startsWith("EMPLOYEE")) {
+        refresh.add("employees");
+        refresh.add("tasks");
+    }
+
+    if (pendingRefresh) return;
+    pendingRefresh = { sections: refresh };
+    setTimeout(() => {
+        const sections = pendingRefresh.sections;
+        pendingRefresh = null;
+        if (sections.has("projects")) fetchProjects();
+        if (sections.has("tasks")) fetchTasks();
+        if (sections.has("employees") && isPM()) fetchEmployees();
+    }, 300);
+}
+
+
 // ====================== INIT ======================
 document.addEventListener("DOMContentLoaded", () => {
     // Login e logout
@@ -668,5 +833,6 @@ const registerBtn = document.getElementById("register-btn");
         fetchProjects();
         fetchTasks();
         if (isPM()) fetchEmployees();
+        startChangeFeed();
     }
 });
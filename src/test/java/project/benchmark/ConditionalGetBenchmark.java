@@ -0,0 +1,155 @@
+package project.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+import project.ProjectManagementApplication;
+import project.enums.ResourceCollectionEnum;
+import project.enums.RoleEnum;
+import project.model.Employee;
+import project.security.JwtTokenProvider;
+import project.services.ChangeStampService;
+import project.services.ProjectSummaryService;
+
+import javax.persistence.EntityManagerFactory;
+import javax.servlet.Filter;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+// Aggiornamento ripetuto della dashboard senza modifiche nel frattempo: risposta completa (query, serializzazione)
+// contro GET condizionale con 304, attraverso filtri di sicurezza e MVC. I byte per risposta, con e senza gzip,
+// sono stampati all'avvio di ogni endpoint; con -prof gc si ottiene anche la memoria allocata per richiesta
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConditionalGetBenchmark {
+
+    private static final int PROJECTS = 50;
+    private static final int EMPLOYEES = 200;
+    private static final int TASKS = 5_000;
+
+    @Param({"/api/getProjectSummaries", "/api/getAllProjects", "/api/getTaskViews"})
+    private String endpoint;
+
+    private ConfigurableApplicationContext context;
+    private MockMvc mockMvc;
+    private String pmToken;
+    private String etag;
+
+    @Setup(Level.Trial)
+    public void seed() throws Exception {
+        context = new SpringApplicationBuilder(ProjectManagementApplication.class)
+                .web(WebApplicationType.SERVLET)
+                .properties("server.port=0")
+                .run();
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.update("DELETE FROM task");
+        jdbcTemplate.update("DELETE FROM project_summary");
+        jdbcTemplate.update("DELETE FROM project");
+        jdbcTemplate.update("DELETE FROM employee");
+
+        List<Object[]> employees = new ArrayList<>();
+        for (long id = 1; id <= EMPLOYEES; id++) {
+            employees.add(new Object[]{id, "Employee " + id, "bench.user" + id, "secret", "EMPLOYEE"});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO employee (id, name, username, password, role) VALUES (?, ?, ?, ?, ?)", employees);
+
+        List<Object[]> projects = new ArrayList<>();
+        Date today = Date.valueOf(LocalDate.now());
+        for (long id = 1; id <= PROJECTS; id++) {
+            projects.add(new Object[]{id, "Project " + id, "Seeded project", today, "IN_PROGRESS"});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO project (id, name, description, start_date, status) VALUES (?, ?, ?, ?, ?)", projects);
+
+        Random random = new Random(42);
+        String[] statuses = {"TO_DO", "IN_PROGRESS", "COMPLETED"};
+        List<Object[]> tasks = new ArrayList<>();
+        for (long id = 1; id <= TASKS; id++) {
+            tasks.add(new Object[]{id, "Task " + id, "Seeded task", Date.valueOf(LocalDate.now().plusDays(random.nextInt(60) - 30)),
+                    (long) random.nextInt(PROJECTS) + 1, (long) random.nextInt(EMPLOYEES) + 1, statuses[random.nextInt(statuses.length)]});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO task (id, title, description, due_date, project_id, employee_id, status, is_completed)"
+                + " VALUES (?, ?, ?, ?, ?, ?, ?, FALSE)", tasks);
+        context.getBean(ProjectSummaryService.class).reconcileProjectSummaries();
+
+        // Dati scritti con JDBC: cache e ETag vanno considerati cambiati
+        CacheManager cacheManager = context.getBean(CacheManager.class);
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+        context.getBean(EntityManagerFactory.class).getCache().evictAll();
+        context.getBean(ChangeStampService.class).markChanged(ResourceCollectionEnum.values());
+
+        mockMvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) context)
+                .addFilters(context.getBean("springSecurityFilterChain", Filter.class))
+                .build();
+        Employee pm = new Employee("bench.pm", "secret");
+        pm.setId(1L);
+        pm.setRole(RoleEnum.PM);
+        pmToken = "Bearer " + context.getBean(JwtTokenProvider.class).generateToken(pm);
+
+        MockHttpServletResponse full = fullResponse();
+        etag = full.getHeader(HttpHeaders.ETAG);
+        MockHttpServletResponse notModified = notModified();
+        byte[] body = full.getContentAsByteArray();
+        System.out.printf("%n%s: %d -> %d bytes (gzip %d), %d -> %d bytes%n", endpoint,
+                full.getStatus(), body.length, gzip(body).length, notModified.getStatus(), notModified.getContentAsByteArray().length);
+    }
+
+    @TearDown(Level.Trial)
+    public void stopContext() {
+        context.close();
+    }
+
+    @Benchmark
+    public MockHttpServletResponse fullResponse() throws Exception {
+        return mockMvc.perform(get(endpoint).header(HttpHeaders.AUTHORIZATION, pmToken))
+                .andReturn().getResponse();
+    }
+
+    @Benchmark
+    public MockHttpServletResponse notModified() throws Exception {
+        return mockMvc.perform(get(endpoint)
+                        .header(HttpHeaders.AUTHORIZATION, pmToken)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andReturn().getResponse();
+    }
+
+    private static byte[] gzip(byte[] payload) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(payload.length / 4);
+        try (GZIPOutputStream output = new GZIPOutputStream(compressed)) {
+            output.write(payload);
+        }
+        return compressed.toByteArray();
+    }
+}
@@ -0,0 +1,89 @@
+package project.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import project.dto.TaskView;
+import project.enums.ProjectStatusEnum;
+import project.enums.RoleEnum;
+import project.enums.TaskStatusEnum;
+import project.model.Employee;
+import project.model.Project;
+import project.model.Task;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Serializzazione JSON delle risposte di lista (stesso ObjectMapper di Spring MVC): entità Task con progetto
+// e dipendente annidati, proiezione TaskView e Project, al crescere della lista
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int size;
+
+    private ObjectMapper objectMapper;
+    private List<Task> tasks;
+    private List<TaskView> taskViews;
+    private List<Project> projects;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        tasks = new ArrayList<>(size);
+        taskViews = new ArrayList<>(size);
+        projects = new ArrayList<>(size);
+        LocalDate today = LocalDate.now();
+        TaskStatusEnum[] statuses = TaskStatusEnum.values();
+        for (int i = 0; i < size; i++) {
+            Project project = new Project("Project " + i, "Description of project " + i,
+                    today, today.plusMonths(3), ProjectStatusEnum.IN_PROGRESS);
+            project.setId((long) i);
+            projects.add(project);
+
+            Employee employee = new Employee("user" + i, "secret");
+            employee.setId((long) i);
+            employee.setName("Employee " + i);
+            employee.setRole(RoleEnum.EMPLOYEE);
+
+            Task task = new Task("Task " + i, "Description of task " + i, today.plusDays(i % 30),
+                    project, employee, statuses[i % statuses.length]);
+            task.setId((long) i);
+            tasks.add(task);
+            taskViews.add(new TaskView(task.getId(), task.getTitle(), task.getDescription(), task.getDueDate(),
+                    task.getStatus(), task.isCompleted(), project.getId(), project.getName(), employee.getId(), employee.getName()));
+        }
+    }
+
+    @Benchmark
+    public byte[] taskEntities() throws Exception {
+        return objectMapper.writeValueAsBytes(tasks);
+    }
+
+    @Benchmark
+    public byte[] taskViews() throws Exception {
+        return objectMapper.writeValueAsBytes(taskViews);
+    }
+
+    @Benchmark
+    public byte[] projects() throws Exception {
+        return objectMapper.writeValueAsBytes(projects);
+    }
+}
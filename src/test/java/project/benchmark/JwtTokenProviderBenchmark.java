@@ -0,0 +1,82 @@
+package project.benchmark;
+
+import com.nimbusds.jose.crypto.MACVerifier;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import project.enums.RoleEnum;
+import project.model.Employee;
+import project.security.JwtClaims;
+import project.security.JwtTokenProvider;
+
+import java.util.Date;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+// Costo dell'autenticazione JWT per richiesta: percorso precedente (tre parse e un MACVerifier per richiesta)
+// contro parse e verifica unici, con e senza cache dei token già verificati
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtTokenProviderBenchmark {
+
+    private static final String SECRET_KEY = "yIu4hK#89j12Nn4!g@#3UtdTk24Jp8Yxz";
+
+    private JwtTokenProvider uncachedProvider;
+    private JwtTokenProvider cachedProvider;
+    private Employee employee;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        uncachedProvider = new JwtTokenProvider(0);
+        cachedProvider = new JwtTokenProvider(10_000);
+        employee = new Employee("benchmark.user", "secret");
+        employee.setId(42L);
+        employee.setRole(RoleEnum.EMPLOYEE);
+        token = cachedProvider.generateToken(employee);
+    }
+
+    @Benchmark
+    public String legacyValidateAndExtract() throws Exception {
+        // Stessa sequenza del filtro prima della modifica: validateToken, getUsernameFromToken, getRoleFromToken
+        SignedJWT signedJWT = SignedJWT.parse(token);
+        if (!signedJWT.verify(new MACVerifier(SECRET_KEY))) {
+            return null;
+        }
+        JWTClaimsSet claimsSet = signedJWT.getJWTClaimsSet();
+        if (claimsSet.getExpirationTime().before(new Date())) {
+            return null;
+        }
+        String username = SignedJWT.parse(token).getJWTClaimsSet().getSubject();
+        String role = (String) SignedJWT.parse(token).getJWTClaimsSet().getClaim("role");
+        return username + role;
+    }
+
+    @Benchmark
+    public Optional<JwtClaims> parseTokenUncached() {
+        return uncachedProvider.parseToken(token);
+    }
+
+    @Benchmark
+    public Optional<JwtClaims> parseTokenCached() {
+        return cachedProvider.parseToken(token);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return cachedProvider.generateToken(employee);
+    }
+}
@@ -0,0 +1,106 @@
+package project.benchmark;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.FileAppender;
+import ch.qos.logback.core.encoder.Encoder;
+import net.logstash.logback.encoder.LogstashEncoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import project.enums.TaskStatusEnum;
+import project.model.Task;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+// Costo sul thread della richiesta di una riga di log per chiamata: appender sincrono con pattern (come la console
+// di default), appender asincrono con encoder JSON (logback-spring.xml) e riga spostata a DEBUG (disattivato).
+// I file vengono scritti in target/: con la coda piena l'appender asincrono scarta gli INFO invece di bloccare.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoggingBenchmark {
+
+    private LoggerContext loggerContext;
+    private Logger syncLogger;
+    private Logger asyncLogger;
+    private Task task;
+
+    @Setup
+    public void setUp() {
+        loggerContext = new LoggerContext();
+
+        PatternLayoutEncoder patternEncoder = new PatternLayoutEncoder();
+        patternEncoder.setPattern("%d{yyyy-MM-dd HH:mm:ss.SSS} %5p --- [%t] %-40.40logger{39} : %m%n");
+        syncLogger = logger("sync", fileAppender("target/logging-benchmark-sync.log", patternEncoder));
+
+        AsyncAppender asyncAppender = new AsyncAppender();
+        asyncAppender.setContext(loggerContext);
+        asyncAppender.setQueueSize(8192);
+        asyncAppender.setDiscardingThreshold(1638);
+        asyncAppender.setNeverBlock(true);
+        asyncAppender.addAppender(fileAppender("target/logging-benchmark-async.json", new LogstashEncoder()));
+        asyncAppender.start();
+        asyncLogger = logger("async", asyncAppender);
+
+        task = new Task("Benchmark task", "Logged on every call", LocalDate.now(), null, null, TaskStatusEnum.TO_DO);
+        task.setId(42L);
+    }
+
+    private FileAppender<ILoggingEvent> fileAppender(String file, Encoder<ILoggingEvent> encoder) {
+        encoder.setContext(loggerContext);
+        encoder.start();
+        FileAppender<ILoggingEvent> appender = new FileAppender<>();
+        appender.setContext(loggerContext);
+        appender.setFile(file);
+        appender.setAppend(false);
+        appender.setEncoder(encoder);
+        appender.start();
+        return appender;
+    }
+
+    private Logger logger(String name, Appender<ILoggingEvent> appender) {
+        Logger logger = loggerContext.getLogger("project.benchmark." + name);
+        logger.setLevel(Level.INFO);
+        logger.setAdditive(false);
+        logger.addAppender(appender);
+        return logger;
+    }
+
+    @TearDown
+    public void tearDown() {
+        loggerContext.stop();
+    }
+
+    @Benchmark
+    public void syncPatternInfo() {
+        syncLogger.info("Creating new task: {}", task);
+    }
+
+    @Benchmark
+    public void asyncJsonInfo() {
+        asyncLogger.info("Creating new task: {}", task);
+    }
+
+    @Benchmark
+    public void debugDisabled() {
+        asyncLogger.debug("Creating new task: {}", task);
+    }
+}
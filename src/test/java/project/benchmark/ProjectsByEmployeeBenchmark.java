@@ -0,0 +1,128 @@
+package project.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import project.ProjectManagementApplication;
+import project.dto.ProjectView;
+import project.model.Project;
+import project.repositories.ProjectRepository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Progetti di un dipendente: DISTINCT sul join con tutti i task (query precedente, entità complete)
+// contro semi-join EXISTS con proiezione, al crescere dei task del dipendente su un dataset H2 popolato
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProjectsByEmployeeBenchmark {
+
+    private static final String LEGACY_QUERY = "SELECT DISTINCT p FROM Project p JOIN p.tasks t WHERE t.employee.id = :employeeId";
+
+    private static final int PROJECTS = 50;
+    private static final int EMPLOYEES = 200;
+    private static final int BACKGROUND_TASKS = 50_000;
+    private static final int EMPLOYEE_PROJECTS = 10;
+
+    @Param({"10", "100", "1000", "10000"})
+    private int employeeTasks;
+
+    private ConfigurableApplicationContext context;
+    private EntityManager entityManager;
+    private Long employeeId;
+
+    @Setup(Level.Trial)
+    public void seed() {
+        context = new SpringApplicationBuilder(ProjectManagementApplication.class)
+                .web(WebApplicationType.NONE)
+                .run();
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.update("DELETE FROM task");
+        jdbcTemplate.update("DELETE FROM project_summary");
+        jdbcTemplate.update("DELETE FROM project");
+        jdbcTemplate.update("DELETE FROM employee");
+
+        List<Object[]> employees = new ArrayList<>();
+        for (long id = 1; id <= EMPLOYEES; id++) {
+            employees.add(new Object[]{id, "Employee " + id, "bench.user" + id, "secret", "EMPLOYEE"});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO employee (id, name, username, password, role) VALUES (?, ?, ?, ?, ?)", employees);
+
+        List<Object[]> projects = new ArrayList<>();
+        Date today = Date.valueOf(LocalDate.now());
+        for (long id = 1; id <= PROJECTS; id++) {
+            projects.add(new Object[]{id, "Project " + id, "Seeded project", today, "IN_PROGRESS"});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO project (id, name, description, start_date, status) VALUES (?, ?, ?, ?, ?)", projects);
+
+        // Il dipendente misurato lavora su pochi progetti con molti task; gli altri task sono distribuiti a caso
+        employeeId = 1L;
+        Random random = new Random(42);
+        List<Object[]> tasks = new ArrayList<>();
+        long taskId = 1;
+        for (int i = 0; i < employeeTasks; i++) {
+            tasks.add(task(taskId++, (long) (i % EMPLOYEE_PROJECTS) + 1, employeeId, today));
+        }
+        for (int i = 0; i < BACKGROUND_TASKS; i++) {
+            tasks.add(task(taskId++, (long) random.nextInt(PROJECTS) + 1, (long) random.nextInt(EMPLOYEES - 1) + 2, today));
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO task (id, title, description, due_date, project_id, employee_id, status, is_completed)"
+                + " VALUES (?, ?, ?, ?, ?, ?, ?, FALSE)", tasks);
+        jdbcTemplate.execute("ANALYZE");
+
+        entityManager = context.getBean(EntityManagerFactory.class).createEntityManager();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopContext() {
+        entityManager.close();
+        context.close();
+    }
+
+    @Benchmark
+    public List<Project> legacyDistinctJoin() {
+        List<Project> projects = entityManager.createQuery(LEGACY_QUERY, Project.class)
+                .setParameter("employeeId", employeeId)
+                .getResultList();
+        entityManager.clear();
+        return projects;
+    }
+
+    @Benchmark
+    public List<ProjectView> existsProjection() {
+        // Stessa JPQL del repository, senza passare dalla cache projectsByEmployee
+        List<ProjectView> projects = entityManager.createQuery(ProjectRepository.PROJECT_VIEWS_BY_EMPLOYEE_QUERY, ProjectView.class)
+                .setParameter("employeeId", employeeId)
+                .getResultList();
+        entityManager.clear();
+        return projects;
+    }
+
+    private static Object[] task(long id, Long projectId, Long employeeId, Date dueDate) {
+        return new Object[]{id, "Task " + id, "Seeded task", dueDate, projectId, employeeId, "TO_DO"};
+    }
+}
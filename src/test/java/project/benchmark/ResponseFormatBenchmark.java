@@ -0,0 +1,116 @@
+package project.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import project.config.HttpMessageConvertersConfig;
+import project.dto.TaskView;
+import project.enums.ProjectStatusEnum;
+import project.enums.RoleEnum;
+import project.enums.TaskStatusEnum;
+import project.model.Employee;
+import project.model.Project;
+import project.model.Task;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+// Formati delle risposte di lista a confronto con il JSON attuale: CPU di serializzazione, con e senza gzip
+// (come lo applica Tomcat), e dimensione dei payload, stampata all'avvio di ogni combinazione di parametri
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseFormatBenchmark {
+
+    @Param({"json", "smile", "cbor"})
+    private String format;
+
+    @Param({"100", "1000"})
+    private int size;
+
+    private ObjectMapper objectMapper;
+    private List<Task> tasks;
+    private List<TaskView> taskViews;
+
+    @Setup
+    public void setUp() throws IOException {
+        // Stessa configurazione dei converter di Spring MVC (HttpMessageConvertersConfig)
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+        if ("smile".equals(format)) {
+            builder.factory(HttpMessageConvertersConfig.smileFactory());
+        } else if ("cbor".equals(format)) {
+            builder.factory(new CBORFactory());
+        }
+        objectMapper = builder.build();
+
+        tasks = new ArrayList<>(size);
+        taskViews = new ArrayList<>(size);
+        LocalDate today = LocalDate.now();
+        TaskStatusEnum[] statuses = TaskStatusEnum.values();
+        for (int i = 0; i < size; i++) {
+            // Pochi progetti e dipendenti ripetuti su molti task, come nelle liste reali
+            Project project = new Project("Project " + i % 10, "Description of project " + i % 10,
+                    today, today.plusMonths(3), ProjectStatusEnum.IN_PROGRESS);
+            project.setId((long) i % 10);
+
+            Employee employee = new Employee("user" + i % 50, "secret");
+            employee.setId((long) i % 50);
+            employee.setName("Employee " + i % 50);
+            employee.setRole(RoleEnum.EMPLOYEE);
+
+            Task task = new Task("Task " + i, "Description of task " + i, today.plusDays(i % 30),
+                    project, employee, statuses[i % statuses.length]);
+            task.setId((long) i);
+            tasks.add(task);
+            taskViews.add(new TaskView(task.getId(), task.getTitle(), task.getDescription(), task.getDueDate(),
+                    task.getStatus(), task.isCompleted(), project.getId(), project.getName(), employee.getId(), employee.getName()));
+        }
+
+        byte[] entities = objectMapper.writeValueAsBytes(tasks);
+        byte[] views = objectMapper.writeValueAsBytes(taskViews);
+        System.out.printf("%n%s, %d tasks: entities %d bytes (gzip %d), views %d bytes (gzip %d)%n",
+                format, size, entities.length, gzip(entities).length, views.length, gzip(views).length);
+    }
+
+    @Benchmark
+    public byte[] taskEntities() throws Exception {
+        return objectMapper.writeValueAsBytes(tasks);
+    }
+
+    @Benchmark
+    public byte[] taskViews() throws Exception {
+        return objectMapper.writeValueAsBytes(taskViews);
+    }
+
+    @Benchmark
+    public byte[] taskViewsGzip() throws Exception {
+        return gzip(objectMapper.writeValueAsBytes(taskViews));
+    }
+
+    private static byte[] gzip(byte[] payload) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(payload.length / 4);
+        try (GZIPOutputStream output = new GZIPOutputStream(compressed)) {
+            output.write(payload);
+        }
+        return compressed.toByteArray();
+    }
+}
@@ -0,0 +1,154 @@
+package project.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import project.ProjectManagementApplication;
+import project.dto.KeysetPage;
+import project.dto.ProjectSummaryView;
+import project.dto.TaskFilter;
+import project.dto.TaskView;
+import project.enums.TaskStatusEnum;
+import project.model.Employee;
+import project.model.Project;
+import project.model.Task;
+import project.services.EmployeeService;
+import project.services.ProjectService;
+import project.services.ProjectSummaryService;
+import project.services.TaskService;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+// Metodi di servizio più chiamati dal frontend, attraverso i proxy Spring (transazioni, cache, metriche)
+// su un database H2 popolato con volumi realistici
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ServiceBenchmark {
+
+    private static final int EMPLOYEES = 200;
+    private static final int PROJECTS = 50;
+    private static final int TASKS = 20_000;
+    private static final int PAGE_SIZE = 50;
+
+    private ConfigurableApplicationContext context;
+    private TaskService taskService;
+    private ProjectService projectService;
+    private EmployeeService employeeService;
+    private ProjectSummaryService projectSummaryService;
+    private List<Long> projectIds;
+    private Random random;
+
+    @Setup(Level.Trial)
+    public void seed() {
+        context = new SpringApplicationBuilder(ProjectManagementApplication.class)
+                .web(WebApplicationType.NONE)
+                .run();
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.update("DELETE FROM task");
+        jdbcTemplate.update("DELETE FROM project_summary");
+        jdbcTemplate.update("DELETE FROM project");
+        jdbcTemplate.update("DELETE FROM employee");
+
+        List<Object[]> employees = new ArrayList<>();
+        for (long id = 1; id <= EMPLOYEES; id++) {
+            employees.add(new Object[]{id, "Employee " + id, "bench.user" + id, "secret", "EMPLOYEE"});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO employee (id, name, username, password, role) VALUES (?, ?, ?, ?, ?)", employees);
+
+        List<Object[]> projects = new ArrayList<>();
+        LocalDate today = LocalDate.now();
+        for (long id = 1; id <= PROJECTS; id++) {
+            projects.add(new Object[]{id, "Project " + id, "Seeded project", Date.valueOf(today), "IN_PROGRESS"});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO project (id, name, description, start_date, status) VALUES (?, ?, ?, ?, ?)", projects);
+
+        // Stati e scadenze distribuiti come in un progetto reale: molti task aperti, scadenze entro due mesi
+        Random seedRandom = new Random(42);
+        TaskStatusEnum[] statuses = TaskStatusEnum.values();
+        List<Object[]> tasks = new ArrayList<>();
+        for (long id = 1; id <= TASKS; id++) {
+            TaskStatusEnum status = statuses[seedRandom.nextInt(statuses.length)];
+            tasks.add(new Object[]{id, "Task " + id, "Seeded task", Date.valueOf(today.plusDays(seedRandom.nextInt(60))),
+                    (long) seedRandom.nextInt(PROJECTS) + 1, (long) seedRandom.nextInt(EMPLOYEES) + 1,
+                    status.name(), status == TaskStatusEnum.COMPLETED});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO task (id, title, description, due_date, project_id, employee_id, status, is_completed)"
+                + " VALUES (?, ?, ?, ?, ?, ?, ?, ?)", tasks);
+        jdbcTemplate.execute("ANALYZE");
+
+        taskService = context.getBean(TaskService.class);
+        projectService = context.getBean(ProjectService.class);
+        employeeService = context.getBean(EmployeeService.class);
+        projectSummaryService = context.getBean(ProjectSummaryService.class);
+        projectSummaryService.reconcileProjectSummaries();
+        projectIds = LongStream.rangeClosed(1, PROJECTS).boxed().collect(Collectors.toList());
+        random = new Random(7);
+    }
+
+    @TearDown(Level.Trial)
+    public void stopContext() {
+        context.close();
+    }
+
+    @Benchmark
+    public KeysetPage<Task> getTasksPage() {
+        long afterId = random.nextInt(TASKS - PAGE_SIZE);
+        return taskService.getTasksPage(afterId, PAGE_SIZE, new TaskFilter());
+    }
+
+    @Benchmark
+    public KeysetPage<Task> getTasksPageByProject() {
+        TaskFilter filter = new TaskFilter(null, null, null, (long) random.nextInt(PROJECTS) + 1, null);
+        return taskService.getTasksPage(null, PAGE_SIZE, filter);
+    }
+
+    @Benchmark
+    public List<TaskView> getTaskViewsByEmployeeId() {
+        return taskService.getTaskViewsByEmployeeId((long) random.nextInt(EMPLOYEES) + 1);
+    }
+
+    @Benchmark
+    public Optional<Task> getTaskById() {
+        return taskService.getTaskById((long) random.nextInt(TASKS) + 1);
+    }
+
+    @Benchmark
+    public KeysetPage<Project> getProjectsPage() {
+        return projectService.getProjectsPage(null, PAGE_SIZE, null);
+    }
+
+    @Benchmark
+    public Optional<Employee> getEmployeeById() {
+        return employeeService.getEmployeeById((long) random.nextInt(EMPLOYEES) + 1);
+    }
+
+    @Benchmark
+    public List<ProjectSummaryView> getProjectSummaries() {
+        return projectSummaryService.getProjectSummaries(projectIds);
+    }
+}
@@ -0,0 +1,97 @@
+package project.benchmark;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import io.micrometer.prometheus.PrometheusConfig;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+import project.aspect.ServiceMetricsAspect;
+import project.dto.ConnectionPoolStatistics;
+import project.services.StatisticsService;
+import project.services.impl.StatisticsServiceImpl;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Costo del timer dei servizi su un metodo quasi vuoto (caso peggiore): chiamata diretta, proxy AOP con timer semplice
+// e con percentili + istogramma come in application.properties, anche con più thread sullo stesso timer
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ServiceMetricsBenchmark {
+
+    private StatisticsService direct;
+    private StatisticsService timed;
+    private StatisticsService timedWithPercentiles;
+
+    @Setup
+    public void setUp() {
+        StatisticsServiceImpl target = new StatisticsServiceImpl();
+        ReflectionTestUtils.setField(target, "meterRegistry", new PrometheusMeterRegistry(PrometheusConfig.DEFAULT));
+        direct = target;
+        timed = proxy(target, new PrometheusMeterRegistry(PrometheusConfig.DEFAULT));
+
+        PrometheusMeterRegistry registry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+        registry.config().meterFilter(new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                return DistributionStatisticConfig.builder()
+                        .percentiles(0.5, 0.95, 0.99)
+                        .percentilesHistogram(true)
+                        .minimumExpectedValue((double) Duration.ofMillis(1).toNanos())
+                        .maximumExpectedValue((double) Duration.ofSeconds(30).toNanos())
+                        .build()
+                        .merge(config);
+            }
+        });
+        timedWithPercentiles = proxy(target, registry);
+    }
+
+    private static StatisticsService proxy(StatisticsServiceImpl target, MeterRegistry registry) {
+        ServiceMetricsAspect aspect = new ServiceMetricsAspect();
+        ReflectionTestUtils.setField(aspect, "meterRegistry", registry);
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(aspect);
+        return factory.getProxy();
+    }
+
+    @Benchmark
+    public List<ConnectionPoolStatistics> direct() {
+        return direct.getConnectionPoolStatistics();
+    }
+
+    @Benchmark
+    public List<ConnectionPoolStatistics> timed() {
+        return timed.getConnectionPoolStatistics();
+    }
+
+    @Benchmark
+    public List<ConnectionPoolStatistics> timedWithPercentiles() {
+        return timedWithPercentiles.getConnectionPoolStatistics();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public List<ConnectionPoolStatistics> timedWithPercentilesContended() {
+        return timedWithPercentiles.getConnectionPoolStatistics();
+    }
+}
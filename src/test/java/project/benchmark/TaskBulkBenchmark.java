@@ -0,0 +1,105 @@
+package project.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import project.ProjectManagementApplication;
+import project.dto.TaskBulkRequest;
+import project.dto.TaskBulkResult;
+import project.enums.ProjectStatusEnum;
+import project.enums.RoleEnum;
+import project.model.Employee;
+import project.model.Project;
+import project.model.Task;
+import project.repositories.EmployeeRepository;
+import project.repositories.ProjectRepository;
+import project.repositories.TaskRepository;
+import project.services.TaskService;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Import di uno sprint: N chiamate createTask (una transazione e un INSERT ciascuna)
+// contro una sola richiesta bulk con INSERT in batch, sul contesto Spring completo con H2
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskBulkBenchmark {
+
+    @Param({"100", "500"})
+    private int taskCount;
+
+    private ConfigurableApplicationContext context;
+    private TaskService taskService;
+    private TaskRepository taskRepository;
+    private Project project;
+    private Employee employee;
+
+    @Setup(Level.Trial)
+    public void startContext() {
+        context = new SpringApplicationBuilder(ProjectManagementApplication.class)
+                .web(WebApplicationType.NONE)
+                .run();
+        taskService = context.getBean(TaskService.class);
+        taskRepository = context.getBean(TaskRepository.class);
+
+        Employee newEmployee = new Employee("benchmark.user", "secret");
+        newEmployee.setRole(RoleEnum.EMPLOYEE);
+        employee = context.getBean(EmployeeRepository.class).save(newEmployee);
+        project = context.getBean(ProjectRepository.class).save(new Project("Benchmark", "Description",
+                LocalDate.now(), LocalDate.now().plusMonths(1), ProjectStatusEnum.IN_PROGRESS));
+    }
+
+    @TearDown(Level.Iteration)
+    public void clearTasks() {
+        taskRepository.deleteAllInBatch();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopContext() {
+        context.close();
+    }
+
+    @Benchmark
+    public int createOneByOne() {
+        int created = 0;
+        for (Task task : newTasks()) {
+            taskService.createTask(task);
+            created++;
+        }
+        return created;
+    }
+
+    @Benchmark
+    public TaskBulkResult createInBulk() {
+        return taskService.bulkTasks(new TaskBulkRequest(newTasks(), Collections.emptyList(), Collections.emptyList()));
+    }
+
+    private List<Task> newTasks() {
+        List<Task> tasks = new ArrayList<>(taskCount);
+        for (int i = 0; i < taskCount; i++) {
+            tasks.add(new Task("Task " + i, "Imported from sprint plan", LocalDate.now().plusDays(i % 30),
+                    project, employee, null));
+        }
+        return tasks;
+    }
+}
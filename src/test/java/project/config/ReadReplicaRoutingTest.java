@@ -0,0 +1,259 @@
+package project.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.web.servlet.MockMvc;
+import project.dto.ConnectionPoolStatistics;
+import project.enums.RoleEnum;
+import project.model.Employee;
+import project.model.Project;
+import project.security.JwtPrincipal;
+import project.security.JwtTokenProvider;
+import project.services.OutboxService;
+import project.services.ProjectService;
+import project.services.StatisticsService;
+
+import javax.sql.DataSource;
+import java.util.Collections;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Primario e replica sono due database H2 distinti: i dati scritti solo sulla replica sono visibili
+// alle letture readOnly, quelli scritti dal servizio finiscono solo sul primario (la replica non li riceve mai)
+@SpringBootTest(properties = {
+        "spring.datasource.url=" + ReadReplicaRoutingTest.PRIMARY_URL,
+        "datasource.replicas.urls=" + ReadReplicaRoutingTest.MISSING_REPLICA_URL + "," + ReadReplicaRoutingTest.REPLICA_URL,
+        "datasource.replicas.connection-timeout=250",
+        "datasource.replicas.read-after-write-window=" + ReadReplicaRoutingTest.READ_AFTER_WRITE_WINDOW_MS + "ms"
+})
+@AutoConfigureMockMvc
+class ReadReplicaRoutingTest {
+
+    static final String PRIMARY_URL = "jdbc:h2:mem:RoutingPrimary;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+    static final String REPLICA_URL = "jdbc:h2:mem:RoutingReplica;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+    // IFEXISTS: il database non esiste, quindi la replica non è raggiungibile
+    static final String MISSING_REPLICA_URL = "jdbc:h2:mem:RoutingMissingReplica;IFEXISTS=TRUE";
+    static final long READ_AFTER_WRITE_WINDOW_MS = 500;
+
+    private static final DataSource REPLICA = new DriverManagerDataSource(REPLICA_URL, "sa", "");
+
+    @Autowired
+    private ProjectService projectService;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+
+    @Autowired
+    private ReadReplicaRoutingDataSource routingDataSource;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtTokenProvider jwtTokenProvider;
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private StatisticsService statisticsService;
+
+    // La replica ha lo schema del primario (in produzione arriva con la replicazione)
+    @BeforeAll
+    static void migrateReplica() {
+        Flyway.configure()
+                .dataSource(REPLICA)
+                .locations("classpath:db/migration/common", "classpath:db/migration/h2")
+                .load()
+                .migrate();
+    }
+
+    @BeforeEach
+    void setUp() {
+        new JdbcTemplate(REPLICA).update("DELETE FROM project");
+        new JdbcTemplate(primaryDataSource).update("DELETE FROM outbox_event");
+        new JdbcTemplate(primaryDataSource).update("DELETE FROM project");
+        routingDataSource.resetReadAfterWrite();
+    }
+
+    @Test
+    void readOnlyTransactionsUseTheReplicaAndWritesThePrimary() {
+        new JdbcTemplate(REPLICA).update("INSERT INTO project (id, name, status) VALUES (1000, 'Replica only', 'IN_PROGRESS')");
+
+        assertThat(projectService.getAllProjects()).extracting(Project::getName).containsExactly("Replica only");
+
+        Project project = new Project();
+        project.setName("Written on primary");
+        projectService.createProject(project);
+
+        assertThat(new JdbcTemplate(primaryDataSource).queryForList("SELECT name FROM project", String.class))
+                .containsExactly("Written on primary");
+        assertThat(new JdbcTemplate(REPLICA).queryForList("SELECT name FROM project", String.class))
+                .containsExactly("Replica only");
+    }
+
+    @Test
+    void replicaPoolsReportTheirConnectionsToo() {
+        assertThat(statisticsService.getConnectionPoolStatistics()).extracting(ConnectionPoolStatistics::getPoolName)
+                .containsExactly("ProjectManagementPool", "ProjectManagementPool-replica-1", "ProjectManagementPool-replica-2");
+        long before = replicaPoolStatistics().getAcquireCount();
+
+        projectService.getAllProjects();
+
+        assertThat(replicaPoolStatistics().getAcquireCount()).isGreaterThan(before);
+    }
+
+    @Test
+    void readsAfterAWriteUseThePrimaryForTheWriterOnly() throws InterruptedException {
+        new JdbcTemplate(REPLICA).update("INSERT INTO project (id, name, status) VALUES (1000, 'Replica only', 'IN_PROGRESS')");
+
+        asUser("writer", () -> projectService.createProject(newProject("Written on primary")));
+
+        // La replica non ha ancora la scrittura: chi l'ha appena fatta la rilegge dal primario, gli altri dalla replica
+        assertThat(asUser("writer", projectService::getAllProjects)).extracting(Project::getName).containsExactly("Written on primary");
+        assertThat(asUser("reader", projectService::getAllProjects)).extracting(Project::getName).containsExactly("Replica only");
+
+        Thread.sleep(READ_AFTER_WRITE_WINDOW_MS + 100);
+        assertThat(asUser("writer", projectService::getAllProjects)).extracting(Project::getName).containsExactly("Replica only");
+    }
+
+    // Le scritture dei job in background (qui il relay dell'outbox, che cancella gli eventi consegnati) non hanno un utente
+    @Test
+    void backgroundWritesDoNotMoveReadsToThePrimary() {
+        new JdbcTemplate(REPLICA).update("INSERT INTO project (id, name, status) VALUES (1000, 'Replica only', 'IN_PROGRESS')");
+        asUser("writer", () -> projectService.createProject(newProject("Written on primary")));
+        routingDataSource.resetReadAfterWrite();
+
+        assertThat(outboxService.relayPendingEvents()).isPositive();
+        projectService.createProject(newProject("Written by a job"));
+
+        assertThat(asUser("writer", projectService::getAllProjects)).extracting(Project::getName).containsExactly("Replica only");
+    }
+
+    // Carico misto: a ogni scrittura di un utente seguono le letture di altri utenti e il relay dell'outbox.
+    // Solo le letture di chi ha scritto vanno sul primario (metrica datasource.read.transactions)
+    @Test
+    void mixedLoadKeepsOtherUsersReadsOnTheReplicas() {
+        double replicaBefore = readTransactions("replica");
+        double primaryBefore = readTransactions("primary");
+        int rounds = 10;
+        int readers = 9;
+        for (int i = 0; i < rounds; i++) {
+            asUser("writer", () -> projectService.createProject(newProject("Project")));
+            asUser("writer", projectService::getAllProjects);
+            for (int reader = 0; reader < readers; reader++) {
+                asUser("reader" + reader, projectService::getAllProjects);
+            }
+            outboxService.relayPendingEvents();
+        }
+
+        double replicaReads = readTransactions("replica") - replicaBefore;
+        double primaryReads = readTransactions("primary") - primaryBefore;
+        System.out.printf("Mixed load: %.0f reads on the replicas, %.0f on the primary%n", replicaReads, primaryReads);
+        assertThat(replicaReads).isGreaterThanOrEqualTo(rounds * readers);
+        assertThat(primaryReads).isEqualTo(rounds);
+    }
+
+    // Una modifica recente non ancora arrivata alle repliche: le liste non ricevono validatori finché non è trascorso
+    // il ritardo delle repliche, così nessun client conserva le righe precedenti sotto l'ETag nuovo
+    @Test
+    void listETagsAreWithheldUntilReplicasCatchUp() throws Exception {
+        Thread.sleep(READ_AFTER_WRITE_WINDOW_MS + 100);
+        new JdbcTemplate(REPLICA).update("INSERT INTO project (id, name, status) VALUES (1000, 'Replica only', 'IN_PROGRESS')");
+        Employee pm = new Employee("replica.pm", "secret");
+        pm.setId(1L);
+        pm.setRole(RoleEnum.PM);
+        String pmToken = "Bearer " + jwtTokenProvider.generateToken(pm);
+
+        String etag = mockMvc.perform(get("/api/getAllProjects").header(HttpHeaders.AUTHORIZATION, pmToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name").value("Replica only"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(etag).isNotNull();
+
+        asUser("other.pm", () -> projectService.createProject(newProject("Written on primary")));
+
+        mockMvc.perform(get("/api/getAllProjects")
+                        .header(HttpHeaders.AUTHORIZATION, pmToken)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name").value("Replica only"))
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG))
+                .andExpect(header().doesNotExist(HttpHeaders.LAST_MODIFIED));
+
+        // Trascorso il ritardo la replica ha ricevuto la scrittura e la lista ha di nuovo un ETag
+        Thread.sleep(READ_AFTER_WRITE_WINDOW_MS + 100);
+        JdbcTemplate replica = new JdbcTemplate(REPLICA);
+        replica.update("DELETE FROM project");
+        new JdbcTemplate(primaryDataSource).queryForList("SELECT id, name, status FROM project").forEach(row ->
+                replica.update("INSERT INTO project (id, name, status) VALUES (?, ?, ?)", row.get("id"), row.get("name"), row.get("status")));
+        String newEtag = mockMvc.perform(get("/api/getAllProjects")
+                        .header(HttpHeaders.AUTHORIZATION, pmToken)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name").value("Written on primary"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(newEtag).isNotNull().isNotEqualTo(etag);
+    }
+
+    @Test
+    void unreachableReplicaIsSkipped() {
+        new JdbcTemplate(REPLICA).update("INSERT INTO project (id, name, status) VALUES (1000, 'Replica only', 'IN_PROGRESS')");
+
+        assertThat(routingDataSource.getHealthyReplicas()).containsExactly("ProjectManagementPool-replica-2");
+        for (int i = 0; i < 4; i++) {
+            assertThat(projectService.getAllProjects()).extracting(Project::getName).containsExactly("Replica only");
+        }
+    }
+
+    private double readTransactions(String target) {
+        return meterRegistry.get("datasource.read.transactions").tag("target", target).functionCounter().count();
+    }
+
+    private ConnectionPoolStatistics replicaPoolStatistics() {
+        return statisticsService.getConnectionPoolStatistics().stream()
+                .filter(statistics -> statistics.getPoolName().endsWith("-replica-2"))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private static Project newProject(String name) {
+        Project project = new Project();
+        project.setName(name);
+        return project;
+    }
+
+    // Esegue l'operazione come utente autenticato (il client della lettura delle proprie scritture)
+    private static <T> T asUser(String username, Supplier<T> operation) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                new JwtPrincipal(null, username, RoleEnum.PM.name()), null,
+                Collections.singletonList(new SimpleGrantedAuthority("ROLE_PM"))));
+        try {
+            return operation.get();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
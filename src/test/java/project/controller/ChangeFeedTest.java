@@ -0,0 +1,135 @@
+package project.controller;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import project.enums.TaskStatusEnum;
+import project.model.Employee;
+import project.model.Project;
+import project.model.Task;
+import project.services.TaskService;
+import project.support.TestFixtures;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Feed SSE delle modifiche: eventi dopo il commit filtrati per destinatario, ripresa da Last-Event-ID
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import(TestFixtures.class)
+class ChangeFeedTest {
+
+    private static final Pattern EVENT_ID = Pattern.compile("id:(\\d+)\\nevent:TASK_UPDATED");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    private String pmToken;
+    private String employeeToken;
+    private Employee employee;
+    private Task ownTask;
+    private Task otherTask;
+
+    @BeforeEach
+    void setUp() {
+        fixtures.deleteAll();
+        pmToken = fixtures.pmToken("feed.pm");
+
+        employee = fixtures.employee("feed.user");
+        employeeToken = fixtures.bearerToken(employee);
+        Employee colleague = fixtures.employee("feed.colleague");
+
+        Project project = fixtures.project("Project");
+        ownTask = fixtures.task("Own", project, employee);
+        otherTask = fixtures.task("Other", project, colleague);
+    }
+
+    @Test
+    void employeeReceivesOnlyOwnChanges() throws Exception {
+        MockHttpServletResponse feed = mockMvc.perform(get("/api/subscribeChanges")
+                        .param("employeeId", String.valueOf(employee.getId()))
+                        .header("Authorization", employeeToken))
+                .andExpect(request().asyncStarted())
+                .andReturn().getResponse();
+        awaitContent(feed, ":connected");
+
+        taskService.updateTask(otherTask.getId(), statusUpdate(TaskStatusEnum.IN_PROGRESS));
+        taskService.updateTask(ownTask.getId(), statusUpdate(TaskStatusEnum.IN_PROGRESS));
+
+        String content = awaitContent(feed, "\"entityId\":" + ownTask.getId());
+        assertThat(content).contains("event:TASK_UPDATED");
+        assertThat(content).doesNotContain("\"entityId\":" + otherTask.getId());
+    }
+
+    @Test
+    void resubscribeReplaysMissedEvents() throws Exception {
+        MockHttpServletResponse feed = mockMvc.perform(get("/api/subscribeChanges").header("Authorization", pmToken))
+                .andExpect(request().asyncStarted())
+                .andReturn().getResponse();
+        awaitContent(feed, ":connected");
+        taskService.updateTask(ownTask.getId(), statusUpdate(TaskStatusEnum.IN_PROGRESS));
+        Matcher matcher = EVENT_ID.matcher(awaitContent(feed, "event:TASK_UPDATED"));
+        assertThat(matcher.find()).isTrue();
+        String lastEventId = matcher.group(1);
+
+        // Modifica avvenuta mentre il client era disconnesso
+        taskService.updateTask(otherTask.getId(), statusUpdate(TaskStatusEnum.COMPLETED));
+
+        MockHttpServletResponse resumed = mockMvc.perform(get("/api/subscribeChanges")
+                        .header("Authorization", pmToken).header("Last-Event-ID", lastEventId))
+                .andExpect(request().asyncStarted())
+                .andReturn().getResponse();
+        String content = awaitContent(resumed, "\"entityId\":" + otherTask.getId());
+        assertThat(content).doesNotContain("\"entityId\":" + ownTask.getId());
+
+        // Eventi non più nello storico: il client deve rileggere tutto
+        MockHttpServletResponse stale = mockMvc.perform(get("/api/subscribeChanges")
+                        .header("Authorization", pmToken).header("Last-Event-ID", "1"))
+                .andExpect(request().asyncStarted())
+                .andReturn().getResponse();
+        awaitContent(stale, "event:reset");
+    }
+
+    @Test
+    void employeeCannotFollowOtherEmployees() throws Exception {
+        mockMvc.perform(get("/api/subscribeChanges").header("Authorization", employeeToken))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/subscribeChanges").param("employeeId", String.valueOf(otherTask.getEmployee().getId()))
+                        .header("Authorization", employeeToken))
+                .andExpect(status().isForbidden());
+    }
+
+    private static Task statusUpdate(TaskStatusEnum status) {
+        Task update = new Task();
+        update.setStatus(status);
+        return update;
+    }
+
+    // Gli eventi sono scritti dai thread del feed: si attende che compaiano nella risposta
+    private static String awaitContent(MockHttpServletResponse response, String expected) throws Exception {
+        long deadline = System.currentTimeMillis() + 5_000;
+        String content = response.getContentAsString();
+        while (!content.contains(expected) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            content = response.getContentAsString();
+        }
+        assertThat(content).contains(expected);
+        return content;
+    }
+}
@@ -0,0 +1,163 @@
+package project.controller;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import project.enums.ResourceCollectionEnum;
+import project.model.Employee;
+import project.model.Task;
+import project.services.ChangeStampService;
+import project.support.TestFixtures;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static project.support.QueryCountMatchers.queryCount;
+
+// GET condizionali: 304 senza query né corpo finché i dati non cambiano, ETag nuovo dopo una scrittura
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import(TestFixtures.class)
+class ConditionalGetTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ChangeStampService changeStampService;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    private String pmToken;
+    private String employeeToken;
+    private Task task;
+
+    @BeforeEach
+    void setUp() {
+        fixtures.deleteAll();
+        // I dati sono scritti direttamente dai repository: le liste vanno considerate cambiate
+        changeStampService.markChanged(ResourceCollectionEnum.values());
+
+        pmToken = fixtures.pmToken("etag.pm");
+        Employee employee = fixtures.employee("etag.user");
+        employeeToken = fixtures.bearerToken(employee);
+        task = fixtures.task("Task", fixtures.project("Project"), employee);
+    }
+
+    @Test
+    void unchangedListIsNotModifiedWithoutQueries() throws Exception {
+        MockHttpServletResponse response = awaitLastModified("/api/getTaskViews");
+        assertThat(response.getHeader(HttpHeaders.CACHE_CONTROL)).isEqualTo("no-cache, private");
+        String etag = response.getHeader(HttpHeaders.ETAG);
+        assertThat(etag).startsWith("W/\"");
+
+        mockMvc.perform(get("/api/getTaskViews").header("Authorization", pmToken).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().string(""))
+                .andExpect(queryCount(0));
+
+        // Stessa collezione, parametri diversi: ETag diverso
+        mockMvc.perform(get("/api/getTaskViewsByEmployee").param("employeeId", String.valueOf(task.getEmployee().getId()))
+                        .header("Authorization", pmToken).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void writeChangesListEtag() throws Exception {
+        String etag = mockMvc.perform(get("/api/getAllTasks").header("Authorization", pmToken))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(put("/api/updateTask").header("Authorization", pmToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"id\":" + task.getId() + ",\"status\":\"IN_PROGRESS\"}"))
+                .andExpect(status().isOk());
+
+        String newEtag = mockMvc.perform(get("/api/getAllTasks").header("Authorization", pmToken).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value("IN_PROGRESS"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(newEtag).isNotEqualTo(etag);
+    }
+
+    @Test
+    void writeInTheSameSecondAsTheResponseIsNotHiddenByLastModified() throws Exception {
+        long lastModified = awaitLastModified("/api/getAllTasks").getDateHeader(HttpHeaders.LAST_MODIFIED);
+        mockMvc.perform(get("/api/getAllTasks").header("Authorization", pmToken).header(HttpHeaders.IF_MODIFIED_SINCE, lastModified))
+                .andExpect(status().isNotModified());
+
+        // If-Modified-Since ha la precisione del secondo: la scrittura non deve avere lo stesso Last-Modified della risposta
+        mockMvc.perform(put("/api/updateTask").header("Authorization", pmToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"id\":" + task.getId() + ",\"status\":\"IN_PROGRESS\"}"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/getAllTasks").header("Authorization", pmToken).header(HttpHeaders.IF_MODIFIED_SINCE, lastModified))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value("IN_PROGRESS"));
+        assertThat(awaitLastModified("/api/getAllTasks").getDateHeader(HttpHeaders.LAST_MODIFIED)).isGreaterThan(lastModified);
+    }
+
+    @Test
+    void singleResourceEtagFollowsVersion() throws Exception {
+        String etag = mockMvc.perform(get("/api/getTaskById").param("id", String.valueOf(task.getId())).header("Authorization", pmToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version").value(0))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/getTaskById").param("id", String.valueOf(task.getId()))
+                        .header("Authorization", pmToken).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        // La versione inviata dal client viene ignorata
+        mockMvc.perform(put("/api/updateTask").header("Authorization", pmToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"id\":" + task.getId() + ",\"version\":42,\"title\":\"Renamed\"}"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/getTaskById").param("id", String.valueOf(task.getId()))
+                        .header("Authorization", pmToken).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version").value(1))
+                .andExpect(jsonPath("$.title").value("Renamed"));
+    }
+
+    @Test
+    void authorizationIsCheckedBeforeEtag() throws Exception {
+        String etag = mockMvc.perform(get("/api/getTaskViews").header("Authorization", pmToken))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/getTaskViews").header("Authorization", employeeToken).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isForbidden());
+    }
+
+    // Last-Modified compare quando è iniziato il secondo successivo all'ultima modifica (al più un secondo di attesa)
+    private MockHttpServletResponse awaitLastModified(String uri) throws Exception {
+        long deadline = System.currentTimeMillis() + 2_000;
+        MockHttpServletResponse response;
+        do {
+            response = mockMvc.perform(get(uri).header("Authorization", pmToken))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse();
+            if (response.getHeader(HttpHeaders.LAST_MODIFIED) == null) {
+                Thread.sleep(50);
+            }
+        } while (response.getHeader(HttpHeaders.LAST_MODIFIED) == null && System.currentTimeMillis() < deadline);
+        assertThat(response.getHeader(HttpHeaders.LAST_MODIFIED)).isNotNull();
+        return response;
+    }
+}
@@ -0,0 +1,188 @@
+package project.controller;
+
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import project.dto.KeysetPage;
+import project.enums.ProjectStatusEnum;
+import project.enums.RoleEnum;
+import project.enums.TaskStatusEnum;
+import project.model.Employee;
+import project.model.Project;
+import project.model.Task;
+import project.repositories.EmployeeRepository;
+import project.repositories.ProjectRepository;
+import project.repositories.TaskRepository;
+import project.support.TestFixtures;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Endpoint get*Page: parametri di filtro e cursore dalla query string, nextCursor/hasMore nella risposta JSON
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import(TestFixtures.class)
+class KeysetPageEndpointTest {
+
+    private static final LocalDate BASE_DATE = LocalDate.of(2030, 3, 1);
+    private static final int TASKS = KeysetPage.DEFAULT_PAGE_SIZE + 10;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    private String pmToken;
+    private String employeeToken;
+    private List<Employee> employees;
+    private List<Project> projects;
+    private List<Task> tasks;
+
+    @BeforeEach
+    void setUp() {
+        fixtures.deleteAll();
+        pmToken = fixtures.pmToken("page.pm");
+
+        employees = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Employee employee = new Employee("page.user" + i, "secret");
+            employee.setRole(i == 0 ? RoleEnum.PM : RoleEnum.EMPLOYEE);
+            employees.add(employeeRepository.save(employee));
+        }
+        employeeToken = fixtures.bearerToken(employees.get(1));
+
+        projects = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            projects.add(projectRepository.save(new Project("Project " + i, "Description", BASE_DATE, BASE_DATE.plusMonths(1),
+                    i == 1 ? ProjectStatusEnum.COMPLETED : ProjectStatusEnum.IN_PROGRESS)));
+        }
+        tasks = new ArrayList<>();
+        for (int i = 0; i < TASKS; i++) {
+            tasks.add(taskRepository.save(new Task("Task " + i, "Description", BASE_DATE.plusDays(i % 10),
+                    projects.get(i % 2), employees.get((i / 2) % 3), TaskStatusEnum.values()[i % 3])));
+        }
+    }
+
+    @Test
+    void tasksPageFollowsTheCursorWithAllFilters() throws Exception {
+        Project project = projects.get(0);
+        Employee employee = employees.get(1);
+        LocalDate from = BASE_DATE.plusDays(2);
+        LocalDate to = BASE_DATE.plusDays(8);
+        List<Long> expected = tasks.stream()
+                .filter(task -> task.getStatus() == TaskStatusEnum.COMPLETED)
+                .filter(task -> !task.getDueDate().isBefore(from) && !task.getDueDate().isAfter(to))
+                .filter(task -> task.getProject().getId().equals(project.getId()))
+                .filter(task -> task.getEmployee().getId().equals(employee.getId()))
+                .map(Task::getId)
+                .collect(Collectors.toList());
+        assertThat(expected).hasSizeGreaterThan(1);
+
+        List<Long> ids = walk("/api/getTasksPage",
+                "status", "COMPLETED",
+                "dueFrom", from.toString(),
+                "dueTo", to.toString(),
+                "projectId", project.getId().toString(),
+                "employeeId", employee.getId().toString());
+
+        assertThat(ids).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void tasksPageWithoutFiltersVisitsEveryTaskOnce() throws Exception {
+        List<Long> ids = walk("/api/getTasksPage");
+
+        assertThat(ids).doesNotHaveDuplicates()
+                .containsExactlyElementsOf(tasks.stream().map(Task::getId).collect(Collectors.toList()));
+    }
+
+    @Test
+    void invalidPageSizeFallsBackToTheDefault() throws Exception {
+        for (String size : new String[]{"0", "-5"}) {
+            mockMvc.perform(get("/api/getTasksPage").param("size", size).header(HttpHeaders.AUTHORIZATION, pmToken))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.items.length()").value(KeysetPage.DEFAULT_PAGE_SIZE))
+                    .andExpect(jsonPath("$.nextCursor").value(tasks.get(KeysetPage.DEFAULT_PAGE_SIZE - 1).getId()))
+                    .andExpect(jsonPath("$.hasMore").value(true));
+        }
+        // Il resto sta in una pagina della dimensione massima: nessun cursore
+        mockMvc.perform(get("/api/getTasksPage")
+                        .param("afterId", tasks.get(KeysetPage.DEFAULT_PAGE_SIZE - 1).getId().toString())
+                        .param("size", String.valueOf(KeysetPage.MAX_PAGE_SIZE + 1))
+                        .header(HttpHeaders.AUTHORIZATION, pmToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(TASKS - KeysetPage.DEFAULT_PAGE_SIZE))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist())
+                .andExpect(jsonPath("$.hasMore").value(false));
+    }
+
+    @Test
+    void projectAndEmployeePagesFilterAndContinue() throws Exception {
+        assertThat(walk("/api/getProjectsPage"))
+                .containsExactlyElementsOf(projects.stream().map(Project::getId).collect(Collectors.toList()));
+        assertThat(walk("/api/getProjectsPage", "status", "IN_PROGRESS"))
+                .containsExactly(projects.get(0).getId(), projects.get(2).getId());
+
+        assertThat(walk("/api/getEmployeesPage"))
+                .containsExactlyElementsOf(employees.stream().map(Employee::getId).collect(Collectors.toList()));
+        assertThat(walk("/api/getEmployeesPage", "role", "EMPLOYEE"))
+                .containsExactly(employees.get(1).getId(), employees.get(2).getId());
+    }
+
+    @Test
+    void pagesAreReservedToProjectManagers() throws Exception {
+        for (String uri : new String[]{"/api/getTasksPage", "/api/getProjectsPage", "/api/getEmployeesPage"}) {
+            mockMvc.perform(get(uri).header(HttpHeaders.AUTHORIZATION, employeeToken))
+                    .andExpect(status().isForbidden());
+        }
+    }
+
+    // Pagine da 2 elementi seguendo nextCursor fino all'ultima pagina, che non ne ha; parameters sono coppie nome, valore
+    private List<Long> walk(String uri, String... parameters) throws Exception {
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            MockHttpServletRequestBuilder request = get(uri).param("size", "2").header(HttpHeaders.AUTHORIZATION, pmToken);
+            for (int i = 0; i < parameters.length; i += 2) {
+                request.param(parameters[i], parameters[i + 1]);
+            }
+            if (cursor != null) {
+                request.param("afterId", cursor);
+            }
+            String body = mockMvc.perform(request)
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            List<Number> pageIds = JsonPath.read(body, "$.items[*].id");
+            assertThat(pageIds).hasSizeLessThanOrEqualTo(2);
+            pageIds.forEach(id -> ids.add(id.longValue()));
+            Number next = JsonPath.read(body, "$.nextCursor");
+            assertThat(JsonPath.<Boolean>read(body, "$.hasMore")).isEqualTo(next != null);
+            cursor = next == null ? null : String.valueOf(next.longValue());
+        } while (cursor != null);
+        return ids;
+    }
+}
@@ -0,0 +1,55 @@
+package project.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.MockMvc;
+import project.support.TestFixtures;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Lo scrape Prometheus è pubblico e contiene endpoint, servizi, repository, Hibernate e pool di connessioni
+// (i test disattivano l'export delle metriche: @AutoConfigureMetrics lo riattiva)
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureMetrics
+@Import(TestFixtures.class)
+class MetricsEndpointTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Test
+    void prometheusScrapeExposesApplicationMetrics() throws Exception {
+        mockMvc.perform(get("/api/getAllProjects").header("Authorization", fixtures.pmToken("metrics.pm")))
+                .andExpect(status().isOk());
+
+        String scrape = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(scrape)
+                .contains("http_server_requests_seconds_bucket{")
+                .containsPattern("http_server_requests_seconds\\{.*uri=\"/api/getAllProjects\",quantile=\"0.99\"")
+                .containsPattern("service_method_seconds\\{.*class=\"ProjectServiceImpl\".*method=\"getAllProjects\".*quantile=\"0.95\"")
+                .containsPattern("spring_data_repository_invocations_seconds_count\\{.*repository=\"ProjectRepository\"")
+                .contains("hibernate_query_executions_total")
+                .contains("hibernate_entities_loads_total")
+                .contains("hibernate_second_level_cache_requests_total")
+                .contains("hikaricp_connections_acquire_seconds");
+    }
+
+    @Test
+    void otherActuatorEndpointsAreNotExposed() throws Exception {
+        mockMvc.perform(get("/actuator/health")).andExpect(status().isOk());
+        mockMvc.perform(get("/actuator/env")).andExpect(status().is4xxClientError());
+    }
+}
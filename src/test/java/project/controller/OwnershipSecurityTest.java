@@ -0,0 +1,134 @@
+package project.controller;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import project.enums.RoleEnum;
+import project.model.Employee;
+import project.repositories.EmployeeRepository;
+import project.security.JwtTokenProvider;
+import project.services.EmployeeService;
+import project.services.ProjectService;
+import project.services.TaskService;
+
+import java.util.Collections;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Le espressioni @PreAuthorize con authentication.principal.id usano l'id del JWT, senza accessi al database
+@SpringBootTest
+@AutoConfigureMockMvc
+class OwnershipSecurityTest {
+
+    private static final long EMPLOYEE_ID = 7L;
+    private static final long OTHER_EMPLOYEE_ID = 8L;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtTokenProvider jwtTokenProvider;
+
+    @MockBean
+    private EmployeeService employeeService;
+
+    @MockBean
+    private TaskService taskService;
+
+    @MockBean
+    private ProjectService projectService;
+
+    @SpyBean
+    private EmployeeRepository employeeRepository;
+
+    private String employeeToken;
+    private String pmToken;
+
+    @BeforeEach
+    void setUp() {
+        employeeToken = "Bearer " + jwtTokenProvider.generateToken(employee(EMPLOYEE_ID, RoleEnum.EMPLOYEE));
+        pmToken = "Bearer " + jwtTokenProvider.generateToken(employee(1L, RoleEnum.PM));
+
+        when(employeeService.getEmployeeById(anyLong())).thenAnswer(invocation ->
+                Optional.of(employee(invocation.getArgument(0), RoleEnum.EMPLOYEE)));
+        when(employeeService.updateEmployee(anyLong(), any(Employee.class))).thenAnswer(invocation ->
+                invocation.getArgument(1));
+        when(taskService.getTasksByEmployeeId(anyLong())).thenReturn(Collections.emptyList());
+        when(taskService.getTaskViewsByEmployeeId(anyLong())).thenReturn(Collections.emptyList());
+        when(projectService.getProjectsForEmployee(anyLong())).thenReturn(Collections.emptyList());
+    }
+
+    @Test
+    void employeeCanReadOnlyOwnDetails() throws Exception {
+        mockMvc.perform(get("/api/getEmployeeById").param("id", String.valueOf(EMPLOYEE_ID))
+                        .header("Authorization", employeeToken))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/getEmployeeById").param("id", String.valueOf(OTHER_EMPLOYEE_ID))
+                        .header("Authorization", employeeToken))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/getEmployeeById").param("id", String.valueOf(OTHER_EMPLOYEE_ID))
+                        .header("Authorization", pmToken))
+                .andExpect(status().isOk());
+
+        verifyNoInteractions(employeeRepository);
+    }
+
+    @Test
+    void employeeCanUpdateOnlyItself() throws Exception {
+        mockMvc.perform(put("/api/updateEmployee").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"id\": " + EMPLOYEE_ID + ", \"name\": \"Me\"}")
+                        .header("Authorization", employeeToken))
+                .andExpect(status().isOk());
+        mockMvc.perform(put("/api/updateEmployee").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"id\": " + OTHER_EMPLOYEE_ID + ", \"name\": \"Someone else\"}")
+                        .header("Authorization", employeeToken))
+                .andExpect(status().isForbidden());
+
+        verifyNoInteractions(employeeRepository);
+    }
+
+    @Test
+    void employeeCanListOnlyOwnTasksAndProjects() throws Exception {
+        for (String endpoint : new String[]{"/api/getTasksByEmployee", "/api/getTaskViewsByEmployee", "/api/getProjectsForEmployee"}) {
+            mockMvc.perform(get(endpoint).param("employeeId", String.valueOf(EMPLOYEE_ID))
+                            .header("Authorization", employeeToken))
+                    .andExpect(status().isOk());
+            mockMvc.perform(get(endpoint).param("employeeId", String.valueOf(OTHER_EMPLOYEE_ID))
+                            .header("Authorization", employeeToken))
+                    .andExpect(status().isForbidden());
+            mockMvc.perform(get(endpoint).param("employeeId", String.valueOf(OTHER_EMPLOYEE_ID))
+                            .header("Authorization", pmToken))
+                    .andExpect(status().isOk());
+        }
+
+        verifyNoInteractions(employeeRepository);
+    }
+
+    @Test
+    void pmOnlyEndpointsRejectEmployees() throws Exception {
+        mockMvc.perform(get("/api/getAllEmployees").header("Authorization", employeeToken))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/getAllEmployees").header("Authorization", pmToken))
+                .andExpect(status().isOk());
+    }
+
+    private static Employee employee(Long id, RoleEnum role) {
+        Employee employee = new Employee("user" + id, "secret");
+        employee.setId(id);
+        employee.setRole(role);
+        return employee;
+    }
+}
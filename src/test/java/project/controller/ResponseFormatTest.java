@@ -0,0 +1,100 @@
+package project.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import project.model.Employee;
+import project.model.Project;
+import project.support.TestFixtures;
+
+import java.io.ByteArrayInputStream;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Formati delle risposte sul server reale (la compressione è di Tomcat): gzip oltre la soglia,
+// Smile e CBOR solo se richiesti con Accept, JSON come predefinito
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@Import(TestFixtures.class)
+class ResponseFormatTest {
+
+    private static final int TASK_COUNT = 30;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    private String pmToken;
+
+    @BeforeEach
+    void setUp() {
+        fixtures.deleteAll();
+        pmToken = fixtures.pmToken("format.pm");
+
+        Employee employee = fixtures.employee("format.user");
+        Project project = fixtures.project("Project");
+        for (int i = 0; i < TASK_COUNT; i++) {
+            fixtures.task("Task " + i, "Description of task " + i, project, employee);
+        }
+    }
+
+    @Test
+    void jsonListIsGzippedWhenAccepted() throws Exception {
+        ResponseEntity<byte[]> plain = getTaskViews(null, null);
+        assertThat(plain.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+        assertThat(plain.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isNull();
+
+        ResponseEntity<byte[]> gzipped = getTaskViews(null, "gzip");
+        assertThat(gzipped.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        // ETag debole: con un ETag forte Tomcat non comprimerebbe
+        assertThat(gzipped.getHeaders().getETag()).startsWith("W/\"");
+        assertThat(gzipped.getBody().length).isLessThan(plain.getBody().length);
+        assertThat(new ObjectMapper().readTree(new GZIPInputStream(new ByteArrayInputStream(gzipped.getBody()))))
+                .hasSize(TASK_COUNT);
+    }
+
+    @Test
+    void compactFormatsAreNegotiatedWithAccept() throws Exception {
+        ResponseEntity<byte[]> json = getTaskViews(MediaType.APPLICATION_JSON, null);
+        ResponseEntity<byte[]> smile = getTaskViews(MediaType.parseMediaType("application/x-jackson-smile"), null);
+        ResponseEntity<byte[]> cbor = getTaskViews(MediaType.APPLICATION_CBOR, null);
+
+        assertThat(smile.getHeaders().getContentType()).isEqualTo(MediaType.parseMediaType("application/x-jackson-smile"));
+        assertThat(cbor.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_CBOR);
+
+        JsonNode expected = new ObjectMapper().readTree(json.getBody());
+        assertThat(new ObjectMapper(new SmileFactory()).readTree(smile.getBody())).isEqualTo(expected);
+        assertThat(new ObjectMapper(new CBORFactory()).readTree(cbor.getBody())).isEqualTo(expected);
+        assertThat(smile.getBody().length).isLessThan(json.getBody().length);
+        assertThat(cbor.getBody().length).isLessThan(json.getBody().length);
+    }
+
+    private ResponseEntity<byte[]> getTaskViews(MediaType accept, String acceptEncoding) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.AUTHORIZATION, pmToken);
+        if (accept != null) {
+            headers.setAccept(List.of(accept));
+        }
+        if (acceptEncoding != null) {
+            headers.set(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        }
+        ResponseEntity<byte[]> response = restTemplate.exchange("/api/getTaskViews", HttpMethod.GET, new HttpEntity<>(headers), byte[].class);
+        assertThat(response.getStatusCodeValue()).isEqualTo(200);
+        return response;
+    }
+}
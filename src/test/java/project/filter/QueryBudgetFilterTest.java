@@ -0,0 +1,89 @@
+package project.filter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import project.model.Employee;
+import project.model.Project;
+import project.support.TestFixtures;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static project.support.QueryCountMatchers.maxQueries;
+import static project.support.QueryCountMatchers.queryCount;
+
+// Conteggio degli statement per richiesta: header per i test, metriche e segnalazione delle richieste oltre il budget
+@SpringBootTest(properties = "query-budget.max-statements=2")
+@AutoConfigureMockMvc
+@Import(TestFixtures.class)
+class QueryBudgetFilterTest {
+
+    private static final int TASK_COUNT = 20;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    private String pmToken;
+    private Project project;
+
+    @BeforeEach
+    void setUp() {
+        fixtures.deleteAll();
+        pmToken = fixtures.pmToken("budget.pm");
+
+        // Progetto e dipendente diversi per ogni task: con associazioni caricate una per una sarebbero 2N query
+        for (int i = 0; i < TASK_COUNT; i++) {
+            Employee employee = fixtures.employee("budget.user" + i);
+            project = fixtures.project("Project " + i);
+            fixtures.task("Task " + i, project, employee);
+        }
+    }
+
+    @Test
+    void taskListingStaysWithinQueryBudget() throws Exception {
+        mockMvc.perform(get("/api/getAllTasks").header("Authorization", pmToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(TASK_COUNT))
+                .andExpect(header().exists(QueryBudgetFilter.QUERY_TIME_HEADER))
+                .andExpect(queryCount(1));
+
+        assertThat(meterRegistry.get("http.server.requests.db.statements").tag("uri", "/api/getAllTasks")
+                .summary().max()).isEqualTo(1.0);
+        assertThat(meterRegistry.find("http.server.requests.db.flagged").tag("uri", "/api/getAllTasks").counter()).isNull();
+    }
+
+    @Test
+    void requestsOverBudgetAreFlagged() throws Exception {
+        mockMvc.perform(post("/api/createTask").header("Authorization", pmToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Over budget\",\"project\":{\"id\":" + project.getId() + "}}"))
+                .andExpect(status().isCreated())
+                .andExpect(maxQueries(10));
+
+        assertThat(meterRegistry.get("http.server.requests.db.flagged")
+                .tags("uri", "/api/createTask", "reason", "budget").counter().count()).isGreaterThanOrEqualTo(1.0);
+    }
+
+    @Test
+    void queryShapesIgnoreLiteralsAndInListLength() {
+        assertThat(RequestQueryStats.shapeOf("select * from task t where t.id in (?, ?, ?) and t.title = 'x'  limit 10"))
+                .isEqualTo(RequestQueryStats.shapeOf("select * from task t where t.id in (?, ?) and t.title = 'y' limit 20"))
+                .isEqualTo("select * from task t where t.id in (?...) and t.title = ? limit ?");
+    }
+}
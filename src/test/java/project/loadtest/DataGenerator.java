@@ -0,0 +1,275 @@
+package project.loadtest;
+
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import project.model.Task;
+
+import javax.persistence.SequenceGenerator;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Random;
+
+// Generatore di dati sintetici per i load test: dipendenti, progetti e task con distribuzioni realistiche,
+// caricati con INSERT a batch e commit periodici. A parità di volumi e seed il dataset è sempre lo stesso:
+// il dipendente con id N ha username loadtest.userN e password "loadtest", ed è PM se isProjectManager(N).
+//
+// Come main popola un database esterno (es. MySQL locale) già migrato da Flyway:
+// jdbcUrl=..., username=..., password=..., employees=10000, projects=5000, tasks=2000000, seed=42
+public final class DataGenerator {
+
+    public static final String PASSWORD = "loadtest";
+
+    // Un PM ogni 20 dipendenti
+    private static final int PM_EVERY = 20;
+    private static final int BATCH_SIZE = 1_000;
+    private static final int COMMIT_EVERY = 50_000;
+
+    private final int employees;
+    private final int projects;
+    private final int tasks;
+    private final long seed;
+    private final int bcryptStrength;
+
+    public DataGenerator(int employees, int projects, int tasks, long seed, int bcryptStrength) {
+        this.employees = employees;
+        this.projects = projects;
+        this.tasks = tasks;
+        this.seed = seed;
+        this.bcryptStrength = bcryptStrength;
+    }
+
+    public static void main(String[] args) throws SQLException {
+        Map<String, String> options = HttpLoadTest.parse(args);
+        DataSource dataSource = new DriverManagerDataSource(options.get("jdbcUrl"),
+                options.getOrDefault("username", "root"), options.getOrDefault("password", ""));
+        fromOptions(options).generate(dataSource);
+    }
+
+    static DataGenerator fromOptions(Map<String, String> options) {
+        return new DataGenerator(
+                Integer.parseInt(options.getOrDefault("employees", "10000")),
+                Integer.parseInt(options.getOrDefault("projects", "5000")),
+                Integer.parseInt(options.getOrDefault("tasks", "2000000")),
+                Long.parseLong(options.getOrDefault("seed", "42")),
+                Integer.parseInt(options.getOrDefault("bcryptStrength", "10")));
+    }
+
+    public static boolean isProjectManager(long employeeId) {
+        return employeeId % PM_EVERY == 1;
+    }
+
+    public int getEmployees() {
+        return employees;
+    }
+
+    // Rigenera i dati solo se il database non contiene già esattamente questi volumi
+    public void generate(DataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            if (count(connection, "employee") == employees && count(connection, "project") == projects
+                    && count(connection, "task") == tasks) {
+                System.out.printf("Dataset already loaded (%d employees, %d projects, %d tasks)%n", employees, projects, tasks);
+                return;
+            }
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                long start = System.nanoTime();
+                clear(connection);
+                Random random = new Random(seed);
+                LocalDate today = LocalDate.now();
+                insertEmployees(connection, random);
+                LocalDate[] projectStarts = new LocalDate[projects + 1];
+                boolean[] completedProjects = new boolean[projects + 1];
+                insertProjects(connection, random, today, projectStarts, completedProjects);
+                insertTasks(connection, random, today, projectStarts, completedProjects);
+                refreshSummaries(connection);
+                alignIdGenerators(connection);
+                connection.commit();
+                System.out.printf("Generated %d employees, %d projects, %d tasks in %ds%n", employees, projects, tasks,
+                        (System.nanoTime() - start) / 1_000_000_000);
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        }
+    }
+
+    private void insertEmployees(Connection connection, Random random) throws SQLException {
+        // Un solo hash BCrypt condiviso: calcolarne uno per utente richiederebbe minuti
+        String passwordHash = new BCryptPasswordEncoder(bcryptStrength).encode(PASSWORD);
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO employee (id, name, username, password, role, role_employee) VALUES (?, ?, ?, ?, ?, ?)")) {
+            for (long id = 1; id <= employees; id++) {
+                boolean pm = isProjectManager(id);
+                insert.setLong(1, id);
+                insert.setString(2, "Employee " + id);
+                insert.setString(3, "loadtest.user" + id);
+                insert.setString(4, passwordHash);
+                insert.setString(5, pm ? "PM" : "EMPLOYEE");
+                insert.setString(6, pm ? null : employeeRole(random));
+                addBatch(connection, insert, id);
+            }
+            insert.executeBatch();
+        }
+    }
+
+    // Più sviluppatori che analisti, pochi tech lead
+    private static String employeeRole(Random random) {
+        int roll = random.nextInt(100);
+        if (roll < 35) {
+            return "JUNIOR_DEVELOPER";
+        } else if (roll < 60) {
+            return "SENIOR_DEVELOPER";
+        } else if (roll < 75) {
+            return "JUNIOR_ANALYST";
+        } else if (roll < 90) {
+            return "SENIOR_ANALYST";
+        }
+        return "TECH_LEAD";
+    }
+
+    // Progetti avviati negli ultimi due anni; circa un terzo è concluso
+    private void insertProjects(Connection connection, Random random, LocalDate today,
+                                LocalDate[] projectStarts, boolean[] completedProjects) throws SQLException {
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO project (id, name, description, start_date, end_date, status) VALUES (?, ?, ?, ?, ?, ?)")) {
+            for (int id = 1; id <= projects; id++) {
+                LocalDate startDate = today.minusDays(random.nextInt(730));
+                boolean completed = random.nextInt(3) == 0;
+                projectStarts[id] = startDate;
+                completedProjects[id] = completed;
+                insert.setLong(1, id);
+                insert.setString(2, "Project " + id);
+                insert.setString(3, "Generated project " + id);
+                insert.setDate(4, Date.valueOf(startDate));
+                insert.setDate(5, completed ? Date.valueOf(startDate.plusDays(30 + random.nextInt(300))) : null);
+                insert.setString(6, completed ? "COMPLETED" : "IN_PROGRESS");
+                addBatch(connection, insert, id);
+            }
+            insert.executeBatch();
+        }
+    }
+
+    // I task si concentrano su pochi progetti grandi (distribuzione sbilanciata verso gli id bassi)
+    // e sono assegnati ai soli dipendenti non PM; lo stato dipende dal progetto e dalla scadenza
+    private void insertTasks(Connection connection, Random random, LocalDate today,
+                             LocalDate[] projectStarts, boolean[] completedProjects) throws SQLException {
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO task"
+                + " (id, title, description, due_date, project_id, employee_id, status, is_completed) VALUES (?, ?, ?, ?, ?, ?, ?, ?)")) {
+            for (long id = 1; id <= tasks; id++) {
+                double skew = random.nextDouble();
+                int projectId = 1 + (int) (projects * skew * skew);
+                long employeeId = randomEmployee(random);
+                LocalDate dueDate = projectStarts[projectId].plusDays(random.nextInt(400));
+                String status = completedProjects[projectId] ? "COMPLETED" : taskStatus(random, dueDate.isBefore(today));
+                insert.setLong(1, id);
+                insert.setString(2, "Task " + id);
+                insert.setString(3, "Generated task " + id);
+                insert.setDate(4, Date.valueOf(dueDate));
+                insert.setLong(5, projectId);
+                insert.setLong(6, employeeId);
+                insert.setString(7, status);
+                insert.setBoolean(8, "COMPLETED".equals(status));
+                addBatch(connection, insert, id);
+                if (id % 500_000 == 0) {
+                    System.out.printf("Generated %d/%d tasks%n", id, tasks);
+                }
+            }
+            insert.executeBatch();
+        }
+    }
+
+    private long randomEmployee(Random random) {
+        long employeeId;
+        do {
+            employeeId = 1 + random.nextInt(employees);
+        } while (isProjectManager(employeeId) && employees > 1);
+        return employeeId;
+    }
+
+    // Task scaduti quasi sempre chiusi, quelli futuri per lo più da fare
+    private static String taskStatus(Random random, boolean pastDue) {
+        int roll = random.nextInt(100);
+        if (pastDue) {
+            return roll < 70 ? "COMPLETED" : roll < 90 ? "IN_PROGRESS" : "TO_DO";
+        }
+        return roll < 10 ? "COMPLETED" : roll < 40 ? "IN_PROGRESS" : "TO_DO";
+    }
+
+    private static void addBatch(Connection connection, PreparedStatement insert, long row) throws SQLException {
+        insert.addBatch();
+        if (row % BATCH_SIZE == 0) {
+            insert.executeBatch();
+        }
+        if (row % COMMIT_EVERY == 0) {
+            connection.commit();
+        }
+    }
+
+    private static void clear(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate("DELETE FROM project_summary");
+            statement.executeUpdate("DELETE FROM task");
+            statement.executeUpdate("DELETE FROM project");
+            statement.executeUpdate("DELETE FROM employee");
+        }
+        connection.commit();
+    }
+
+    // Stessi contatori calcolati dalla migrazione V3
+    private static void refreshSummaries(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate("INSERT INTO project_summary"
+                    + " (project_id, to_do_count, in_progress_count, completed_count, overdue_count, overdue_as_of)"
+                    + " SELECT p.id,"
+                    + " COALESCE(SUM(CASE WHEN t.status = 'TO_DO' THEN 1 ELSE 0 END), 0),"
+                    + " COALESCE(SUM(CASE WHEN t.status = 'IN_PROGRESS' THEN 1 ELSE 0 END), 0),"
+                    + " COALESCE(SUM(CASE WHEN t.status = 'COMPLETED' THEN 1 ELSE 0 END), 0),"
+                    + " COALESCE(SUM(CASE WHEN t.status <> 'COMPLETED' AND t.due_date < CURRENT_DATE THEN 1 ELSE 0 END), 0),"
+                    + " CURRENT_DATE"
+                    + " FROM project p LEFT JOIN task t ON t.project_id = p.id GROUP BY p.id");
+        }
+    }
+
+    // Gli id sono stati assegnati esplicitamente: identity e task_seq ripartono oltre i valori inseriti.
+    // Con l'ottimizzatore pooled il valore letto da task_seq è l'estremo superiore di un blocco di allocationSize id
+    // (come nella migrazione V1_1): deve superare l'id massimo di un intero blocco
+    private void alignIdGenerators(Connection connection) throws SQLException {
+        boolean mysql = connection.getMetaData().getDatabaseProductName().toLowerCase().contains("mysql");
+        long nextTaskSequenceValue = (long) tasks + taskAllocationSize();
+        try (Statement statement = connection.createStatement()) {
+            if (mysql) {
+                statement.executeUpdate("UPDATE task_seq SET next_val = " + nextTaskSequenceValue);
+            } else {
+                statement.execute("ALTER TABLE employee ALTER COLUMN id RESTART WITH " + (employees + 1));
+                statement.execute("ALTER TABLE project ALTER COLUMN id RESTART WITH " + (projects + 1));
+                statement.execute("ALTER SEQUENCE task_seq RESTART WITH " + nextTaskSequenceValue);
+            }
+        }
+    }
+
+    private static int taskAllocationSize() {
+        try {
+            return Task.class.getDeclaredField("id").getAnnotation(SequenceGenerator.class).allocationSize();
+        } catch (NoSuchFieldException e) {
+            throw new IllegalStateException("Task id mapping not found", e);
+        }
+    }
+
+    private static long count(Connection connection, String table) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT COUNT(*) FROM " + table)) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+}
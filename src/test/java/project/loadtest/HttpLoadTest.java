@@ -0,0 +1,255 @@
+package project.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import project.ProjectManagementApplication;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+// Load test HTTP: N client concorrenti eseguono in ciclo la stessa GET autenticata e si misurano
+// throughput e percentili di latenza. Senza url avvia l'applicazione in-process (H2 dei test).
+//
+// Argomenti chiave=valore: url, username, password, concurrency=400,
+// warmup=10 (secondi), duration=30 (secondi), path=/api/getTasksPage?size=50
+public final class HttpLoadTest {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private HttpLoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "400"));
+        Duration warmup = Duration.ofSeconds(Long.parseLong(options.getOrDefault("warmup", "10")));
+        Duration duration = Duration.ofSeconds(Long.parseLong(options.getOrDefault("duration", "30")));
+        String path = options.getOrDefault("path", "/api/getTasksPage?size=50");
+
+        List<LoadResult> results = new ArrayList<>();
+        if (options.containsKey("url")) {
+            String baseUrl = options.get("url");
+            String token = login(baseUrl, options.get("username"), options.get("password"));
+            results.add(run("remote", baseUrl + path, token, concurrency, warmup, duration));
+        } else {
+            try (ConfigurableApplicationContext context = start()) {
+                String baseUrl = "http://localhost:" + ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+                String token = seed(baseUrl);
+                results.add(run("in-process", baseUrl + path, token, concurrency, warmup, duration));
+            }
+        }
+
+        System.out.printf("%n%-10s %8s %8s %10s %10s %10s %10s%n", "target", "requests", "errors", "req/s", "p50 ms", "p99 ms", "max ms");
+        for (LoadResult result : results) {
+            System.out.printf("%-10s %8d %8d %10.1f %10.2f %10.2f %10.2f%n", result.name, result.requests(), result.errors,
+                    result.throughput(), result.percentileMillis(50), result.percentileMillis(99), result.percentileMillis(100));
+        }
+    }
+
+    // Esegue prima il riscaldamento (risultati scartati), poi la misura vera e propria
+    static LoadResult run(String name, String url, String token, int concurrency, Duration warmup, Duration duration) throws Exception {
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                .header("Authorization", "Bearer " + token)
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+
+        ExecutorService workers = clientExecutor(concurrency);
+        try {
+            System.out.printf("[%s] warming up for %ds with %d clients%n", name, warmup.getSeconds(), concurrency);
+            measure(name, client, request, workers, concurrency, warmup);
+            System.out.printf("[%s] measuring for %ds%n", name, duration.getSeconds());
+            return measure(name, client, request, workers, concurrency, duration);
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    private static LoadResult measure(String name, HttpClient client, HttpRequest request, ExecutorService workers,
+                                      int concurrency, Duration duration) throws Exception {
+        long deadline = System.nanoTime() + duration.toNanos();
+        List<Future<Recorder>> futures = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            futures.add(workers.submit(() -> {
+                Recorder recorder = new Recorder();
+                while (System.nanoTime() < deadline) {
+                    long start = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() == 200) {
+                            recorder.record(System.nanoTime() - start);
+                        } else {
+                            recorder.recordError();
+                        }
+                    } catch (Exception e) {
+                        recorder.recordError();
+                    }
+                }
+                return recorder;
+            }));
+        }
+
+        LoadResult result = new LoadResult(name, duration);
+        for (Future<Recorder> future : futures) {
+            result.merge(future.get());
+        }
+        return result;
+    }
+
+    // Un thread per client concorrente
+    static ExecutorService clientExecutor(int concurrency) {
+        return Executors.newFixedThreadPool(concurrency);
+    }
+
+    private static ConfigurableApplicationContext start() {
+        return new SpringApplicationBuilder(ProjectManagementApplication.class)
+                .properties("server.port=0")
+                .run();
+    }
+
+    // Un PM, un progetto e 500 task sul database in memoria
+    private static String seed(String baseUrl) throws Exception {
+        HttpClient client = HttpClient.newHttpClient();
+        post(client, baseUrl + "/api/auth/register", null,
+                "{\"username\":\"loadtest.pm\",\"password\":\"loadtest\",\"name\":\"Load Test\",\"role\":\"PM\"}");
+        String token = login(baseUrl, "loadtest.pm", "loadtest");
+
+        JsonNode project = OBJECT_MAPPER.readTree(post(client, baseUrl + "/api/createProject", token,
+                "{\"name\":\"Load test\",\"description\":\"Seeded project\",\"status\":\"IN_PROGRESS\"}"));
+        StringBuilder tasks = new StringBuilder("{\"create\":[");
+        for (int i = 0; i < 500; i++) {
+            tasks.append(i > 0 ? "," : "")
+                    .append("{\"title\":\"Task ").append(i).append("\",\"description\":\"Seeded task\",\"project\":{\"id\":")
+                    .append(project.get("id").asLong()).append("}}");
+        }
+        post(client, baseUrl + "/api/bulkTasks", token, tasks.append("]}").toString());
+        return token;
+    }
+
+    private static String login(String baseUrl, String username, String password) throws Exception {
+        String query = "username=" + URLEncoder.encode(username, StandardCharsets.UTF_8)
+                + "&password=" + URLEncoder.encode(password, StandardCharsets.UTF_8);
+        String body = post(HttpClient.newHttpClient(), baseUrl + "/api/auth/login?" + query, null, "");
+        return OBJECT_MAPPER.readTree(body).get("token").asText();
+    }
+
+    private static String post(HttpClient client, String url, String token, String json) throws Exception {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json));
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        HttpResponse<String> response = client.send(builder.build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() >= 300) {
+            throw new IllegalStateException("POST " + url + " failed with status " + response.statusCode());
+        }
+        return response.body();
+    }
+
+    static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator > 0) {
+                options.put(arg.substring(0, separator), arg.substring(separator + 1));
+            }
+        }
+        return options;
+    }
+
+    // Latenze di un singolo client (nessuna sincronizzazione durante la misura)
+    static final class Recorder {
+
+        private long[] latencies = new long[1024];
+        private int size;
+        private long errors;
+
+        void record(long nanos) {
+            if (size == latencies.length) {
+                latencies = Arrays.copyOf(latencies, size * 2);
+            }
+            latencies[size++] = nanos;
+        }
+
+        void recordError() {
+            errors++;
+        }
+    }
+
+    static final class LoadResult {
+
+        private final String name;
+        private final Duration duration;
+        private long[] latencies = new long[0];
+        private long errors;
+
+        LoadResult(String name, Duration duration) {
+            this.name = name;
+            this.duration = duration;
+        }
+
+        void merge(Recorder recorder) {
+            int offset = latencies.length;
+            latencies = Arrays.copyOf(latencies, offset + recorder.size);
+            System.arraycopy(recorder.latencies, 0, latencies, offset, recorder.size);
+            errors += recorder.errors;
+        }
+
+        void merge(LoadResult other) {
+            int offset = latencies.length;
+            latencies = Arrays.copyOf(latencies, offset + other.latencies.length);
+            System.arraycopy(other.latencies, 0, latencies, offset, other.latencies.length);
+            errors += other.errors;
+        }
+
+        String name() {
+            return name;
+        }
+
+        long requests() {
+            return latencies.length;
+        }
+
+        long errors() {
+            return errors;
+        }
+
+        double errorRate() {
+            long total = latencies.length + errors;
+            return total == 0 ? 0 : errors * 100.0 / total;
+        }
+
+        double throughput() {
+            return latencies.length / (duration.toMillis() / 1000.0);
+        }
+
+        double percentileMillis(double percentile) {
+            if (latencies.length == 0) {
+                return 0;
+            }
+            long[] sorted = latencies.clone();
+            Arrays.sort(sorted);
+            int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+            return TimeUnit.NANOSECONDS.toMicros(sorted[Math.max(index, 0)]) / 1000.0;
+        }
+    }
+}
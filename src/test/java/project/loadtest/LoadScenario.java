@@ -0,0 +1,318 @@
+package project.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import project.ProjectManagementApplication;
+
+import javax.sql.DataSource;
+import java.io.File;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+// Scenario di carico sugli endpoint REST reali con autenticazione JWT, su un dataset generato da DataGenerator:
+// 1) login burst: tutti gli utenti virtuali fanno login nello stesso istante
+// 2) traffico misto: i PM aprono la dashboard (pagina progetti, riepiloghi, task di un progetto),
+//    i dipendenti consultano i propri task e progetti e fanno avanzare lo stato dei task assegnati
+// Riporta per operazione richieste, errori, throughput e percentili di latenza.
+//
+// Senza url avvia l'applicazione in-process su un database H2 su file (db=target/loadtest/db), generato alla prima
+// esecuzione e riusato nelle successive. Con url misura un'istanza già avviata, popolata con DataGenerator.
+//
+// Argomenti chiave=valore: url, db, users=200, warmup=10, duration=60 (secondi), thinkTime=0 (ms),
+// più i volumi di DataGenerator (employees=10000, projects=5000, tasks=2000000, seed=42)
+public final class LoadScenario {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    // Un utente virtuale su dieci è un PM
+    private static final int PM_EVERY = 10;
+
+    private LoadScenario() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = HttpLoadTest.parse(args);
+        DataGenerator generator = DataGenerator.fromOptions(options);
+        int users = Math.min(Integer.parseInt(options.getOrDefault("users", "200")), generator.getEmployees());
+        Duration warmup = Duration.ofSeconds(Long.parseLong(options.getOrDefault("warmup", "10")));
+        Duration duration = Duration.ofSeconds(Long.parseLong(options.getOrDefault("duration", "60")));
+        long thinkTimeMillis = Long.parseLong(options.getOrDefault("thinkTime", "0"));
+        long seed = Long.parseLong(options.getOrDefault("seed", "42"));
+
+        ConfigurableApplicationContext context = null;
+        try {
+            String baseUrl = options.get("url");
+            if (baseUrl == null) {
+                context = start(new File(options.getOrDefault("db", "target/loadtest/db")));
+                generator.generate(context.getBean(DataSource.class));
+                baseUrl = "http://localhost:" + ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+            }
+
+            List<VirtualUser> virtualUsers = virtualUsers(users, generator.getEmployees(), seed);
+            HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+            ExecutorService workers = HttpLoadTest.clientExecutor(users);
+            try {
+                System.out.printf("Login burst with %d users%n", users);
+                Map<String, HttpLoadTest.LoadResult> login = loginBurst(client, baseUrl, virtualUsers, workers);
+                System.out.printf("Warming up for %ds%n", warmup.getSeconds());
+                mixedTraffic(client, baseUrl, virtualUsers, workers, warmup, thinkTimeMillis);
+                System.out.printf("Measuring for %ds%n", duration.getSeconds());
+                Map<String, HttpLoadTest.LoadResult> traffic = mixedTraffic(client, baseUrl, virtualUsers, workers, duration, thinkTimeMillis);
+                report(login, traffic, duration);
+            } finally {
+                workers.shutdownNow();
+            }
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+        }
+    }
+
+    private static ConfigurableApplicationContext start(File database) {
+        // Argomento da riga di comando: deve prevalere sull'URL in memoria di application.properties
+        return new SpringApplicationBuilder(ProjectManagementApplication.class)
+                .properties("server.port=0")
+                .run("--spring.datasource.url=jdbc:h2:file:" + database.getAbsolutePath()
+                        + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_ON_EXIT=FALSE");
+    }
+
+    // Utenti scelti in modo deterministico tra gli id generati, rispettando la proporzione PM/dipendenti
+    private static List<VirtualUser> virtualUsers(int users, int employees, long seed) {
+        Random random = new Random(seed);
+        Set<Long> ids = new LinkedHashSet<>();
+        List<VirtualUser> virtualUsers = new ArrayList<>(users);
+        while (virtualUsers.size() < users) {
+            boolean wantPm = virtualUsers.size() % PM_EVERY == 0;
+            long id = 1 + random.nextInt(employees);
+            if (DataGenerator.isProjectManager(id) == wantPm && ids.add(id)) {
+                virtualUsers.add(new VirtualUser(id, wantPm, seed + id));
+            }
+        }
+        return virtualUsers;
+    }
+
+    // Tutti i login partono insieme; le risposte 503 del pool di hashing saturo contano come errori e vengono ritentate
+    private static Map<String, HttpLoadTest.LoadResult> loginBurst(HttpClient client, String baseUrl, List<VirtualUser> virtualUsers,
+                                                                  ExecutorService workers) throws Exception {
+        CountDownLatch startGate = new CountDownLatch(1);
+        List<Future<HttpLoadTest.Recorder>> futures = new ArrayList<>();
+        for (VirtualUser user : virtualUsers) {
+            futures.add(workers.submit(() -> {
+                HttpLoadTest.Recorder recorder = new HttpLoadTest.Recorder();
+                startGate.await();
+                for (int attempt = 0; attempt < 30 && user.token == null; attempt++) {
+                    String query = "username=" + URLEncoder.encode("loadtest.user" + user.id, StandardCharsets.UTF_8)
+                            + "&password=" + URLEncoder.encode(DataGenerator.PASSWORD, StandardCharsets.UTF_8);
+                    HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/login?" + query))
+                            .timeout(Duration.ofSeconds(60))
+                            .POST(HttpRequest.BodyPublishers.noBody())
+                            .build();
+                    long start = System.nanoTime();
+                    try {
+                        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+                        if (response.statusCode() == 200) {
+                            recorder.record(System.nanoTime() - start);
+                            user.token = OBJECT_MAPPER.readTree(response.body()).get("token").asText();
+                        } else {
+                            recorder.recordError();
+                            Thread.sleep(1000);
+                        }
+                    } catch (Exception e) {
+                        recorder.recordError();
+                    }
+                }
+                return recorder;
+            }));
+        }
+        long start = System.nanoTime();
+        startGate.countDown();
+        List<HttpLoadTest.Recorder> recorders = new ArrayList<>();
+        for (Future<HttpLoadTest.Recorder> future : futures) {
+            recorders.add(future.get());
+        }
+        HttpLoadTest.LoadResult result = new HttpLoadTest.LoadResult("login", Duration.ofNanos(System.nanoTime() - start));
+        recorders.forEach(result::merge);
+        long loggedIn = virtualUsers.stream().filter(user -> user.token != null).count();
+        if (loggedIn < virtualUsers.size()) {
+            System.out.printf("%d users could not log in and are excluded from the traffic phase%n", virtualUsers.size() - loggedIn);
+        }
+        Map<String, HttpLoadTest.LoadResult> results = new LinkedHashMap<>();
+        results.put(result.name(), result);
+        return results;
+    }
+
+    private static Map<String, HttpLoadTest.LoadResult> mixedTraffic(HttpClient client, String baseUrl, List<VirtualUser> virtualUsers,
+                                                                    ExecutorService workers, Duration duration,
+                                                                    long thinkTimeMillis) throws Exception {
+        long deadline = System.nanoTime() + duration.toNanos();
+        List<Future<Map<String, HttpLoadTest.Recorder>>> futures = new ArrayList<>();
+        for (VirtualUser user : virtualUsers) {
+            if (user.token == null) {
+                continue;
+            }
+            futures.add(workers.submit(() -> {
+                Map<String, HttpLoadTest.Recorder> recorders = new LinkedHashMap<>();
+                Session session = new Session(client, baseUrl, user, recorders);
+                while (System.nanoTime() < deadline) {
+                    if (user.pm) {
+                        session.dashboard();
+                    } else {
+                        session.employeeStep();
+                    }
+                    if (thinkTimeMillis > 0) {
+                        Thread.sleep(thinkTimeMillis);
+                    }
+                }
+                return recorders;
+            }));
+        }
+
+        Map<String, HttpLoadTest.LoadResult> results = new LinkedHashMap<>();
+        for (Future<Map<String, HttpLoadTest.Recorder>> future : futures) {
+            for (Map.Entry<String, HttpLoadTest.Recorder> entry : future.get().entrySet()) {
+                results.computeIfAbsent(entry.getKey(), name -> new HttpLoadTest.LoadResult(name, duration)).merge(entry.getValue());
+            }
+        }
+        return results;
+    }
+
+    private static void report(Map<String, HttpLoadTest.LoadResult> login, Map<String, HttpLoadTest.LoadResult> traffic, Duration duration) {
+        System.out.printf("%n%-18s %9s %8s %7s %9s %9s %9s %9s %9s%n",
+                "operation", "requests", "errors", "err %", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms");
+        login.values().forEach(LoadScenario::print);
+        HttpLoadTest.LoadResult total = new HttpLoadTest.LoadResult("total", duration);
+        for (HttpLoadTest.LoadResult result : traffic.values()) {
+            print(result);
+            total.merge(result);
+        }
+        print(total);
+    }
+
+    private static void print(HttpLoadTest.LoadResult result) {
+        System.out.printf("%-18s %9d %8d %7.2f %9.1f %9.2f %9.2f %9.2f %9.2f%n", result.name(), result.requests(), result.errors(),
+                result.errorRate(), result.throughput(), result.percentileMillis(50), result.percentileMillis(95),
+                result.percentileMillis(99), result.percentileMillis(100));
+    }
+
+    static final class VirtualUser {
+
+        private final long id;
+        private final boolean pm;
+        private final Random random;
+        private volatile String token;
+
+        VirtualUser(long id, boolean pm, long seed) {
+            this.id = id;
+            this.pm = pm;
+            this.random = new Random(seed);
+        }
+    }
+
+    // Passi dello scenario di un singolo utente virtuale, con i task aperti visti nell'ultima lettura
+    static final class Session {
+
+        private final HttpClient client;
+        private final String baseUrl;
+        private final VirtualUser user;
+        private final Map<String, HttpLoadTest.Recorder> recorders;
+        private List<JsonNode> openTasks = new ArrayList<>();
+        private Long projectCursor;
+
+        Session(HttpClient client, String baseUrl, VirtualUser user, Map<String, HttpLoadTest.Recorder> recorders) {
+            this.client = client;
+            this.baseUrl = baseUrl;
+            this.user = user;
+            this.recorders = recorders;
+        }
+
+        // Dashboard del PM: la pagina successiva di progetti (si ricomincia dopo l'ultima), i loro riepiloghi
+        // e la prima pagina di task di uno di essi
+        void dashboard() {
+            JsonNode page = send("projectsPage", get("/api/getProjectsPage?size=20"
+                    + (projectCursor != null ? "&afterId=" + projectCursor : "")));
+            if (page == null) {
+                return;
+            }
+            projectCursor = page.path("nextCursor").isNumber() ? page.path("nextCursor").asLong() : null;
+            List<String> projectIds = new ArrayList<>();
+            page.path("items").forEach(project -> projectIds.add(project.path("id").asText()));
+            if (projectIds.isEmpty()) {
+                return;
+            }
+            send("projectSummaries", get("/api/getProjectSummaries?projectIds=" + String.join(",", projectIds)));
+            send("tasksPage", get("/api/getTasksPage?size=50&projectId=" + projectIds.get(user.random.nextInt(projectIds.size()))));
+        }
+
+        // Dipendente: per lo più consulta i propri task, a volte i progetti, e fa avanzare lo stato di un task aperto
+        void employeeStep() {
+            int roll = user.random.nextInt(100);
+            if (roll < 20 && !openTasks.isEmpty()) {
+                JsonNode task = openTasks.remove(user.random.nextInt(openTasks.size()));
+                String nextStatus = "TO_DO".equals(task.path("status").asText()) ? "IN_PROGRESS" : "COMPLETED";
+                String body = "{\"id\":" + task.path("id").asLong() + ",\"status\":\"" + nextStatus + "\"}";
+                send("updateTask", request("/api/updateTask").PUT(HttpRequest.BodyPublishers.ofString(body)).build());
+            } else if (roll < 40) {
+                send("myProjects", get("/api/getProjectsForEmployee?employeeId=" + user.id));
+            } else {
+                JsonNode tasks = send("myTasks", get("/api/getTaskViewsByEmployee?employeeId=" + user.id));
+                if (tasks != null) {
+                    List<JsonNode> open = new ArrayList<>();
+                    tasks.forEach(open::add);
+                    openTasks = open.stream()
+                            .filter(task -> !"COMPLETED".equals(task.path("status").asText()))
+                            .collect(Collectors.toList());
+                }
+            }
+        }
+
+        private HttpRequest get(String path) {
+            return request(path).GET().build();
+        }
+
+        private HttpRequest.Builder request(String path) {
+            return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .header("Authorization", "Bearer " + user.token)
+                    .header("Content-Type", "application/json")
+                    .timeout(Duration.ofSeconds(30));
+        }
+
+        private JsonNode send(String operation, HttpRequest request) {
+            HttpLoadTest.Recorder recorder = recorders.computeIfAbsent(operation, name -> new HttpLoadTest.Recorder());
+            long start = System.nanoTime();
+            try {
+                HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+                if (response.statusCode() == 200) {
+                    recorder.record(System.nanoTime() - start);
+                    return OBJECT_MAPPER.readTree(response.body());
+                }
+                recorder.recordError();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                recorder.recordError();
+            } catch (Exception e) {
+                recorder.recordError();
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package project.repositories;
+
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import project.dto.TaskFilter;
+import project.enums.ProjectStatusEnum;
+import project.enums.RoleEnum;
+import project.enums.TaskStatusEnum;
+import project.model.Employee;
+import project.model.Project;
+import project.model.Task;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Lo schema creato dalle migrazioni Flyway ha gli indici usati dalle query più frequenti dei repository:
+// si cattura l'SQL generato da Hibernate per i metodi dei repository e se ne chiede il piano a H2
+@SpringBootTest
+class QueryPlanIndexTest {
+
+    private static final List<QueryInfo> CAPTURED = new CopyOnWriteArrayList<>();
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private final List<Employee> employees = new ArrayList<>();
+    private final List<Project> projects = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+        taskRepository.deleteAllInBatch();
+        projectRepository.deleteAllInBatch();
+        employeeRepository.deleteAllInBatch();
+
+        // Pochi progetti e dipendenti con molti task in stati diversi, come in produzione
+        employees.clear();
+        projects.clear();
+        for (int i = 0; i < 5; i++) {
+            Employee employee = new Employee("plan.user" + i, "secret");
+            employee.setRole(RoleEnum.EMPLOYEE);
+            employees.add(employeeRepository.save(employee));
+            projects.add(projectRepository.save(new Project("Project " + i, "Description",
+                    LocalDate.now(), LocalDate.now().plusMonths(1), ProjectStatusEnum.IN_PROGRESS)));
+        }
+        List<Task> tasks = new ArrayList<>();
+        TaskStatusEnum[] statuses = TaskStatusEnum.values();
+        for (int i = 0; i < 300; i++) {
+            tasks.add(new Task("Task " + i, "Description", LocalDate.now().plusDays(i % 60),
+                    projects.get(i % projects.size()), employees.get(i % employees.size()), statuses[i % statuses.length]));
+        }
+        taskRepository.saveAll(tasks);
+
+        // Statistiche di selettività aggiornate per il planner di H2
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @Test
+    void loginLookupUsesUniqueUsernameIndex() {
+        assertThat(plan(() -> employeeRepository.findByUsername("plan.user3")))
+                .containsIgnoringCase("ux_employee_username");
+    }
+
+    // Sulla sola colonna di foreign key H2 può scegliere anche l'indice creato per il vincolo (MySQL lo elimina
+    // quando esiste l'indice composto): basta che non sia una scansione della tabella
+    @Test
+    void employeeTasksUseEmployeeIndex() {
+        assertThat(plan(() -> taskRepository.findByEmployeeId(employees.get(1).getId())))
+                .doesNotContainIgnoringCase("tableScan")
+                .containsIgnoringCase("employee_id = ");
+        assertThat(plan(() -> taskRepository.findPageAfter(0L,
+                new TaskFilter(TaskStatusEnum.TO_DO, null, null, null, employees.get(1).getId()), 21)))
+                .containsIgnoringCase("ix_task_employee_status");
+        assertThat(plan(() -> taskRepository.findViewsByEmployeeId(employees.get(1).getId())))
+                .doesNotContainIgnoringCase("tableScan")
+                .containsIgnoringCase("employee_id = ");
+    }
+
+    @Test
+    void projectTasksUseProjectIndex() {
+        assertThat(plan(() -> taskRepository.findEmployeeIdsByProjectId(projects.get(1).getId())))
+                .doesNotContainIgnoringCase("tableScan")
+                .containsIgnoringCase("project_id = ");
+        assertThat(plan(() -> taskRepository.findPageAfter(0L,
+                new TaskFilter(TaskStatusEnum.IN_PROGRESS, null, null, projects.get(1).getId(), null), 21)))
+                .containsIgnoringCase("ix_task_project_status");
+    }
+
+    @Test
+    void employeeProjectsSemiJoinUsesCoveringIndex() {
+        assertThat(plan(() -> projectRepository.findProjectViewsByEmployeeId(employees.get(1).getId())))
+                .containsIgnoringCase("ix_task_employee_project");
+    }
+
+    // Con il solo intervallo di scadenza H2 non stima la selettività del range e preferisce la chiave primaria,
+    // già nell'ordine della pagina (si ferma al limite): niente scansione completa e niente ordinamento
+    @Test
+    void statusAndDueDateFiltersUseIndexes() {
+        LocalDate today = LocalDate.now();
+        assertThat(plan(() -> taskRepository.findPageAfter(0L,
+                new TaskFilter(TaskStatusEnum.TO_DO, today, today.plusDays(7), null, null), 21)))
+                .containsIgnoringCase("ix_task_status_due_date");
+        assertThat(plan(() -> taskRepository.findPageAfter(0L,
+                new TaskFilter(null, today.plusDays(58), today.plusDays(59), null, null), 21)))
+                .doesNotContainIgnoringCase("tableScan")
+                .containsIgnoringCase("index sorted");
+    }
+
+    @Test
+    void filteredPagesUseStatusAndRoleIndexes() {
+        assertThat(plan(() -> projectRepository.findPageByStatusAfter(ProjectStatusEnum.COMPLETED, 0L, PageRequest.ofSize(21))))
+                .containsIgnoringCase("ix_project_status");
+        assertThat(plan(() -> employeeRepository.findPageByRoleAfter(RoleEnum.PM, 0L, PageRequest.ofSize(21))))
+                .containsIgnoringCase("ix_employee_role");
+    }
+
+    // Piano della query generata da Hibernate (l'unica eseguita da lookup), con i parametri effettivamente legati
+    private String plan(Runnable lookup) {
+        CAPTURED.clear();
+        lookup.run();
+        assertThat(CAPTURED).hasSize(1);
+        QueryInfo query = CAPTURED.get(0);
+        assertThat(query.getParametersList()).hasSize(1);
+        Object[] parameters = query.getParametersList().get(0).stream()
+                .sorted(Comparator.comparingInt(operation -> (Integer) operation.getArgs()[0]))
+                .map(operation -> "setNull".equals(operation.getMethod().getName()) ? null : operation.getArgs()[1])
+                .toArray();
+        return jdbcTemplate.queryForObject("EXPLAIN " + query.getQuery(), String.class, parameters);
+    }
+
+    @TestConfiguration
+    static class CapturingDataSourceConfig {
+
+        // Registra le query eseguite attraverso il DataSource dell'applicazione
+        @Bean
+        static BeanPostProcessor capturingDataSourcePostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (bean instanceof DataSource && "dataSource".equals(beanName)) {
+                        return ProxyDataSourceBuilder.create((DataSource) bean)
+                                .afterQuery((execInfo, queries) -> CAPTURED.addAll(queries))
+                                .build();
+                    }
+                    return bean;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package project.repositories;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import project.enums.TaskStatusEnum;
+import project.model.Task;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Migrazione di un database MySQL già popolato (baseline da ddl-auto): la tabella task_seq deve partire oltre gli id
+// esistenti tenendo conto dell'ottimizzatore pooled, altrimenti i primi INSERT riusano id già assegnati.
+// Database H2 dedicato in modalità MySQL, script e dialetto MySQL (sequenza su tabella, come in produzione)
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:TaskSequenceMigration;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.flyway.locations=classpath:db/migration/common,classpath:db/migration/mysql",
+        "spring.jpa.database-platform=org.hibernate.dialect.MySQL8Dialect"
+})
+class TaskSequenceMigrationTest {
+
+    private static final long EXISTING_TASKS = 120;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void tasksSavedAfterMigrationDoNotReuseExistingIds() {
+        assertThat(jdbcTemplate.queryForObject("SELECT next_val FROM task_seq", Long.class))
+                .isEqualTo(EXISTING_TASKS + 50);
+
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            tasks.add(new Task("New task " + i, "Description", LocalDate.now(), null, null, TaskStatusEnum.TO_DO));
+        }
+        taskRepository.saveAll(tasks);
+
+        assertThat(tasks).allSatisfy(task -> assertThat(task.getId()).isGreaterThan(EXISTING_TASKS));
+        assertThat(taskRepository.count()).isEqualTo(EXISTING_TASKS + tasks.size());
+    }
+
+    @TestConfiguration
+    static class PopulatedSchemaConfig {
+
+        // Schema alla versione 1 con task già presenti, poi le migrazioni successive (task_seq compresa)
+        @Bean
+        FlywayMigrationStrategy populatedSchemaMigration() {
+            return flyway -> {
+                Flyway.configure().configuration(flyway.getConfiguration()).target("1").load().migrate();
+                JdbcTemplate jdbc = new JdbcTemplate(flyway.getConfiguration().getDataSource());
+                for (long id = 1; id <= EXISTING_TASKS; id++) {
+                    jdbc.update("INSERT INTO task (id, title, status, is_completed) VALUES (?, ?, 'TO_DO', 0)", id, "Existing task " + id);
+                }
+                flyway.migrate();
+            };
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package project.security;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import project.model.Employee;
+import project.repositories.EmployeeRepository;
+import project.services.EmployeeService;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CredentialVerifierTest {
+
+    private final EmployeeRepository employeeRepository = mock(EmployeeRepository.class);
+    private final EmployeeService employeeService = mock(EmployeeService.class);
+    private static final int STRENGTH = 5;
+
+    private final BCryptPasswordEncoder passwordEncoder = spy(new BCryptPasswordEncoder(STRENGTH));
+
+    private CredentialVerifier credentialVerifier;
+
+    @AfterEach
+    void tearDown() {
+        if (credentialVerifier != null) {
+            credentialVerifier.destroy();
+        }
+    }
+
+    @Test
+    void cachedCredentialsSkipHashing() {
+        Employee employee = employee("mario", passwordEncoder.encode("secret"));
+        credentialVerifier = verifier(1, 10);
+
+        assertTrue(credentialVerifier.verify("mario", "secret").join().isPresent());
+        assertTrue(credentialVerifier.verify("mario", "secret").join().isPresent());
+        assertFalse(credentialVerifier.verify("mario", "wrong").join().isPresent());
+
+        // Un solo matches per la password corretta, uno per quella errata
+        verify(passwordEncoder, times(1)).matches(eq("secret"), anyString());
+        verify(passwordEncoder, times(1)).matches(eq("wrong"), anyString());
+        verify(employeeService, never()).updatePasswordHash(any(), anyString());
+    }
+
+    @Test
+    void weakerHashIsUpgradedOnLogin() {
+        Employee employee = employee("luigi", new BCryptPasswordEncoder(4).encode("secret"));
+        credentialVerifier = verifier(1, 10);
+
+        Optional<Employee> result = credentialVerifier.verify("luigi", "secret").join();
+
+        assertTrue(result.isPresent());
+        verify(employeeService).updatePasswordHash(eq(employee), anyString());
+    }
+
+    @Test
+    void strongerHashIsRehashedWhenCostIsLowered() {
+        Employee employee = employee("paola", new BCryptPasswordEncoder(6).encode("secret"));
+        credentialVerifier = verifier(1, 10);
+
+        assertTrue(credentialVerifier.verify("paola", "secret").join().isPresent());
+
+        ArgumentCaptor<String> rehashed = ArgumentCaptor.forClass(String.class);
+        verify(employeeService).updatePasswordHash(eq(employee), rehashed.capture());
+        assertTrue(rehashed.getValue().startsWith("$2a$0" + STRENGTH + "$"));
+    }
+
+    @Test
+    void saturatedPoolRejectsImmediately() throws Exception {
+        employee("anna", passwordEncoder.encode("secret"));
+        credentialVerifier = verifier(1, 0);
+
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            started.countDown();
+            release.await();
+            return invocation.callRealMethod();
+        }).when(passwordEncoder).matches(anyString(), anyString());
+
+        CompletableFuture<Optional<Employee>> first = credentialVerifier.verify("anna", "secret");
+        started.await();
+        assertThrows(RejectedExecutionException.class, () -> credentialVerifier.verify("anna", "secret"));
+
+        release.countDown();
+        assertTrue(first.join().isPresent());
+    }
+
+    private CredentialVerifier verifier(int threads, int queueCapacity) {
+        return new CredentialVerifier(employeeRepository, employeeService, passwordEncoder, STRENGTH,
+                threads, queueCapacity, 100, Duration.ofMinutes(5));
+    }
+
+    private Employee employee(String username, String encodedPassword) {
+        Employee employee = new Employee(username, encodedPassword);
+        employee.setId(1L);
+        when(employeeRepository.findByUsername(username)).thenReturn(employee);
+        return employee;
+    }
+}
@@ -0,0 +1,111 @@
+package project.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import project.dto.ChangeEvent;
+import project.enums.ChangeEventTypeEnum;
+import project.services.impl.ChangeFeedServiceImpl;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Un client che non legge (scrittura sul socket bloccata) viene disconnesso dopo change-feed.send-timeout
+// e non ferma gli invii agli altri sottoscrittori, anche con un solo thread di invio
+class ChangeFeedServiceTest {
+
+    private static final Duration SEND_TIMEOUT = Duration.ofMillis(200);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CountDownLatch blockedSendStarted = new CountDownLatch(1);
+    private final CountDownLatch releaseBlockedSend = new CountDownLatch(1);
+    private final List<String> received = new CopyOnWriteArrayList<>();
+
+    private boolean nextSubscriberReads;
+    private ChangeFeedServiceImpl changeFeedService;
+
+    @AfterEach
+    void tearDown() {
+        releaseBlockedSend.countDown();
+        if (changeFeedService != null) {
+            changeFeedService.destroy();
+        }
+    }
+
+    @Test
+    void nonReadingSubscriberIsEvictedWithoutStallingOthers() throws Exception {
+        changeFeedService = new ChangeFeedServiceImpl(new ObjectMapper(), meterRegistry,
+                16, 16, Duration.ofMinutes(30), Duration.ofSeconds(5), SEND_TIMEOUT, 1) {
+            @Override
+            protected SseEmitter newEmitter(long timeoutMillis) {
+                return nextSubscriberReads ? new RecordingEmitter() : new NonReadingEmitter();
+            }
+        };
+
+        changeFeedService.subscribe(null, null, null);
+        assertThat(blockedSendStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        nextSubscriberReads = true;
+        changeFeedService.subscribe(null, null, null);
+        changeFeedService.onChange(ChangeEvent.task(ChangeEventTypeEnum.TASK_CREATED, 1L, 1L, 1L));
+
+        // L'unico thread di invio è fermo sul client che non legge
+        Thread.sleep(SEND_TIMEOUT.toMillis() * 2);
+        assertThat(received).isEmpty();
+
+        changeFeedService.evictStalledSubscribers();
+
+        awaitReceived(2);
+        assertThat(received.get(0)).contains(":connected");
+        assertThat(received.get(1)).contains("event:TASK_CREATED");
+        assertThat(changeFeedService.getSubscriberCount()).isEqualTo(1);
+        assertThat(meterRegistry.get("change.feed.evictions").counter().count()).isEqualTo(1);
+
+        // La scrittura bloccata termina: il sottoscrittore espulso non riceve altro, gli altri sì
+        releaseBlockedSend.countDown();
+        changeFeedService.onChange(ChangeEvent.task(ChangeEventTypeEnum.TASK_UPDATED, 1L, 1L, 1L));
+        awaitReceived(3);
+        assertThat(received.get(2)).contains("event:TASK_UPDATED");
+    }
+
+    private void awaitReceived(int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (received.size() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(received).hasSize(count);
+    }
+
+    // Client che non legge: la prima scrittura resta bloccata come su un socket con i buffer pieni
+    private class NonReadingEmitter extends SseEmitter {
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            blockedSendStarted.countDown();
+            try {
+                releaseBlockedSend.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            throw new IOException("Broken pipe");
+        }
+    }
+
+    private class RecordingEmitter extends SseEmitter {
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            received.add(builder.build().stream()
+                    .map(data -> String.valueOf(data.getData()))
+                    .collect(Collectors.joining()));
+        }
+    }
+}
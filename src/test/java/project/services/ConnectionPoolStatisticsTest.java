@@ -0,0 +1,57 @@
+package project.services;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import project.dto.ConnectionPoolStatistics;
+import project.repositories.ProjectRepository;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Le statistiche del pool riflettono la configurazione e le connessioni effettivamente in uso
+@SpringBootTest
+class ConnectionPoolStatisticsTest {
+
+    @Autowired
+    private StatisticsService statisticsService;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void poolStatisticsTrackConfigurationAndBorrowedConnections() throws Exception {
+        projectRepository.count();
+
+        HikariDataSource hikari = dataSource.unwrap(HikariDataSource.class);
+        assertThat(hikari.getLeakDetectionThreshold()).isEqualTo(60000);
+
+        ConnectionPoolStatistics before = poolStatistics();
+        assertThat(before.getMaxConnections()).isEqualTo(10);
+        assertThat(before.getAcquireCount()).isPositive();
+        assertThat(before.getUsageCount()).isPositive();
+        // Connessioni aperte all'avvio (Flyway, Hibernate): il tracker è collegato prima che il pool parta
+        assertThat(before.getConnectionsCreated()).isPositive();
+        assertThat(before.getConnectionTimeouts()).isZero();
+
+        try (Connection connection = dataSource.getConnection()) {
+            ConnectionPoolStatistics during = poolStatistics();
+            assertThat(during.getAcquireCount()).isEqualTo(before.getAcquireCount() + 1);
+            assertThat(during.getAcquireMaxMillis()).isGreaterThanOrEqualTo(during.getAcquireP99Millis());
+        }
+        assertThat(poolStatistics().getUsageCount()).isEqualTo(before.getUsageCount() + 1);
+    }
+
+    private ConnectionPoolStatistics poolStatistics() {
+        List<ConnectionPoolStatistics> statistics = statisticsService.getConnectionPoolStatistics();
+        assertThat(statistics).extracting(ConnectionPoolStatistics::getPoolName).containsExactly("ProjectManagementPool");
+        return statistics.get(0);
+    }
+}
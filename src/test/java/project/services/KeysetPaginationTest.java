@@ -0,0 +1,268 @@
+package project.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import project.dto.KeysetPage;
+import project.dto.TaskFilter;
+import project.enums.ProjectStatusEnum;
+import project.enums.RoleEnum;
+import project.enums.TaskStatusEnum;
+import project.model.Employee;
+import project.model.Project;
+import project.model.Task;
+import project.repositories.EmployeeRepository;
+import project.repositories.ProjectRepository;
+import project.repositories.TaskRepository;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Paginazione a cursore: ogni riga compare una sola volta percorrendo le pagine, anche con i filtri,
+// e l'ultima pagina non ha cursore (nessuna riga oltre size)
+@SpringBootTest
+class KeysetPaginationTest {
+
+    private static final LocalDate BASE_DATE = LocalDate.of(2030, 1, 10);
+    private static final TaskStatusEnum[] STATUSES = TaskStatusEnum.values();
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private ProjectService projectService;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    private List<Employee> employees;
+    private List<Project> projects;
+    private List<Task> tasks;
+
+    @BeforeEach
+    void setUp() {
+        taskRepository.deleteAllInBatch();
+        projectRepository.deleteAllInBatch();
+        employeeRepository.deleteAllInBatch();
+
+        employees = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Employee employee = new Employee("page.user" + i, "secret");
+            employee.setRole(i == 0 ? RoleEnum.PM : RoleEnum.EMPLOYEE);
+            employees.add(employeeRepository.save(employee));
+        }
+        projects = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            projects.add(projectRepository.save(new Project("Project " + i, "Description", BASE_DATE, BASE_DATE.plusMonths(1),
+                    i % 2 == 0 ? ProjectStatusEnum.IN_PROGRESS : ProjectStatusEnum.COMPLETED)));
+        }
+        // Combinazioni diverse di stato, scadenza, progetto e dipendente; più task nello stesso giorno
+        tasks = new ArrayList<>();
+        for (int i = 0; i < 24; i++) {
+            tasks.add(taskRepository.save(new Task("Task " + i, "Description", BASE_DATE.plusDays(i / 2),
+                    projects.get(i % 2), employees.get((i / 3) % 3), STATUSES[i % STATUSES.length])));
+        }
+    }
+
+    @Test
+    void cursorVisitsEveryTaskOnceInIdOrder() {
+        List<KeysetPage<Task>> pages = walkTasks(new TaskFilter(), 5);
+
+        assertThat(pages).extracting(page -> page.getItems().size()).containsExactly(5, 5, 5, 5, 4);
+        for (KeysetPage<Task> page : pages.subList(0, pages.size() - 1)) {
+            assertThat(page.getNextCursor()).isEqualTo(page.getItems().get(page.getItems().size() - 1).getId());
+            assertThat(page.isHasMore()).isTrue();
+        }
+        assertThat(pages.get(pages.size() - 1).getNextCursor()).isNull();
+        assertThat(ids(pages)).containsExactlyElementsOf(expectedIds(task -> true));
+    }
+
+    @Test
+    void fullLastPageHasNoCursor() {
+        // 24 task in pagine da 8: la terza pagina è piena, ma la riga in più non c'è
+        List<KeysetPage<Task>> pages = walkTasks(new TaskFilter(), 8);
+
+        assertThat(pages).extracting(page -> page.getItems().size()).containsExactly(8, 8, 8);
+        assertThat(pages.get(2).getNextCursor()).isNull();
+        assertThat(pages.get(2).isHasMore()).isFalse();
+        assertThat(ids(pages)).containsExactlyElementsOf(expectedIds(task -> true));
+    }
+
+    @Test
+    void cursorPastTheLastTaskReturnsAnEmptyPage() {
+        long lastId = tasks.get(tasks.size() - 1).getId();
+
+        KeysetPage<Task> page = taskService.getTasksPage(lastId, 5, new TaskFilter());
+
+        assertThat(page.getItems()).isEmpty();
+        assertThat(page.getNextCursor()).isNull();
+        // Cursore negativo o assente: prima pagina
+        assertThat(taskService.getTasksPage(-1L, 5, null).getItems()).extracting(Task::getId)
+                .containsExactlyElementsOf(expectedIds(task -> true).subList(0, 5));
+    }
+
+    @Test
+    void eachTaskFilterAloneSelectsOnlyMatchingTasks() {
+        Project project = projects.get(1);
+        Employee employee = employees.get(2);
+
+        assertFilter(new TaskFilter(TaskStatusEnum.IN_PROGRESS, null, null, null, null),
+                task -> task.getStatus() == TaskStatusEnum.IN_PROGRESS);
+        assertFilter(new TaskFilter(null, null, null, project.getId(), null),
+                task -> task.getProject().getId().equals(project.getId()));
+        assertFilter(new TaskFilter(null, null, null, null, employee.getId()),
+                task -> task.getEmployee().getId().equals(employee.getId()));
+        assertFilter(new TaskFilter(null, BASE_DATE.plusDays(7), null, null, null),
+                task -> !task.getDueDate().isBefore(BASE_DATE.plusDays(7)));
+        assertFilter(new TaskFilter(null, null, BASE_DATE.plusDays(3), null, null),
+                task -> !task.getDueDate().isAfter(BASE_DATE.plusDays(3)));
+    }
+
+    @Test
+    void combinedTaskFiltersMustAllMatch() {
+        Project project = projects.get(0);
+        Employee employee = employees.get(1);
+        LocalDate from = BASE_DATE.plusDays(2);
+        LocalDate to = BASE_DATE.plusDays(9);
+
+        assertFilter(new TaskFilter(TaskStatusEnum.TO_DO, from, to, null, null),
+                task -> task.getStatus() == TaskStatusEnum.TO_DO && inRange(task, from, to));
+        assertFilter(new TaskFilter(null, from, to, project.getId(), employee.getId()),
+                task -> task.getProject().getId().equals(project.getId())
+                        && task.getEmployee().getId().equals(employee.getId()) && inRange(task, from, to));
+        assertFilter(new TaskFilter(TaskStatusEnum.COMPLETED, from, to, project.getId(), employee.getId()),
+                task -> task.getStatus() == TaskStatusEnum.COMPLETED && task.getProject().getId().equals(project.getId())
+                        && task.getEmployee().getId().equals(employee.getId()) && inRange(task, from, to));
+        // Nessun task soddisfa tutte le condizioni: pagina vuota senza cursore
+        assertFilter(new TaskFilter(null, null, null, projects.get(4).getId(), null), task -> false);
+    }
+
+    @Test
+    void dueDateBoundsAreInclusive() {
+        LocalDate day = BASE_DATE.plusDays(5);
+
+        // Due task scadono esattamente il giorno indicato: inclusi con dueFrom = dueTo
+        assertFilter(new TaskFilter(null, day, day, null, null), task -> task.getDueDate().isEqual(day));
+        assertThat(walkTasks(new TaskFilter(null, day, day, null, null), 1)).hasSize(2);
+        assertFilter(new TaskFilter(null, day, day.plusDays(1), null, null), task -> inRange(task, day, day.plusDays(1)));
+        // Intervallo rovesciato o fuori dai dati: nessun task
+        assertFilter(new TaskFilter(null, day.plusDays(1), day, null, null), task -> false);
+        assertFilter(new TaskFilter(null, BASE_DATE.plusDays(12), null, null, null), task -> false);
+        assertFilter(new TaskFilter(null, null, BASE_DATE.minusDays(1), null, null), task -> false);
+    }
+
+    @Test
+    void pageSizeIsClampedToTheAllowedRange() {
+        List<Task> extra = new ArrayList<>();
+        for (int i = 0; i < KeysetPage.MAX_PAGE_SIZE; i++) {
+            extra.add(new Task("Extra " + i, "Description", BASE_DATE, projects.get(0), employees.get(0), TaskStatusEnum.TO_DO));
+        }
+        taskRepository.saveAll(extra);
+
+        for (Integer size : new Integer[]{null, 0, -3}) {
+            KeysetPage<Task> page = taskService.getTasksPage(null, size, new TaskFilter());
+            assertThat(page.getItems()).hasSize(KeysetPage.DEFAULT_PAGE_SIZE);
+            assertThat(page.getNextCursor()).isNotNull();
+        }
+        KeysetPage<Task> page = taskService.getTasksPage(null, KeysetPage.MAX_PAGE_SIZE * 5, new TaskFilter());
+        assertThat(page.getItems()).hasSize(KeysetPage.MAX_PAGE_SIZE);
+        assertThat(page.getNextCursor()).isNotNull();
+
+        KeysetPage<Task> last = taskService.getTasksPage(page.getNextCursor(), KeysetPage.MAX_PAGE_SIZE + 1, new TaskFilter());
+        assertThat(last.getItems()).hasSize(tasks.size());
+        assertThat(last.getNextCursor()).isNull();
+    }
+
+    @Test
+    void projectAndEmployeePagesFollowTheSameCursor() {
+        List<Long> projectIds = new ArrayList<>();
+        Long cursor = null;
+        do {
+            KeysetPage<Project> page = projectService.getProjectsPage(cursor, 2, null);
+            page.getItems().forEach(project -> projectIds.add(project.getId()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        assertThat(projectIds).containsExactlyElementsOf(projects.stream().map(Project::getId).collect(Collectors.toList()));
+
+        KeysetPage<Project> completed = projectService.getProjectsPage(null, 2, ProjectStatusEnum.COMPLETED);
+        assertThat(completed.getItems()).extracting(Project::getId).containsExactly(projects.get(1).getId(), projects.get(3).getId());
+        assertThat(completed.getNextCursor()).isNull();
+
+        KeysetPage<Employee> firstEmployees = employeeService.getEmployeesPage(null, 2, null);
+        assertThat(firstEmployees.getItems()).extracting(Employee::getId).containsExactly(employees.get(0).getId(), employees.get(1).getId());
+        KeysetPage<Employee> lastEmployees = employeeService.getEmployeesPage(firstEmployees.getNextCursor(), 2, null);
+        assertThat(lastEmployees.getItems()).extracting(Employee::getId).containsExactly(employees.get(2).getId());
+        assertThat(lastEmployees.getNextCursor()).isNull();
+
+        KeysetPage<Employee> staff = employeeService.getEmployeesPage(null, 1, RoleEnum.EMPLOYEE);
+        assertThat(staff.getItems()).extracting(Employee::getId).containsExactly(employees.get(1).getId());
+        assertThat(employeeService.getEmployeesPage(staff.getNextCursor(), 1, RoleEnum.EMPLOYEE).getItems())
+                .extracting(Employee::getId).containsExactly(employees.get(2).getId());
+    }
+
+    @Test
+    void pageIsBuiltFromTheProbeRow() {
+        KeysetPage<Long> partial = KeysetPage.of(List.of(1L, 2L), 3, id -> id);
+        assertThat(partial.getItems()).containsExactly(1L, 2L);
+        assertThat(partial.getNextCursor()).isNull();
+
+        KeysetPage<Long> exact = KeysetPage.of(List.of(1L, 2L, 3L), 3, id -> id);
+        assertThat(exact.getItems()).containsExactly(1L, 2L, 3L);
+        assertThat(exact.getNextCursor()).isNull();
+
+        // La riga in più non fa parte della pagina: il cursore è l'ultima riga restituita
+        KeysetPage<Long> probed = KeysetPage.of(List.of(4L, 7L, 9L, 12L), 3, id -> id);
+        assertThat(probed.getItems()).containsExactly(4L, 7L, 9L);
+        assertThat(probed.getNextCursor()).isEqualTo(9L);
+
+        assertThat(KeysetPage.of(List.<Long>of(), 3, id -> id).getNextCursor()).isNull();
+    }
+
+    // Percorre le pagine con pagine piccole, così anche i filtri attraversano più cursori
+    private void assertFilter(TaskFilter filter, Predicate<Task> expected) {
+        List<KeysetPage<Task>> pages = walkTasks(filter, 2);
+        assertThat(ids(pages)).containsExactlyElementsOf(expectedIds(expected));
+        assertThat(pages.get(pages.size() - 1).getNextCursor()).isNull();
+    }
+
+    private List<KeysetPage<Task>> walkTasks(TaskFilter filter, int size) {
+        List<KeysetPage<Task>> pages = new ArrayList<>();
+        Long cursor = null;
+        do {
+            KeysetPage<Task> page = taskService.getTasksPage(cursor, size, filter);
+            assertThat(page.getItems()).hasSizeLessThanOrEqualTo(size);
+            pages.add(page);
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        return pages;
+    }
+
+    private List<Long> expectedIds(Predicate<Task> filter) {
+        return tasks.stream().filter(filter).map(Task::getId).sorted().collect(Collectors.toList());
+    }
+
+    private static List<Long> ids(List<KeysetPage<Task>> pages) {
+        List<Long> ids = pages.stream().flatMap(page -> page.getItems().stream()).map(Task::getId).collect(Collectors.toList());
+        assertThat(ids).doesNotHaveDuplicates();
+        return ids;
+    }
+
+    private static boolean inRange(Task task, LocalDate from, LocalDate to) {
+        return !task.getDueDate().isBefore(from) && !task.getDueDate().isAfter(to);
+    }
+}
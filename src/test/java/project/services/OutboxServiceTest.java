@@ -0,0 +1,192 @@
+package project.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import project.enums.ProjectStatusEnum;
+import project.enums.RoleEnum;
+import project.enums.TaskStatusEnum;
+import project.model.Employee;
+import project.model.OutboxDeadLetter;
+import project.model.OutboxEvent;
+import project.model.Project;
+import project.model.Task;
+import project.repositories.EmployeeRepository;
+import project.repositories.OutboxDeadLetterRepository;
+import project.repositories.OutboxEventRepository;
+import project.repositories.ProjectRepository;
+import project.repositories.TaskRepository;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Outbox: eventi scritti nella transazione della modifica, consegnati in ordine per aggregato, ritentati e infine
+// spostati nella dead letter. Nei test il relay viene eseguito a mano (vedi outbox.poll-interval-ms)
+@SpringBootTest(properties = {
+        "outbox.batch-size=5",
+        "outbox.max-attempts=2",
+        "outbox.initial-backoff=0ms"
+})
+class OutboxServiceTest {
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private RecordingConsumer consumer;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private OutboxDeadLetterRepository outboxDeadLetterRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    private Project project;
+    private Employee employee;
+
+    @BeforeEach
+    void setUp() {
+        taskRepository.deleteAllInBatch();
+        projectRepository.deleteAllInBatch();
+        employeeRepository.deleteAllInBatch();
+        outboxEventRepository.deleteAllInBatch();
+        outboxDeadLetterRepository.deleteAllInBatch();
+        consumer.received.clear();
+        consumer.failingAggregates.clear();
+
+        employee = new Employee("outbox.user", "secret");
+        employee.setRole(RoleEnum.EMPLOYEE);
+        employee = employeeRepository.save(employee);
+        project = projectRepository.save(new Project("Project", "Description",
+                LocalDate.now(), LocalDate.now().plusMonths(1), ProjectStatusEnum.IN_PROGRESS));
+    }
+
+    @Test
+    void eventsAreWrittenWithTheChangeAndDeliveredInOrder() {
+        Task task = taskService.createTask(newTask());
+        taskService.updateTask(task.getId(), statusUpdate(TaskStatusEnum.IN_PROGRESS));
+        taskService.deleteTask(task.getId());
+        // Modifica fallita: nessun evento
+        assertThatThrownBy(() -> taskService.updateTask(-1L, statusUpdate(TaskStatusEnum.COMPLETED)))
+                .isInstanceOf(RuntimeException.class);
+
+        assertThat(outboxEventRepository.count()).isEqualTo(3);
+        assertThat(outboxService.relayPendingEvents()).isEqualTo(3);
+
+        assertThat(consumer.received).containsExactly(
+                "TASK_CREATED " + task.getId(), "TASK_UPDATED " + task.getId(), "TASK_DELETED " + task.getId());
+        assertThat(outboxEventRepository.count()).isZero();
+    }
+
+    @Test
+    void failedEventHoldsBackItsAggregateUntilDeadLettered() {
+        Task failing = taskService.createTask(newTask());
+        taskService.updateTask(failing.getId(), statusUpdate(TaskStatusEnum.IN_PROGRESS));
+        Task other = taskService.createTask(newTask());
+        consumer.failingAggregates.add(failing.getId());
+
+        // Primo tentativo fallito: l'aggiornamento dello stesso task resta in coda, l'altro task no
+        assertThat(outboxService.relayPendingEvents()).isEqualTo(1);
+        assertThat(consumer.received).containsExactly("TASK_CREATED " + other.getId());
+        assertThat(outboxEventRepository.count()).isEqualTo(2);
+
+        // Secondo e ultimo tentativo: l'evento va nella dead letter e l'aggiornamento viene consegnato
+        consumer.failingAggregates.clear();
+        consumer.failingEventTypes.add("TASK_CREATED");
+        assertThat(outboxService.relayPendingEvents()).isEqualTo(2);
+        consumer.failingEventTypes.clear();
+
+        assertThat(consumer.received).containsExactly("TASK_CREATED " + other.getId(), "TASK_UPDATED " + failing.getId());
+        assertThat(outboxEventRepository.count()).isZero();
+        List<OutboxDeadLetter> deadLetters = outboxDeadLetterRepository.findAll();
+        assertThat(deadLetters).hasSize(1);
+        assertThat(deadLetters.get(0).getEventType()).isEqualTo("TASK_CREATED");
+        assertThat(deadLetters.get(0).getAggregateId()).isEqualTo(failing.getId());
+        assertThat(deadLetters.get(0).getAttempts()).isEqualTo(2);
+        assertThat(deadLetters.get(0).getLastError()).startsWith("recording: ");
+    }
+
+    @Test
+    void heldBackEventsDoNotBlockOtherAggregates() {
+        // Più eventi trattenuti di un lotto (outbox.batch-size=5), poi un aggregato diverso
+        Task waiting = taskService.createTask(newTask());
+        for (int i = 0; i < 6; i++) {
+            taskService.updateTask(waiting.getId(), statusUpdate(i % 2 == 0 ? TaskStatusEnum.IN_PROGRESS : TaskStatusEnum.TO_DO));
+        }
+        Task other = taskService.createTask(newTask());
+
+        // Il primo evento del task è in attesa di un nuovo tentativo
+        OutboxEvent first = outboxEventRepository.findAll().stream()
+                .filter(event -> waiting.getId().equals(event.getAggregateId()) && "TASK_CREATED".equals(event.getEventType()))
+                .findFirst().orElseThrow();
+        first.setAttempts(1);
+        first.setNextAttemptAt(Instant.now().plus(1, ChronoUnit.HOURS));
+        outboxEventRepository.save(first);
+
+        assertThat(outboxService.relayPendingEvents()).isEqualTo(1);
+        assertThat(consumer.received).containsExactly("TASK_CREATED " + other.getId());
+        assertThat(outboxEventRepository.count()).isEqualTo(7);
+    }
+
+    private Task newTask() {
+        return new Task("Task", "Description", LocalDate.now(), project, employee, TaskStatusEnum.TO_DO);
+    }
+
+    private static Task statusUpdate(TaskStatusEnum status) {
+        Task update = new Task();
+        update.setStatus(status);
+        return update;
+    }
+
+    static class RecordingConsumer implements OutboxConsumer {
+
+        private final List<String> received = new CopyOnWriteArrayList<>();
+        private final Set<Long> failingAggregates = ConcurrentHashMap.newKeySet();
+        private final Set<String> failingEventTypes = ConcurrentHashMap.newKeySet();
+
+        @Override
+        public String getName() {
+            return "recording";
+        }
+
+        @Override
+        public void consume(OutboxEvent event) {
+            if (failingAggregates.contains(event.getAggregateId()) || failingEventTypes.contains(event.getEventType())) {
+                throw new IllegalStateException("Consumer unavailable");
+            }
+            received.add(event.getEventType() + " " + event.getAggregateId());
+        }
+    }
+
+    @TestConfiguration
+    static class RecordingConsumerConfig {
+
+        @Bean
+        RecordingConsumer recordingConsumer() {
+            return new RecordingConsumer();
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package project.services;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import project.dto.ProjectSummaryView;
+import project.enums.ProjectStatusEnum;
+import project.enums.TaskStatusEnum;
+import project.model.Project;
+import project.model.Task;
+import project.repositories.EmployeeRepository;
+import project.repositories.ProjectRepository;
+import project.repositories.TaskRepository;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// I riepiloghi dei progetti seguono le scritture sui task e il job di riallineamento corregge le derive
+@SpringBootTest
+class ProjectSummaryServiceTest {
+
+    @Autowired
+    private ProjectSummaryService projectSummaryService;
+
+    @Autowired
+    private ProjectService projectService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Project project;
+
+    @BeforeEach
+    void setUp() {
+        taskRepository.deleteAllInBatch();
+        projectRepository.deleteAllInBatch();
+        employeeRepository.deleteAllInBatch();
+        project = projectService.createProject(new Project("Dashboard", "Description",
+                LocalDate.now(), LocalDate.now().plusMonths(1), ProjectStatusEnum.IN_PROGRESS));
+    }
+
+    @Test
+    void countersFollowTaskWrites() {
+        Task overdue = taskService.createTask(new Task("Overdue", "Description", LocalDate.now().minusDays(2), project, null, null));
+        Task current = taskService.createTask(new Task("Current", "Description", LocalDate.now().plusDays(2), project, null, TaskStatusEnum.IN_PROGRESS));
+        taskService.createTask(new Task("Done", "Description", LocalDate.now().minusDays(5), project, null, TaskStatusEnum.COMPLETED));
+
+        assertSummary(1, 1, 1, 1);
+
+        Task completed = new Task();
+        completed.setStatus(TaskStatusEnum.COMPLETED);
+        taskService.updateTask(overdue.getId(), completed);
+        assertSummary(0, 1, 2, 0);
+
+        taskService.deleteTask(current.getId());
+        assertSummary(0, 0, 2, 0);
+        assertThat(summary().getCompletionRatio()).isEqualTo(1.0);
+
+        projectService.completeProject(project.getId());
+        assertSummary(0, 0, 2, 0);
+    }
+
+    @Test
+    void reconciliationRepairsDrift() {
+        taskService.createTask(new Task("Task", "Description", LocalDate.now().plusDays(1), project, null, null));
+        jdbcTemplate.update("UPDATE project_summary SET to_do_count = 42, overdue_count = 7 WHERE project_id = ?", project.getId());
+
+        assertThat(projectSummaryService.reconcileProjectSummaries()).isEqualTo(1);
+        assertSummary(1, 0, 0, 0);
+        assertThat(projectSummaryService.reconcileProjectSummaries()).isZero();
+    }
+
+    @Test
+    void staleOverdueCountIsRecalculatedBeforeApplyingDeltas() {
+        Task task = taskService.createTask(new Task("Task", "Description", LocalDate.now().minusDays(1), project, null, null));
+        // Riepilogo calcolato ieri, quando il task non era ancora scaduto
+        jdbcTemplate.update("UPDATE project_summary SET overdue_count = 0, overdue_as_of = ? WHERE project_id = ?",
+                LocalDate.now().minusDays(1), project.getId());
+
+        Task completed = new Task();
+        completed.setStatus(TaskStatusEnum.COMPLETED);
+        taskService.updateTask(task.getId(), completed);
+
+        // Con il delta calcolato rispetto a oggi gli scaduti sarebbero -1
+        assertSummary(0, 0, 1, 0);
+        assertThat(summary().getOverdueAsOf()).isEqualTo(LocalDate.now());
+    }
+
+    @Test
+    void summariesAreReadWithSingleQuery() {
+        for (int i = 0; i < 50; i++) {
+            taskService.createTask(new Task("Task " + i, "Description", LocalDate.now().plusDays(i), project, null, null));
+        }
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<ProjectSummaryView> summaries = projectSummaryService.getProjectSummaries(null);
+
+        assertThat(summaries).hasSize(1);
+        assertThat(summaries.get(0).getTotalTasks()).isEqualTo(50);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    private void assertSummary(long toDo, long inProgress, long completed, long overdue) {
+        ProjectSummaryView summary = summary();
+        assertThat(summary.getTaskCounts())
+                .containsEntry(TaskStatusEnum.TO_DO, toDo)
+                .containsEntry(TaskStatusEnum.IN_PROGRESS, inProgress)
+                .containsEntry(TaskStatusEnum.COMPLETED, completed);
+        assertThat(summary.getOverdueCount()).isEqualTo(overdue);
+    }
+
+    private ProjectSummaryView summary() {
+        return projectSummaryService.getProjectSummaries(Collections.singletonList(project.getId())).get(0);
+    }
+}
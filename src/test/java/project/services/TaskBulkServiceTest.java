@@ -0,0 +1,155 @@
+package project.services;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import project.dto.TaskBulkItemResult;
+import project.dto.TaskBulkRequest;
+import project.dto.TaskBulkResult;
+import project.enums.BulkOperationEnum;
+import project.enums.ProjectStatusEnum;
+import project.enums.RoleEnum;
+import project.enums.TaskStatusEnum;
+import project.model.Employee;
+import project.model.Project;
+import project.model.Task;
+import project.repositories.EmployeeRepository;
+import project.repositories.ProjectRepository;
+import project.repositories.TaskRepository;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+// Le operazioni bulk vengono eseguite in una transazione con INSERT/UPDATE/DELETE raggruppati in batch JDBC,
+// i cambi di stato per progetto con UPDATE set-based
+@SpringBootTest
+class TaskBulkServiceTest {
+
+    private static final int CREATE_COUNT = 120;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private ProjectService projectService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Project project;
+    private Employee employee;
+
+    @BeforeEach
+    void setUp() {
+        taskRepository.deleteAllInBatch();
+        projectRepository.deleteAllInBatch();
+        employeeRepository.deleteAllInBatch();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        employee = new Employee("bulk.user", "secret");
+        employee.setRole(RoleEnum.EMPLOYEE);
+        employee = employeeRepository.save(employee);
+        project = projectRepository.save(new Project("Sprint", "Description",
+                LocalDate.now(), LocalDate.now().plusMonths(1), ProjectStatusEnum.IN_PROGRESS));
+    }
+
+    @Test
+    void bulkRequestIsBatchedAndReportsEachItem() {
+        Task first = taskRepository.save(new Task("First", "Description", LocalDate.now(), project, employee, TaskStatusEnum.TO_DO));
+        Task second = taskRepository.save(new Task("Second", "Description", LocalDate.now(), project, employee, TaskStatusEnum.TO_DO));
+
+        List<Task> creates = new ArrayList<>();
+        for (int i = 0; i < CREATE_COUNT; i++) {
+            creates.add(new Task("Imported " + i, "Description", LocalDate.now().plusDays(i),
+                    reference(project), employeeReference(employee), null));
+        }
+        Project missingProject = new Project();
+        missingProject.setId(Long.MAX_VALUE);
+        creates.add(new Task("Orphan", "Description", LocalDate.now(), missingProject, null, null));
+
+        Task rename = new Task();
+        rename.setId(first.getId());
+        rename.setTitle("Renamed");
+        Task missing = new Task();
+        missing.setId(Long.MAX_VALUE);
+
+        statistics.clear();
+        TaskBulkResult result = taskService.bulkTasks(new TaskBulkRequest(creates, Arrays.asList(rename, missing),
+                Arrays.asList(second.getId(), second.getId())));
+
+        assertThat(result.getSucceeded()).isEqualTo(CREATE_COUNT + 2);
+        assertThat(result.getFailed()).isEqualTo(3);
+        assertThat(result.getResults())
+                .filteredOn(item -> !item.isSuccess())
+                .extracting(TaskBulkItemResult::getOperation, TaskBulkItemResult::getIndex)
+                .containsExactlyInAnyOrder(
+                        tuple(BulkOperationEnum.CREATE, CREATE_COUNT),
+                        tuple(BulkOperationEnum.UPDATE, 1),
+                        tuple(BulkOperationEnum.DELETE, 1));
+        assertThat(result.getResults())
+                .filteredOn(item -> item.getOperation() == BulkOperationEnum.DELETE && !item.isSuccess())
+                .extracting(TaskBulkItemResult::getMessage)
+                .containsExactly("Duplicate delete of task with ID " + second.getId());
+
+        assertThat(statistics.getEntityStatistics(Task.class.getName()).getInsertCount()).isEqualTo(CREATE_COUNT);
+        // Senza batching sarebbero più di CREATE_COUNT statement
+        assertThat(statistics.getPrepareStatementCount()).isLessThan(20);
+
+        assertThat(taskRepository.count()).isEqualTo(CREATE_COUNT + 1);
+        assertThat(taskRepository.findById(first.getId())).get()
+                .extracting(Task::getTitle).isEqualTo("Renamed");
+        assertThat(taskRepository.findById(second.getId())).isEmpty();
+    }
+
+    @Test
+    void setBasedTransitionsKeepCompletedFlagAndRefreshCaches() {
+        Task inProgress = taskRepository.save(new Task("In progress", "Description", LocalDate.now(), project, employee, TaskStatusEnum.IN_PROGRESS));
+        Task toDo = taskRepository.save(new Task("To do", "Description", LocalDate.now(), project, employee, TaskStatusEnum.TO_DO));
+        // Popola la cache di secondo livello con lo stato precedente
+        taskRepository.findById(inProgress.getId());
+        projectRepository.findById(project.getId());
+
+        assertThat(taskService.updateTasksStatusByProject(project.getId(), TaskStatusEnum.IN_PROGRESS, TaskStatusEnum.COMPLETED)).isEqualTo(1);
+        assertThat(taskRepository.findById(inProgress.getId())).get()
+                .extracting(Task::getStatus, Task::isCompleted).containsExactly(TaskStatusEnum.COMPLETED, true);
+        assertThat(taskRepository.findById(toDo.getId())).get()
+                .extracting(Task::getStatus, Task::isCompleted).containsExactly(TaskStatusEnum.TO_DO, false);
+
+        assertThat(projectService.completeProject(project.getId())).isEqualTo(1);
+        assertThat(projectRepository.findById(project.getId())).get()
+                .extracting(Project::getStatus).isEqualTo(ProjectStatusEnum.COMPLETED);
+        assertThat(taskRepository.findAll())
+                .allSatisfy(task -> assertThat(task.isCompleted()).isTrue());
+    }
+
+    private static Project reference(Project project) {
+        Project reference = new Project();
+        reference.setId(project.getId());
+        return reference;
+    }
+
+    private static Employee employeeReference(Employee employee) {
+        Employee reference = new Employee();
+        reference.setId(employee.getId());
+        return reference;
+    }
+}
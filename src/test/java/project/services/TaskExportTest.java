@@ -0,0 +1,96 @@
+package project.services;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import project.enums.ProjectStatusEnum;
+import project.enums.RoleEnum;
+import project.enums.TaskStatusEnum;
+import project.model.Employee;
+import project.model.Project;
+import project.model.Task;
+import project.repositories.EmployeeRepository;
+import project.repositories.ProjectRepository;
+import project.repositories.TaskRepository;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Export NDJSON: un task per riga senza separatori aggiuntivi, flush verso il client a blocchi e non a ogni riga
+@SpringBootTest
+class TaskExportTest {
+
+    private static final int TASK_COUNT = 3;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final List<Long> taskIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        taskRepository.deleteAllInBatch();
+        projectRepository.deleteAllInBatch();
+        employeeRepository.deleteAllInBatch();
+
+        Employee employee = new Employee("export.user", "secret");
+        employee.setRole(RoleEnum.EMPLOYEE);
+        employee = employeeRepository.save(employee);
+        Project project = projectRepository.save(new Project("Project", "Description",
+                LocalDate.now(), LocalDate.now().plusMonths(1), ProjectStatusEnum.IN_PROGRESS));
+        taskIds.clear();
+        for (int i = 0; i < TASK_COUNT; i++) {
+            taskIds.add(taskRepository.save(new Task("Task " + i, "Description", LocalDate.now(),
+                    project, employee, TaskStatusEnum.TO_DO)).getId());
+        }
+    }
+
+    @Test
+    void exportWritesOneTaskPerLineWithBatchedFlushes() throws Exception {
+        FlushCountingOutputStream output = new FlushCountingOutputStream();
+
+        assertThat(taskService.exportTasks(output)).isEqualTo(TASK_COUNT);
+
+        String content = output.toString(StandardCharsets.UTF_8);
+        assertThat(content).endsWith("\n");
+        String[] lines = content.split("\n");
+        assertThat(lines).hasSize(TASK_COUNT);
+        for (int i = 0; i < TASK_COUNT; i++) {
+            assertThat(lines[i]).startsWith("{");
+            JsonNode task = objectMapper.readTree(lines[i]);
+            assertThat(task.get("id").asLong()).isEqualTo(taskIds.get(i));
+        }
+        // Meno righe di un blocco: solo il flush finale (più quello alla chiusura del generatore)
+        assertThat(output.flushes).isLessThanOrEqualTo(2);
+    }
+
+    private static final class FlushCountingOutputStream extends ByteArrayOutputStream {
+
+        private int flushes;
+
+        @Override
+        public void flush() {
+            flushes++;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package project.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import project.dto.ProjectView;
+import project.enums.ProjectStatusEnum;
+import project.enums.RoleEnum;
+import project.enums.TaskStatusEnum;
+import project.model.Employee;
+import project.model.Project;
+import project.model.Task;
+import project.repositories.EmployeeRepository;
+import project.repositories.ProjectRepository;
+import project.repositories.TaskRepository;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Le liste di task devono costare un numero costante di query, qualunque sia il numero di task
+@SpringBootTest
+class TaskListingQueryCountTest {
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private ProjectService projectService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        taskRepository.deleteAllInBatch();
+        projectRepository.deleteAllInBatch();
+        employeeRepository.deleteAllInBatch();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {3, 30})
+    void getAllTasksRunsSingleQuery(int taskCount) throws Exception {
+        seed(taskCount);
+        statistics.clear();
+
+        List<Task> tasks = taskService.getAllTasks();
+        // La serializzazione attraversa project ed employee come fa la risposta REST
+        objectMapper.writeValueAsString(tasks);
+
+        assertThat(tasks).hasSize(taskCount);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {3, 30})
+    void getTasksByEmployeeRunsSingleQuery(int taskCount) throws Exception {
+        Employee employee = seed(taskCount).get(0);
+        statistics.clear();
+
+        List<Task> tasks = taskService.getTasksByEmployeeId(employee.getId());
+        objectMapper.writeValueAsString(tasks);
+
+        assertThat(tasks).isNotEmpty();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {3, 30})
+    void taskViewsRunSingleQuery(int taskCount) {
+        Employee employee = seed(taskCount).get(0);
+        statistics.clear();
+
+        assertThat(taskService.getAllTaskViews()).hasSize(taskCount)
+                .allSatisfy(view -> assertThat(view.getProjectName()).isNotNull());
+        assertThat(taskService.getTaskViewsByEmployeeId(employee.getId())).isNotEmpty()
+                .allSatisfy(view -> assertThat(view.getEmployeeId()).isEqualTo(employee.getId()));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {3, 30})
+    void projectsForEmployeeRunSingleQuery(int taskCount) {
+        Employee employee = seed(taskCount).get(0);
+        // Altri task dello stesso dipendente sullo stesso progetto: il progetto compare una volta sola
+        Task first = taskRepository.findByEmployeeId(employee.getId()).get(0);
+        for (int i = 0; i < 5; i++) {
+            taskRepository.save(new Task("Extra " + i, "Description", LocalDate.now(),
+                    first.getProject(), employee, TaskStatusEnum.TO_DO));
+        }
+        statistics.clear();
+
+        assertThat(projectService.getProjectsForEmployee(employee.getId()))
+                .extracting(ProjectView::getId).containsExactly(first.getProject().getId());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    // Ogni task ha un progetto e un dipendente diversi, caso peggiore per l'N+1
+    private List<Employee> seed(int taskCount) {
+        List<Employee> employees = new ArrayList<>();
+        for (int i = 0; i < taskCount; i++) {
+            Employee employee = new Employee("user" + i, "secret");
+            employee.setName("Employee " + i);
+            employee.setRole(RoleEnum.EMPLOYEE);
+            employees.add(employeeRepository.save(employee));
+
+            Project project = projectRepository.save(new Project("Project " + i, "Description",
+                    LocalDate.now(), LocalDate.now().plusMonths(1), ProjectStatusEnum.IN_PROGRESS));
+            taskRepository.save(new Task("Task " + i, "Description", LocalDate.now().plusDays(i),
+                    project, employee, TaskStatusEnum.TO_DO));
+        }
+        return employees;
+    }
+}
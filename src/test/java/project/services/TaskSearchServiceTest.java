@@ -0,0 +1,139 @@
+package project.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import project.dto.TaskSearchPage;
+import project.dto.TaskView;
+import project.enums.ProjectStatusEnum;
+import project.enums.RoleEnum;
+import project.enums.TaskStatusEnum;
+import project.model.Employee;
+import project.model.Project;
+import project.model.Task;
+import project.repositories.EmployeeRepository;
+import project.repositories.ProjectRepository;
+import project.repositories.TaskRepository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Ricerca full-text: rilevanza, filtri e pagine sull'indice ricostruito dal database, aggiornamenti dalle modifiche dei service.
+// Contesto dedicato con l'indice attivo dall'avvio, come in produzione
+@SpringBootTest(properties = "search.rebuild-on-startup=true")
+class TaskSearchServiceTest {
+
+    @Autowired
+    private TaskSearchService taskSearchService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private ProjectService projectService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    private Employee employee;
+    private Project website;
+    private Project billing;
+
+    @BeforeEach
+    void setUp() {
+        taskRepository.deleteAllInBatch();
+        projectRepository.deleteAllInBatch();
+        employeeRepository.deleteAllInBatch();
+
+        employee = new Employee("search.user", "secret");
+        employee.setRole(RoleEnum.EMPLOYEE);
+        employee = employeeRepository.save(employee);
+        website = projectRepository.save(new Project("Website", "Public marketing site",
+                LocalDate.now(), LocalDate.now().plusMonths(1), ProjectStatusEnum.IN_PROGRESS));
+        billing = projectRepository.save(new Project("Billing", "Invoices and payment reports",
+                LocalDate.now(), LocalDate.now().plusMonths(1), ProjectStatusEnum.IN_PROGRESS));
+    }
+
+    @Test
+    void rebuiltIndexRanksFiltersAndPages() {
+        Task titleMatch = taskRepository.save(newTask("Monthly report", "Collect the numbers", billing, TaskStatusEnum.TO_DO));
+        Task descriptionMatch = taskRepository.save(newTask("Dashboard", "Charts for the report page", website, TaskStatusEnum.IN_PROGRESS));
+        Task projectMatch = taskRepository.save(newTask("Export", "CSV download", billing, TaskStatusEnum.IN_PROGRESS));
+        taskRepository.save(newTask("Landing page", "Hero section", website, TaskStatusEnum.TO_DO));
+        assertThat(taskSearchService.rebuildIndex()).isEqualTo(4);
+
+        // Titolo del task prima della descrizione del task, che a sua volta precede la descrizione del progetto
+        assertThat(ids(taskSearchService.searchTasks("report", null, null, null, null, null)))
+                .containsExactly(titleMatch.getId(), descriptionMatch.getId(), projectMatch.getId());
+        // Tutte le parole devono comparire, l'ultima anche come prefisso
+        assertThat(ids(taskSearchService.searchTasks("billing expo", null, null, null, null, null)))
+                .containsExactly(projectMatch.getId());
+
+        assertThat(ids(taskSearchService.searchTasks("report", TaskStatusEnum.IN_PROGRESS, null, null, null, null)))
+                .containsExactly(descriptionMatch.getId(), projectMatch.getId());
+        assertThat(ids(taskSearchService.searchTasks("report", null, website.getId(), null, null, null)))
+                .containsExactly(descriptionMatch.getId());
+
+        TaskSearchPage secondPage = taskSearchService.searchTasks("report", null, null, employee.getId(), 1, 2);
+        assertThat(secondPage.getTotal()).isEqualTo(3);
+        assertThat(ids(secondPage)).containsExactly(projectMatch.getId());
+        assertThat(secondPage.isHasMore()).isFalse();
+
+        assertThatThrownBy(() -> taskSearchService.searchTasks(" -- ", null, null, null, null, null))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void serviceChangesReachTheIndex() throws Exception {
+        taskSearchService.rebuildIndex();
+
+        Task task = taskService.createTask(newTask("Quarterly budget", "Spreadsheet", billing, TaskStatusEnum.TO_DO));
+        awaitIds(() -> taskSearchService.searchTasks("budget", null, null, null, null, null), List.of(task.getId()));
+
+        Task rename = new Task();
+        rename.setTitle("Yearly forecast");
+        taskService.updateTask(task.getId(), rename);
+        awaitIds(() -> taskSearchService.searchTasks("forecast", null, null, null, null, null), List.of(task.getId()));
+        assertThat(ids(taskSearchService.searchTasks("budget", null, null, null, null, null))).isEmpty();
+
+        // Il nome del progetto è indicizzato con i suoi task
+        Project renamed = new Project();
+        renamed.setName("Accounting");
+        projectService.updateProject(billing.getId(), renamed);
+        awaitIds(() -> taskSearchService.searchTasks("accounting", null, null, null, null, null), List.of(task.getId()));
+
+        taskService.deleteTask(task.getId());
+        awaitIds(() -> taskSearchService.searchTasks("forecast", null, null, null, null, null), List.of());
+    }
+
+    private Task newTask(String title, String description, Project project, TaskStatusEnum status) {
+        return new Task(title, description, LocalDate.now(), project, employee, status);
+    }
+
+    private static List<Long> ids(TaskSearchPage page) {
+        return page.getItems().stream().map(TaskView::getId).collect(Collectors.toList());
+    }
+
+    // L'indice viene aggiornato in background dopo il commit: si attende che la ricerca rifletta la modifica
+    private static void awaitIds(Supplier<TaskSearchPage> search, List<Long> expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        List<Long> found = ids(search.get());
+        while (!found.equals(expected) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            found = ids(search.get());
+        }
+        assertThat(found).isEqualTo(expected);
+    }
+}
@@ -0,0 +1,34 @@
+package project.support;
+
+import org.springframework.test.web.servlet.ResultMatcher;
+import project.filter.QueryBudgetFilter;
+
+import static org.springframework.test.util.AssertionErrors.assertNotNull;
+import static org.springframework.test.util.AssertionErrors.assertTrue;
+
+// Asserzioni MockMvc sul numero di statement JDBC eseguiti da una richiesta (header X-Query-Count di QueryBudgetFilter),
+// es. mockMvc.perform(get("/api/getAllTasks")).andExpect(maxQueries(1))
+public final class QueryCountMatchers {
+
+    private QueryCountMatchers() {
+    }
+
+    public static ResultMatcher maxQueries(int max) {
+        return result -> {
+            int count = queryCount(result.getResponse().getHeader(QueryBudgetFilter.QUERY_COUNT_HEADER));
+            assertTrue("Expected at most " + max + " queries but " + count + " were executed", count <= max);
+        };
+    }
+
+    public static ResultMatcher queryCount(int expected) {
+        return result -> {
+            int count = queryCount(result.getResponse().getHeader(QueryBudgetFilter.QUERY_COUNT_HEADER));
+            assertTrue("Expected " + expected + " queries but " + count + " were executed", count == expected);
+        };
+    }
+
+    private static int queryCount(String header) {
+        assertNotNull("Missing " + QueryBudgetFilter.QUERY_COUNT_HEADER + " header (query-budget.expose-headers=true?)", header);
+        return Integer.parseInt(header);
+    }
+}
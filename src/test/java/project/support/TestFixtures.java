@@ -0,0 +1,74 @@
+package project.support;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.TestComponent;
+import project.enums.ProjectStatusEnum;
+import project.enums.RoleEnum;
+import project.enums.TaskStatusEnum;
+import project.model.Employee;
+import project.model.Project;
+import project.model.Task;
+import project.repositories.EmployeeRepository;
+import project.repositories.ProjectRepository;
+import project.repositories.TaskRepository;
+import project.security.JwtTokenProvider;
+
+import java.time.LocalDate;
+
+// Dati e token comuni ai test sulle API, da importare con @Import(TestFixtures.class):
+// es. fixtures.deleteAll(); String token = fixtures.pmToken("etag.pm"); fixtures.task("Task", fixtures.project("Project"), employee)
+@TestComponent
+public class TestFixtures {
+
+    @Autowired
+    private JwtTokenProvider jwtTokenProvider;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    // Task prima di progetti e dipendenti, per le chiavi esterne
+    public void deleteAll() {
+        taskRepository.deleteAllInBatch();
+        projectRepository.deleteAllInBatch();
+        employeeRepository.deleteAllInBatch();
+    }
+
+    // PM con id 1 non salvato: al token basta il ruolo, il database non viene letto
+    public String pmToken(String username) {
+        Employee pm = new Employee(username, "secret");
+        pm.setId(1L);
+        pm.setRole(RoleEnum.PM);
+        return bearerToken(pm);
+    }
+
+    public String bearerToken(Employee employee) {
+        return "Bearer " + jwtTokenProvider.generateToken(employee);
+    }
+
+    public Employee employee(String username) {
+        Employee employee = new Employee(username, "secret");
+        employee.setRole(RoleEnum.EMPLOYEE);
+        return employeeRepository.save(employee);
+    }
+
+    // Progetto in corso, iniziato oggi e della durata di un mese
+    public Project project(String name) {
+        return projectRepository.save(new Project(name, "Description",
+                LocalDate.now(), LocalDate.now().plusMonths(1), ProjectStatusEnum.IN_PROGRESS));
+    }
+
+    // Task da fare con scadenza oggi
+    public Task task(String title, Project project, Employee employee) {
+        return task(title, "Description", project, employee);
+    }
+
+    public Task task(String title, String description, Project project, Employee employee) {
+        return taskRepository.save(new Task(title, description, LocalDate.now(), project, employee, TaskStatusEnum.TO_DO));
+    }
+}